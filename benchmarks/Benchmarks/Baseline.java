@@ -0,0 +1,128 @@
+package Benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public final class Baseline {
+    static final String HEADER = "benchmark,parameter,score,unit";
+
+    public static final class Row {
+        private final String benchmark;
+        private final String parameter;
+        private final double score;
+        private final String unit;
+
+        Row(String benchmark, String parameter, double score, String unit) {
+            this.benchmark = benchmark;
+            this.parameter = parameter;
+            this.score = score;
+            this.unit = unit;
+        }
+
+        public String getBenchmark() {
+            return benchmark;
+        }
+
+        public String getParameter() {
+            return parameter;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        private String key() {
+            return benchmark + "," + parameter;
+        }
+    }
+
+    private final Map<String, Row> rows = new LinkedHashMap<>();
+
+    public void add(String benchmark, String parameter, double score, String unit) {
+        Row row = new Row(benchmark, parameter, score, unit);
+        rows.put(row.key(), row);
+    }
+
+    public Row get(String benchmark, String parameter) {
+        return rows.get(benchmark + "," + parameter);
+    }
+
+    public Collection<Row> rows() {
+        return rows.values();
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    public static Baseline read(Path path) throws IOException {
+        Baseline baseline = new Baseline();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(",");
+            if (line.equals(HEADER) || line.trim().isEmpty() || line.startsWith("#") || fields.length < 4) {
+                continue;
+            }
+            baseline.add(fields[0], fields[1], Double.parseDouble(fields[2]), fields[3]);
+        }
+        return baseline;
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.write(path, toCsv().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (Row row : rows.values()) {
+            csv.append(row.benchmark).append(',').append(row.parameter).append(',')
+                    .append(String.format(Locale.ROOT, "%.4f", row.score)).append(',').append(row.unit).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Compares these results against an expected baseline. Every score is lower-is-better, so a row regresses
+     * when it is more than {@code tolerance} above its baseline. Rows missing on either side are reported but
+     * do not fail the comparison.
+     */
+    public List<Row> regressionsAgainst(Baseline expected, double tolerance, PrintStream report) {
+        List<Row> regressions = new ArrayList<>();
+        for (Row row : rows.values()) {
+            Row baseline = expected.rows.get(row.key());
+            if (baseline == null) {
+                report.printf(Locale.ROOT, "new       %-48s %-16s %12.4f %s%n", row.benchmark, row.parameter,
+                        row.score, row.unit);
+                continue;
+            }
+            boolean regressed = row.score > baseline.score * (1 + tolerance);
+            report.printf(Locale.ROOT, "%s %-48s %-16s baseline %12.4f  now %12.4f %-8s (%+.1f%%)%n",
+                    regressed ? "REGRESSED" : "ok       ", row.benchmark, row.parameter, baseline.score, row.score,
+                    row.unit, baseline.score == 0 ? 0 : (row.score / baseline.score - 1) * 100);
+            if (regressed) {
+                regressions.add(row);
+            }
+        }
+        for (Row row : expected.rows.values()) {
+            if (!rows.containsKey(row.key())) {
+                report.printf(Locale.ROOT, "not run   %-48s %-16s%n", row.benchmark, row.parameter);
+            }
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,139 @@
+package Benchmarks;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the JMH benchmarks and the in-process heap measurements, writes the results as CSV and compares them
+ * against a committed baseline. Exits with status 1 when a score regresses past the tolerance or a heap gate
+ * fails.
+ */
+public class BenchmarkSuite {
+    interface Measurement {
+        boolean run(Baseline results);
+    }
+
+    private static final Map<String, Measurement> IN_PROCESS = new LinkedHashMap<>();
+
+    static {
+        IN_PROCESS.put("Benchmarks.EntryMemoryBenchmark", EntryMemoryBenchmark::measure);
+        IN_PROCESS.put("Benchmarks.GridBenchmark", GridBenchmark::measure);
+        IN_PROCESS.put("Benchmarks.DuplicateBenchmark", DuplicateBenchmark::measure);
+        IN_PROCESS.put("Benchmarks.CatalogBenchmark", CatalogBenchmark::measure);
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        System.setProperty("java.awt.headless", "true");
+        String include = ".*";
+        Path output = Paths.get("target", "benchmarks", "results.csv");
+        Path baselinePath = null;
+        double tolerance = 0.30;
+        boolean writeBaseline = false;
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--include":
+                    include = value;
+                    break;
+                case "--output":
+                    output = Paths.get(value);
+                    break;
+                case "--baseline":
+                    baselinePath = Paths.get(value);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(value);
+                    break;
+                case "--write-baseline":
+                    writeBaseline = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    System.err.println("Usage: BenchmarkSuite [--include regex] [--output results.csv]"
+                            + " [--baseline baseline.csv] [--tolerance 0.30] [--write-baseline true]");
+                    System.exit(2);
+            }
+            i++;
+        }
+
+        Baseline results = new Baseline();
+        boolean passed = true;
+        Pattern filter = Pattern.compile(include);
+        for (Map.Entry<String, Measurement> measurement : IN_PROCESS.entrySet()) {
+            if (filter.matcher(measurement.getKey()).find()) {
+                passed &= measurement.getValue().run(results);
+            }
+        }
+        try {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .forks(1)
+                    .warmupIterations(2)
+                    .warmupTime(TimeValue.milliseconds(500))
+                    .measurementIterations(3)
+                    .measurementTime(TimeValue.seconds(1))
+                    .jvmArgsAppend("-Djava.awt.headless=true", "-Xmx2g")
+                    .build();
+            record(new Runner(options).run(), results);
+        } catch (NoBenchmarksException e) {
+            if (results.isEmpty()) {
+                throw e;
+            }
+        }
+        results.write(output);
+        System.out.print(results.toCsv());
+
+        if (baselinePath != null && writeBaseline) {
+            Baseline merged = Files.exists(baselinePath) ? Baseline.read(baselinePath) : new Baseline();
+            for (Baseline.Row row : results.rows()) {
+                merged.add(row.getBenchmark(), row.getParameter(), row.getScore(), row.getUnit());
+            }
+            merged.write(baselinePath);
+        } else if (baselinePath != null) {
+            if (!Files.exists(baselinePath)) {
+                System.err.println("No baseline at " + baselinePath);
+                System.exit(1);
+            }
+            List<Baseline.Row> regressions = results.regressionsAgainst(Baseline.read(baselinePath), tolerance,
+                    System.err);
+            if (!regressions.isEmpty()) {
+                System.err.println(regressions.size() + " benchmark(s) regressed by more than "
+                        + Math.round(tolerance * 100) + "%");
+                passed = false;
+            }
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static void record(Collection<RunResult> runs, Baseline results) {
+        for (RunResult run : runs) {
+            String benchmark = run.getParams().getBenchmark();
+            benchmark = benchmark.substring(benchmark.indexOf('.') + 1);
+            StringBuilder parameter = new StringBuilder();
+            for (String key : run.getParams().getParamsKeys()) {
+                if (parameter.length() > 0) {
+                    parameter.append(';');
+                }
+                parameter.append(key).append('=').append(run.getParams().getParam(key));
+            }
+            results.add(benchmark, parameter.length() > 0 ? parameter.toString() : "-",
+                    run.getPrimaryResult().getScore(), run.getPrimaryResult().getScoreUnit());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package Benchmarks;
+
+import MainWindowUI.LibraryCatalog;
+import MainWindowUI.LibraryStore;
+import MainWindowUI.MediaEntry;
+import MainWindowUI.MediaSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches two inactive libraries through their persisted summaries, and reads a summary back from disk. Queries
+ * shorter than {@link MediaSearchIndex#INDEXED_QUERY_LENGTH} scan every path and are timed separately. The
+ * in-process row reports the size of a summary file per entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CatalogBenchmark {
+    private static final String[] QUERIES = { "matrix", "alien 1999", "dune 20", "xyzzy", "fargo s02e3" };
+    private static final String SHORT_QUERY = "ak";
+    private static final String[] LIBRARIES = { "Films", "Series" };
+
+    @Param({ "10000", "100000" })
+    public int entries;
+
+    private Path root;
+    private LibraryCatalog catalog;
+
+    @Setup(Level.Trial)
+    public void createLibraries() throws IOException {
+        root = Files.createTempDirectory("cinema-catalog");
+        catalog = createCatalog(root, entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        catalog.shutdown();
+        SyntheticMedia.deleteTree(root);
+    }
+
+    @Benchmark
+    public void searchAll(Blackhole blackhole) throws IOException {
+        for (String query : QUERIES) {
+            blackhole.consume(catalog.searchAll(query, MediaSearchIndex.RESULT_LIMIT,
+                    Collections.<MediaSearchIndex.Hit>emptyList()));
+        }
+    }
+
+    @Benchmark
+    public List<LibraryCatalog.Match> searchAllShortQuery() throws IOException {
+        return catalog.searchAll(SHORT_QUERY, MediaSearchIndex.RESULT_LIMIT,
+                Collections.<MediaSearchIndex.Hit>emptyList());
+    }
+
+    @Benchmark
+    public Object summaryRead() throws IOException {
+        LibraryCatalog fresh = new LibraryCatalog(root);
+        try {
+            return fresh.summarize(LIBRARIES[0]);
+        } finally {
+            fresh.shutdown();
+        }
+    }
+
+    static boolean measure(Baseline results) {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("cinema-catalog");
+            int size = 100000;
+            LibraryCatalog created = createCatalog(directory, size);
+            created.shutdown();
+            Path summary = created.getJournalPath(LIBRARIES[0]).resolveSibling("summary.bin");
+            Path journal = created.getJournalPath(LIBRARIES[0]);
+            double bytes = (double) Files.size(summary) / size;
+            results.add("CatalogBenchmark.summaryBytes", "entries=" + size, bytes, "B/entry");
+            System.out.printf("summary: %.1f bytes per entry, journal: %.1f%n", bytes,
+                    (double) Files.size(journal) / size);
+            return true;
+        } catch (IOException e) {
+            System.err.println("CatalogBenchmark failed: " + e);
+            return false;
+        } finally {
+            try {
+                SyntheticMedia.deleteTree(directory);
+            } catch (IOException e) {
+                System.err.println("Could not delete " + directory + ": " + e);
+            }
+        }
+    }
+
+    private static LibraryCatalog createCatalog(Path root, int size) throws IOException {
+        LibraryCatalog catalog = new LibraryCatalog(root);
+        List<MediaEntry> mediaEntries = SyntheticMedia.entries(size);
+        for (String library : LIBRARIES) {
+            catalog.createLibrary(library);
+            LibraryStore store = new LibraryStore(catalog.getJournalPath(library), null, e -> {
+                throw new IllegalStateException(e);
+            });
+            store.load();
+            store.mediaAdded(0, mediaEntries);
+            store.close();
+            store.awaitClosed(1, TimeUnit.MINUTES);
+            catalog.summarize(library);
+        }
+        return catalog;
+    }
+}
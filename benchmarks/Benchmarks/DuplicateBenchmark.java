@@ -0,0 +1,124 @@
+package Benchmarks;
+
+import MainWindowUI.DuplicateFinder;
+import MainWindowUI.MediaEntry;
+import MainWindowUI.MediaLibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scans sparse 2 GB synthetic files for duplicates. Files come in same-size pairs so every one of them survives the
+ * size stage; all but one pair differ only in their last block. scan times the sampled stages alone. The in-process
+ * rows report the bytes read per file, sampled only and with the default full-hash confirmation, which streams just
+ * the one real duplicate pair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DuplicateBenchmark {
+    private static final int PAIRS = 16;
+    private static final long FILE_SIZE = 2L << 30;
+    private static final int BLOCK = 64 << 10;
+    private static final int CONTENT_BLOCKS = 8;
+
+    private Path root;
+    private List<MediaEntry> entries;
+
+    @Setup(Level.Trial)
+    public void createFiles() throws IOException {
+        root = Files.createTempDirectory("cinema-duplicates");
+        entries = createFiles(root);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        SyntheticMedia.deleteTree(root);
+    }
+
+    @Benchmark
+    public DuplicateFinder.Result scan() throws InterruptedException {
+        return new DuplicateFinder(2, 0, false).find(entries);
+    }
+
+    static boolean measure(Baseline results) {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("cinema-duplicates");
+            List<MediaEntry> files = createFiles(directory);
+            boolean passed = record(results, "sampledBytesRead", new DuplicateFinder(2, 0, false).find(files),
+                    1, files.size());
+            passed &= record(results, "confirmedBytesRead", new DuplicateFinder(2, 0, true).find(files),
+                    1, files.size());
+            return passed;
+        } catch (IOException | InterruptedException e) {
+            System.err.println("DuplicateBenchmark failed: " + e);
+            return false;
+        } finally {
+            try {
+                SyntheticMedia.deleteTree(directory);
+            } catch (IOException e) {
+                System.err.println("Could not delete " + directory + ": " + e);
+            }
+        }
+    }
+
+    private static boolean record(Baseline results, String benchmark, DuplicateFinder.Result result,
+            int expectedGroups, int files) {
+        double kilobytes = result.getBytesRead() / 1024.0 / files;
+        results.add("DuplicateBenchmark." + benchmark, "files=" + files, kilobytes, "KB/file");
+        System.out.printf("%s: %d groups, %.1f KB read per file%n", benchmark, result.getGroups().size(), kilobytes);
+        if (result.getGroups().size() != expectedGroups) {
+            System.err.println(benchmark + " found " + result.getGroups().size() + " duplicate groups, expected "
+                    + expectedGroups);
+            return false;
+        }
+        return true;
+    }
+
+    private static List<MediaEntry> createFiles(Path directory) throws IOException {
+        Random random = new Random(PAIRS);
+        byte[] block = new byte[BLOCK];
+        List<MediaEntry> created = new ArrayList<>(PAIRS * 2);
+        for (int pair = 0; pair < PAIRS; pair++) {
+            long size = FILE_SIZE + pair * 4096L;
+            long[] seeds = new long[CONTENT_BLOCKS + 1];
+            for (int i = 0; i < seeds.length; i++) {
+                seeds[i] = random.nextLong();
+            }
+            for (int copy = 0; copy < 2; copy++) {
+                File file = directory.resolve("movie-" + pair + "-" + copy + ".mkv").toFile();
+                try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                    out.setLength(size);
+                    for (int i = 0; i < CONTENT_BLOCKS; i++) {
+                        new Random(seeds[i]).nextBytes(block);
+                        out.seek(size / CONTENT_BLOCKS * i);
+                        out.write(block);
+                    }
+                    new Random(pair == 0 ? seeds[CONTENT_BLOCKS] : seeds[CONTENT_BLOCKS] + copy).nextBytes(block);
+                    out.seek(size - BLOCK);
+                    out.write(block);
+                }
+                created.add(MediaLibrary.describe(file));
+            }
+        }
+        return created;
+    }
+}
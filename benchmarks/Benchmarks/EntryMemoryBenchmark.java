@@ -0,0 +1,120 @@
+package Benchmarks;
+
+import MainWindowUI.MediaEntry;
+import MainWindowUI.MediaLibrary;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Measures the heap retained by a library of deep NAS-style paths and fails unless the library holds them in at
+ * least a third of the memory a plain {@code List<File>} needs.
+ */
+public class EntryMemoryBenchmark {
+    private static Object retained;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        double requiredSavings = args.length > 1 ? Double.parseDouble(args[1]) : 3.0;
+        if (!measure(new Baseline(), entries, requiredSavings)) {
+            System.exit(1);
+        }
+    }
+
+    static boolean measure(Baseline results) {
+        return measure(results, 100000, 3.0);
+    }
+
+    private static boolean measure(Baseline results, int entries, double requiredSavings) {
+        List<String> paths = paths(entries);
+        long files = measure("List<File>", entries, () -> {
+            List<File> list = new ArrayList<>(entries);
+            for (String path : paths) {
+                list.add(new File(new String(path.toCharArray())));
+            }
+            return list;
+        });
+        long library = measure("MediaLibrary", entries, () -> {
+            List<MediaEntry> list = new ArrayList<>(entries);
+            for (String path : paths) {
+                list.add(new MediaEntry(new File(path), path, MediaEntry.UNKNOWN, MediaEntry.UNKNOWN, null,
+                        MediaEntry.UNKNOWN));
+            }
+            MediaLibrary mediaLibrary = new MediaLibrary();
+            mediaLibrary.addAll(list);
+            return mediaLibrary;
+        });
+        long described = measure("MediaLibrary+attrs", entries, () -> {
+            List<MediaEntry> list = new ArrayList<>(entries);
+            int inode = 1000000;
+            for (String path : paths) {
+                list.add(new MediaEntry(new File(path), path, 700L << 20, 1500000000000L + inode,
+                        "(dev=fd01,ino=" + inode++ + ")", MediaEntry.UNKNOWN));
+            }
+            MediaLibrary mediaLibrary = new MediaLibrary();
+            mediaLibrary.addAll(list);
+            return mediaLibrary;
+        });
+
+        double savings = (double) files / library;
+        System.out.printf(Locale.ROOT, "MediaLibrary is %.1fx smaller than List<File>%n", savings);
+        String parameter = "entries=" + entries;
+        results.add("EntryMemoryBenchmark.listOfFiles", parameter, (double) files / entries, "B/entry");
+        results.add("EntryMemoryBenchmark.library", parameter, (double) library / entries, "B/entry");
+        results.add("EntryMemoryBenchmark.libraryWithAttributes", parameter, (double) described / entries,
+                "B/entry");
+        if (savings < requiredSavings) {
+            System.out.printf(Locale.ROOT, "FAILED: expected at least %.1fx%n", requiredSavings);
+            return false;
+        }
+        return true;
+    }
+
+    private static List<String> paths(int count) {
+        Random random = new Random(count);
+        List<String> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int directory = i / 100;
+            paths.add("/mnt/nas/department-media/archive/" + (2000 + directory % 20) + "/projects/project-"
+                    + (directory / 20) + "/deliverables/season-" + (directory % 5) + "/"
+                    + SyntheticMedia.WORDS[random.nextInt(SyntheticMedia.WORDS.length)] + " "
+                    + SyntheticMedia.WORDS[random.nextInt(SyntheticMedia.WORDS.length)] + " "
+                    + (1950 + random.nextInt(75)) + " part " + i + ".mkv");
+        }
+        return paths;
+    }
+
+    static long measure(String name, int entries, Supplier<Object> builder) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        retained = null;
+        long before = usedAfterGc(memory);
+        Object built = builder.get();
+        retained = built;
+        long used = usedAfterGc(memory) - before;
+        System.out.printf(Locale.ROOT, "%-18s %8d entries  %8.2f MB retained  %6.1f bytes/entry%n", name, entries,
+                used / (1024.0 * 1024.0), (double) used / entries);
+        retained = null;
+        return used;
+    }
+
+    private static long usedAfterGc(MemoryMXBean memory) {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,135 @@
+package Benchmarks;
+
+import MainWindowUI.MediaEntry;
+import MainWindowUI.MediaGridFixture;
+import MainWindowUI.MediaLibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.GridLayout;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times building the library grid and measures the heap it retains per entry. The panelGrid rows are the baseline:
+ * one panel with a label and three buttons per file, as the grid was built before it became a virtual list. Panels
+ * are only built up to 10000 files; 100000 of them do not fit the benchmark heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GridBenchmark {
+    private static final int[] SIZES = { 1000, 10000, 100000 };
+    private static final int MAX_PANELS = 10000;
+
+    @State(Scope.Benchmark)
+    public static class LibraryState {
+        @Param({ "1000", "10000", "100000" })
+        public int entries;
+
+        MediaLibrary library;
+
+        @Setup
+        public void createLibrary() {
+            library = library(entries);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FileState {
+        @Param({ "1000", "10000" })
+        public int entries;
+
+        List<File> files;
+
+        @Setup
+        public void createFiles() {
+            files = files(entries);
+        }
+    }
+
+    @Benchmark
+    public JList<File> virtualGrid(LibraryState state) {
+        return MediaGridFixture.build(state.library);
+    }
+
+    @Benchmark
+    public JPanel panelGrid(FileState state) {
+        return panelGrid(state.files);
+    }
+
+    static boolean measure(Baseline results) {
+        MediaGridFixture.build(library(10));
+        panelGrid(files(10));
+        for (int entries : SIZES) {
+            MediaLibrary library = library(entries);
+            long grid = EntryMemoryBenchmark.measure("virtualGrid", entries, () -> MediaGridFixture.build(library));
+            results.add("GridBenchmark.virtualGridHeap", "entries=" + entries, (double) grid / entries, "B/entry");
+            if (entries <= MAX_PANELS) {
+                List<File> files = files(entries);
+                long panels = EntryMemoryBenchmark.measure("panelGrid", entries, () -> panelGrid(files));
+                results.add("GridBenchmark.panelGridHeap", "entries=" + entries, (double) panels / entries,
+                        "B/entry");
+            }
+        }
+        return true;
+    }
+
+    private static MediaLibrary library(int entries) {
+        MediaLibrary library = new MediaLibrary();
+        library.addAll(SyntheticMedia.entries(entries));
+        return library;
+    }
+
+    private static List<File> files(int entries) {
+        List<File> files = new ArrayList<>(entries);
+        for (MediaEntry entry : SyntheticMedia.entries(entries)) {
+            files.add(entry.getFile());
+        }
+        return files;
+    }
+
+    private static JPanel panelGrid(List<File> files) {
+        JPanel itemPanel = new JPanel(new GridLayout(0, 4, 10, 10));
+        for (File file : files) {
+            JPanel mediaItemPanel = new JPanel(new BorderLayout());
+            mediaItemPanel.setPreferredSize(new Dimension(220, 100));
+            mediaItemPanel.setBackground(Color.LIGHT_GRAY);
+            mediaItemPanel.setBorder(BorderFactory.createLineBorder(Color.GRAY, 1));
+            JLabel mediaLabel = new JLabel(file.getName());
+            mediaLabel.setHorizontalAlignment(SwingConstants.CENTER);
+            mediaLabel.setFont(new Font("Arial", Font.BOLD, 14));
+            mediaLabel.setPreferredSize(new Dimension(220, 50));
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 5, 5));
+            for (String text : new String[] { "Play", "Rename", "Delete" }) {
+                JButton button = new JButton(text);
+                button.setPreferredSize(new Dimension(90, 30));
+                button.addActionListener(e -> file.getName());
+                buttonPanel.add(button);
+            }
+            mediaItemPanel.add(mediaLabel, BorderLayout.CENTER);
+            mediaItemPanel.add(buttonPanel, BorderLayout.SOUTH);
+            itemPanel.add(mediaItemPanel);
+        }
+        return itemPanel;
+    }
+}
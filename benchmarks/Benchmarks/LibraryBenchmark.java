@@ -0,0 +1,151 @@
+package Benchmarks;
+
+import MainWindowUI.FolderScanner;
+import MainWindowUI.LibraryStore;
+import MainWindowUI.MediaEntry;
+import MainWindowUI.MediaLibrary;
+import MainWindowUI.MediaLibraryView;
+import MainWindowUI.MediaSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times folder scanning, adding files, duplicate checks, building and querying the search index, saving and
+ * loading the library journal, and the whole startup load on synthetic file trees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LibraryBenchmark {
+    private static final String[] QUERIES = { "matrix", "alien 1999", "dune part", "xyzzy", "ak", "fargo s02e03" };
+
+    @Param({ "1000", "10000", "100000" })
+    public int entries;
+
+    private Path root;
+    private Path journal;
+    private List<File> mediaFiles;
+    private List<MediaEntry> mediaEntries;
+    private MediaLibrary library;
+    private MediaSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        root = Files.createTempDirectory("cinema-bench");
+        mediaFiles = SyntheticMedia.createTree(root.resolve("media"), entries);
+        library = new MediaLibrary();
+        library.addFiles(mediaFiles);
+        mediaEntries = new ArrayList<>(library.getEntries());
+        searchIndex = new MediaSearchIndex(library);
+        journal = root.resolve("mediaLibrary.db");
+        saveJournal();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        SyntheticMedia.deleteTree(root);
+    }
+
+    @Benchmark
+    public List<File> folderScan() throws IOException {
+        List<File> found = new ArrayList<>(entries);
+        new FolderScanner(500, 0).scan(root.resolve("media"), new FolderScanner.Listener() {
+            @Override
+            public void batchFound(List<File> batch) {
+                found.addAll(batch);
+            }
+
+            @Override
+            public void progress(int directoriesVisited, int filesFound) {
+            }
+        });
+        return found;
+    }
+
+    @Benchmark
+    public List<MediaEntry> libraryAdd() {
+        return new MediaLibrary().addFiles(mediaFiles);
+    }
+
+    @Benchmark
+    public List<MediaEntry> libraryAddDuplicates() {
+        return library.addAll(mediaEntries);
+    }
+
+    @Benchmark
+    public MediaSearchIndex searchIndexBuild() {
+        MediaSearchIndex index = new MediaSearchIndex(library);
+        index.detach();
+        return index;
+    }
+
+    @Benchmark
+    public void searchQuery(Blackhole blackhole) {
+        for (String query : QUERIES) {
+            blackhole.consume(searchIndex.searchRows(query, MediaSearchIndex.RESULT_LIMIT));
+        }
+    }
+
+    @Benchmark
+    public void librarySave() throws IOException {
+        saveJournal();
+    }
+
+    @Benchmark
+    public List<MediaEntry> libraryLoad() throws IOException {
+        LibraryStore store = new LibraryStore(journal, null, e -> {
+            throw new IllegalStateException(e);
+        });
+        List<MediaEntry> loaded = store.load();
+        store.close();
+        store.awaitClosed(1, TimeUnit.MINUTES);
+        return loaded;
+    }
+
+    /** What the app does before the grid is complete: replay the journal and feed the library in chunks. */
+    @Benchmark
+    public MediaLibrary startupLoad() throws IOException {
+        LibraryStore store = new LibraryStore(journal, null, e -> {
+            throw new IllegalStateException(e);
+        });
+        List<MediaEntry> loaded = store.load();
+        MediaLibrary loadedLibrary = new MediaLibrary();
+        new MediaSearchIndex(loadedLibrary);
+        new MediaLibraryView(loadedLibrary);
+        for (int start = 0; start < loaded.size(); start += 2000) {
+            loadedLibrary.addAll(loaded.subList(start, Math.min(loaded.size(), start + 2000)));
+        }
+        store.close();
+        store.awaitClosed(1, TimeUnit.MINUTES);
+        return loadedLibrary;
+    }
+
+    private void saveJournal() throws IOException {
+        Files.deleteIfExists(journal);
+        LibraryStore store = new LibraryStore(journal, null, e -> {
+            throw new IllegalStateException(e);
+        });
+        store.load();
+        store.mediaAdded(0, mediaEntries);
+        store.close();
+        store.awaitClosed(1, TimeUnit.MINUTES);
+    }
+}
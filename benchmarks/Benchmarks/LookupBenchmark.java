@@ -0,0 +1,71 @@
+package Benchmarks;
+
+import MainWindowUI.MediaEntry;
+import MainWindowUI.MediaLibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times {@link MediaLibrary#indexOf(File)} for 1000 stored files, every tenth reached through a path whose
+ * canonical form differs, and how importing in-memory entries scales with library size. Neither touches disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LookupBenchmark {
+    private static final int LOOKUPS = 1000;
+
+    @Param({ "1000", "10000", "100000" })
+    public int entries;
+
+    private List<MediaEntry> mediaEntries;
+    private MediaLibrary library;
+    private File[] lookups;
+
+    @Setup
+    public void createLibrary() {
+        mediaEntries = new ArrayList<>(entries);
+        int i = 0;
+        for (MediaEntry entry : SyntheticMedia.entries(entries)) {
+            String canonicalPath = i++ % 10 == 0 ? File.separator + "srv" + entry.getCanonicalPath()
+                    : entry.getCanonicalPath();
+            mediaEntries.add(new MediaEntry(entry.getFile(), canonicalPath, entry.getSize(),
+                    entry.getLastModified(), null, MediaEntry.UNKNOWN));
+        }
+        library = new MediaLibrary();
+        library.addAll(mediaEntries);
+        Random random = new Random(entries);
+        lookups = new File[LOOKUPS];
+        for (int j = 0; j < LOOKUPS; j++) {
+            lookups[j] = mediaEntries.get(random.nextInt(entries)).getFile();
+        }
+    }
+
+    @Benchmark
+    public void indexOfFile(Blackhole blackhole) {
+        for (File lookup : lookups) {
+            blackhole.consume(library.indexOf(lookup));
+        }
+    }
+
+    @Benchmark
+    public MediaLibrary importEntries() {
+        MediaLibrary imported = new MediaLibrary();
+        imported.addAll(mediaEntries);
+        return imported;
+    }
+}
@@ -0,0 +1,138 @@
+package Benchmarks;
+
+import MainWindowUI.MediaProbe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times {@link MediaProbe#probe} per file over sparse 256 MB synthetic containers. MP4 files keep their moov box
+ * after the media data, as most downloads do, so the probe has to seek past it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProbeBenchmark {
+    private static final int FILES = 200;
+    private static final long FILE_SIZE = 256L << 20;
+
+    @Param({ "MP4", "MKV", "AVI" })
+    public String container;
+
+    private Path root;
+    private File[] files;
+
+    @Setup(Level.Trial)
+    public void createFiles() throws IOException {
+        root = Files.createTempDirectory("cinema-probe");
+        files = new File[FILES];
+        for (int i = 0; i < FILES; i++) {
+            File file = root.resolve("movie-" + i + "." + container.toLowerCase(Locale.ROOT)).toFile();
+            long durationMillis = (80 + i % 90) * 60000L;
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                switch (container) {
+                    case "MP4":
+                        writeMp4(out, durationMillis);
+                        break;
+                    case "MKV":
+                        writeMkv(out, durationMillis);
+                        break;
+                    default:
+                        writeAvi(out, durationMillis);
+                        break;
+                }
+                out.setLength(Math.max(out.length(), FILE_SIZE));
+            }
+            files[i] = file;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        SyntheticMedia.deleteTree(root);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILES)
+    public void probe(Blackhole blackhole) throws IOException {
+        for (File file : files) {
+            blackhole.consume(MediaProbe.probe(file));
+        }
+    }
+
+    private static void writeMp4(RandomAccessFile out, long durationMillis) throws IOException {
+        ByteBuffer ftyp = ByteBuffer.allocate(24);
+        ftyp.putInt(24).put(ascii("ftyp")).put(ascii("isom")).putInt(512).put(ascii("isom")).put(ascii("mp41"));
+        long mdatSize = FILE_SIZE - 4096;
+        ByteBuffer mdat = ByteBuffer.allocate(16);
+        mdat.putInt(1).put(ascii("mdat")).putLong(mdatSize);
+
+        ByteBuffer mvhd = ByteBuffer.allocate(108);
+        mvhd.putInt(108).put(ascii("mvhd")).putInt(0).putInt(0).putInt(0).putInt(1000).putInt((int) durationMillis);
+        ByteBuffer tkhd = ByteBuffer.allocate(92);
+        tkhd.putInt(92).put(ascii("tkhd"));
+        tkhd.putInt(8 + 76, 1920 << 16).putInt(8 + 80, 1080 << 16);
+        int trakSize = 8 + tkhd.capacity();
+        int moovSize = 8 + mvhd.capacity() + trakSize;
+        ByteBuffer moov = ByteBuffer.allocate(moovSize);
+        moov.putInt(moovSize).put(ascii("moov")).put(mvhd.array()).putInt(trakSize).put(ascii("trak"))
+                .put(tkhd.array());
+
+        out.write(ftyp.array());
+        out.write(mdat.array());
+        out.seek(24 + mdatSize);
+        out.write(moov.array());
+    }
+
+    private static void writeMkv(RandomAccessFile out, long durationMillis) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.putInt(0x1A45DFA3).put((byte) 0x80);
+        buffer.putInt(0x18538067).put((byte) 0xFF);
+        buffer.putInt(0x1549A966).put((byte) 0xFF);
+        buffer.put((byte) 0x2A).put((byte) 0xD7).put((byte) 0xB1).put((byte) 0x83)
+                .put((byte) 0x0F).put((byte) 0x42).put((byte) 0x40);
+        buffer.putShort((short) 0x4489).put((byte) 0x88).putDouble(durationMillis);
+        buffer.putInt(0x1654AE6B).put((byte) 0xFF);
+        buffer.put((byte) 0xAE).put((byte) 0xFF).put((byte) 0xE0).put((byte) 0xFF);
+        buffer.put((byte) 0xB0).put((byte) 0x82).putShort((short) 1920);
+        buffer.put((byte) 0xBA).put((byte) 0x82).putShort((short) 1080);
+        buffer.putInt(0x1F43B675).put((byte) 0xFF);
+        out.write(buffer.array(), 0, buffer.position());
+    }
+
+    private static void writeAvi(RandomAccessFile out, long durationMillis) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(88).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(ascii("RIFF")).putInt((int) (FILE_SIZE - 8)).put(ascii("AVI "));
+        buffer.put(ascii("LIST")).putInt(68).put(ascii("hdrl"));
+        buffer.put(ascii("avih")).putInt(56);
+        int body = buffer.position();
+        buffer.putInt(body, 40000).putInt(body + 16, (int) (durationMillis / 40))
+                .putInt(body + 32, 1280).putInt(body + 36, 720);
+        out.write(buffer.array());
+    }
+
+    private static byte[] ascii(String code) {
+        return code.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,71 @@
+package Benchmarks;
+
+import MainWindowUI.MediaLibrary;
+import MainWindowUI.MediaSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a capped trigram index query with the linear name scan the grid used before the index existed. Queries
+ * shorter than {@link MediaSearchIndex#INDEXED_QUERY_LENGTH} have no trigram and scan every row, so they are timed
+ * separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SearchBenchmark {
+    private static final String[] QUERIES = { "matrix", "alien 1999", "dune 20", "xyzzy", "fargo s02e3" };
+    private static final String SHORT_QUERY = "ak";
+
+    @Param({ "10000", "100000" })
+    public int entries;
+
+    private MediaLibrary library;
+    private MediaSearchIndex searchIndex;
+
+    @Setup
+    public void createLibrary() {
+        library = new MediaLibrary();
+        library.addAll(SyntheticMedia.entries(entries));
+        searchIndex = new MediaSearchIndex(library);
+    }
+
+    @Benchmark
+    public void indexed(Blackhole blackhole) {
+        for (String query : QUERIES) {
+            blackhole.consume(searchIndex.searchRows(query, MediaSearchIndex.RESULT_LIMIT));
+        }
+    }
+
+    @Benchmark
+    public int[] shortQuery() {
+        return searchIndex.searchRows(SHORT_QUERY, MediaSearchIndex.RESULT_LIMIT);
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        for (String query : QUERIES) {
+            String lowerQuery = query.toLowerCase(Locale.ROOT);
+            int matches = 0;
+            for (int i = 0; i < library.size() && matches < MediaSearchIndex.RESULT_LIMIT; i++) {
+                File mediaFile = library.get(i);
+                if (mediaFile.getPath().toLowerCase(Locale.ROOT).contains(lowerQuery)) {
+                    blackhole.consume(mediaFile);
+                    matches++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package Benchmarks;
+
+import MainWindowUI.MediaEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class SyntheticMedia {
+    static final String[] WORDS = { "alien", "matrix", "heat", "jaws", "vertigo", "brazil", "akira", "ronin",
+            "fargo", "memento", "gravity", "arrival", "her", "up", "coco", "dune" };
+    static final String[] EXTENSIONS = { ".mp4", ".mkv", ".avi" };
+
+    private SyntheticMedia() {
+    }
+
+    static String name(Random random, int i) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + (1950 + random.nextInt(75)) + " "
+                + WORDS[random.nextInt(WORDS.length)] + " s0" + random.nextInt(10) + "e" + i
+                + EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+    }
+
+    static List<MediaEntry> entries(int size) {
+        Random random = new Random(size);
+        List<MediaEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String path = File.separator + "media" + File.separator + "shelf" + (i / 4000) + File.separator + "dir"
+                    + (i / 200) + File.separator + name(random, i);
+            entries.add(new MediaEntry(new File(path), path, (100L + random.nextInt(4000)) << 20,
+                    1500000000000L + i * 60000L, null, MediaEntry.UNKNOWN));
+        }
+        return entries;
+    }
+
+    static List<File> createTree(Path root, int size) throws IOException {
+        Random random = new Random(size);
+        List<File> mediaFiles = new ArrayList<>(size);
+        int perDirectory = 200;
+        for (int i = 0; i < size; i++) {
+            Path directory = root.resolve("shelf" + (i / (perDirectory * 20))).resolve("dir" + (i / perDirectory));
+            if (i % perDirectory == 0) {
+                Files.createDirectories(directory);
+                Files.createFile(directory.resolve("notes.txt"));
+            }
+            mediaFiles.add(Files.createFile(directory.resolve(name(random, i))).toFile());
+        }
+        return mediaFiles;
+    }
+
+    static void deleteTree(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package MainWindowUI;
+
+import javax.swing.JList;
+import java.io.File;
+
+/**
+ * Builds the library grid the way the main window does, so the benchmarks can reach the package-private model and
+ * renderer.
+ */
+public final class MediaGridFixture {
+    private MediaGridFixture() {
+    }
+
+    public static JList<File> build(MediaLibrary mediaLibrary) {
+        MediaLibraryView mediaLibraryView = new MediaLibraryView(mediaLibrary);
+        JList<File> mediaGrid = new JList<>(new MediaListModel(mediaLibraryView));
+        mediaGrid.setLayoutOrientation(JList.HORIZONTAL_WRAP);
+        mediaGrid.setVisibleRowCount(-1);
+        mediaGrid.setFixedCellWidth(MediaItemRenderer.CELL_WIDTH);
+        mediaGrid.setFixedCellHeight(MediaItemRenderer.CELL_HEIGHT);
+        mediaGrid.setCellRenderer(new MediaItemRenderer(file -> false, file -> false, file -> null));
+        return mediaGrid;
+    }
+}
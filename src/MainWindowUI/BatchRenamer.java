@@ -0,0 +1,202 @@
+package MainWindowUI;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class BatchRenamer {
+    public enum Mode {
+        NAME("Rename"),
+        PREFIX("Add Prefix"),
+        SUFFIX("Add Suffix"),
+        REGEX("Find and Replace (regex)"),
+        SEQUENCE("Number Sequentially");
+
+        private final String label;
+
+        Mode(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public static final class Outcome {
+        private final File source;
+        private final File target;
+        private final String error;
+
+        Outcome(File source, File target, String error) {
+            this.source = source;
+            this.target = target;
+            this.error = error;
+        }
+
+        public File getSource() {
+            return source;
+        }
+
+        public File getTarget() {
+            return target;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public boolean isRenamed() {
+            return error == null && !source.equals(target);
+        }
+    }
+
+    private final Mode mode;
+    private final String text;
+    private final Pattern pattern;
+    private final String replacement;
+    private final int start;
+
+    private BatchRenamer(Mode mode, String text, Pattern pattern, String replacement, int start) {
+        this.mode = mode;
+        this.text = text;
+        this.pattern = pattern;
+        this.replacement = replacement;
+        this.start = start;
+    }
+
+    public static BatchRenamer named(String name) {
+        return new BatchRenamer(Mode.NAME, name, null, null, 0);
+    }
+
+    public static BatchRenamer prefix(String prefix) {
+        return new BatchRenamer(Mode.PREFIX, prefix, null, null, 0);
+    }
+
+    public static BatchRenamer suffix(String suffix) {
+        return new BatchRenamer(Mode.SUFFIX, suffix, null, null, 0);
+    }
+
+    public static BatchRenamer regex(String regex, String replacement) {
+        try {
+            return new BatchRenamer(Mode.REGEX, null, Pattern.compile(regex), replacement, 0);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid pattern: " + e.getDescription(), e);
+        }
+    }
+
+    public static BatchRenamer sequence(String template, int start) {
+        if (!template.contains("#")) {
+            throw new IllegalArgumentException("The name template needs a # where the number goes.");
+        }
+        return new BatchRenamer(Mode.SEQUENCE, template, null, null, start);
+    }
+
+    public static BatchRenamer of(Mode mode, String text, String replacement, int start) {
+        switch (mode) {
+            case NAME:
+                return named(text);
+            case PREFIX:
+                return prefix(text);
+            case SUFFIX:
+                return suffix(text);
+            case REGEX:
+                return regex(text, replacement);
+            default:
+                return sequence(text, start);
+        }
+    }
+
+    public String newName(String name, int position) {
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        switch (mode) {
+            case NAME:
+                return text;
+            case PREFIX:
+                return text + name;
+            case SUFFIX:
+                return base + text + extension;
+            case REGEX:
+                try {
+                    return pattern.matcher(base).replaceAll(replacement) + extension;
+                } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                    throw new IllegalArgumentException("Invalid replacement: " + e.getMessage(), e);
+                }
+            default:
+                return numbered(position) + extension;
+        }
+    }
+
+    private String numbered(int position) {
+        Matcher digits = Pattern.compile("#+").matcher(text);
+        StringBuffer result = new StringBuffer();
+        boolean first = true;
+        while (digits.find()) {
+            String number = first ? String.format(Locale.ROOT, "%0" + digits.group().length() + "d", start + position)
+                    : digits.group();
+            digits.appendReplacement(result, Matcher.quoteReplacement(number));
+            first = false;
+        }
+        digits.appendTail(result);
+        return result.toString();
+    }
+
+    public List<Outcome> preview(List<File> files) {
+        List<Outcome> outcomes = new ArrayList<>(files.size());
+        Set<File> targets = new HashSet<>();
+        Set<File> sources = new HashSet<>(files);
+        for (int i = 0; i < files.size(); i++) {
+            File source = files.get(i);
+            String name;
+            try {
+                name = newName(source.getName(), i);
+            } catch (IllegalArgumentException e) {
+                outcomes.add(new Outcome(source, source, e.getMessage()));
+                continue;
+            }
+            File target = new File(source.getParentFile(), name);
+            String error = null;
+            if (name.trim().isEmpty() || name.contains("/") || name.contains(File.separator)) {
+                error = "\"" + name + "\" is not a valid file name";
+            } else if (!MediaFileTypes.isSupported(name)) {
+                error = "\"" + name + "\" is not a supported media file name";
+            } else if (!target.equals(source) && !targets.add(target)) {
+                error = "another file in this batch is also renamed to " + name;
+            } else if (!target.equals(source) && !sources.contains(target) && target.exists()) {
+                error = name + " already exists";
+            }
+            outcomes.add(new Outcome(source, target, error));
+        }
+        return outcomes;
+    }
+
+    public List<Outcome> rename(List<File> files) {
+        List<Outcome> planned = preview(files);
+        List<Outcome> outcomes = new ArrayList<>(planned.size());
+        for (Outcome outcome : planned) {
+            if (!outcome.isRenamed()) {
+                outcomes.add(outcome);
+                continue;
+            }
+            try {
+                Files.move(outcome.source.toPath(), outcome.target.toPath());
+                outcomes.add(outcome);
+            } catch (IOException | RuntimeException e) {
+                String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                outcomes.add(new Outcome(outcome.source, outcome.source, reason));
+            }
+        }
+        return outcomes;
+    }
+}
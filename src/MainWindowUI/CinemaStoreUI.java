@@ -1,47 +1,179 @@
 package MainWindowUI;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import MediaPlayerUI.MediaPlayerUI;
+import MediaPlayerUI.ResumeStore;
+import MediaPlayerUI.TimeFormatter;
+import MediaPlayerUI.VlcFrameGrabber;
+import Metrics.Metrics;
 
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 
 public class CinemaStoreUI extends JFrame {
+    private static final String NEW_LIBRARY_ITEM = "New Library...";
+    private static final int SEARCH_DEBOUNCE_MILLIS = 150;
+    private static final int SHORT_SEARCH_DEBOUNCE_MILLIS = 400;
+    private static final int PROBED_BATCH_MILLIS = 500;
+
+    private enum MetadataFilter {
+        ANY("Any Length or Format", null),
+        SHORT("Under 30 Minutes", store -> store.select(MetadataStore.Column.DURATION, 0, 30 * 60000L - 1)),
+        FEATURE("30 to 90 Minutes", store -> store.select(MetadataStore.Column.DURATION, 30 * 60000L, 90 * 60000L)),
+        LONG("Over 90 Minutes", store -> store.select(MetadataStore.Column.DURATION, 90 * 60000L + 1, Long.MAX_VALUE)),
+        HD("HD (720p+)", store -> store.select(MetadataStore.Column.HEIGHT, 720, Integer.MAX_VALUE)),
+        UHD("4K (2160p+)", store -> store.select(MetadataStore.Column.HEIGHT, 2160, Integer.MAX_VALUE)),
+        MP4("MP4 Container", store -> store.selectContainer(MediaProbe.Container.MP4)),
+        MKV("MKV Container", store -> store.selectContainer(MediaProbe.Container.MKV)),
+        AVI("AVI Container", store -> store.selectContainer(MediaProbe.Container.AVI));
+
+        private final String label;
+        private final Function<MetadataStore, int[]> selector;
+
+        MetadataFilter(String label, Function<MetadataStore, int[]> selector) {
+            this.label = label;
+            this.selector = selector;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
     private JPanel titleCardPanel;
     private JLabel titleCardLabel;
     private Font titleFont;
     private JPanel contentPanel;
-    private JPanel itemPanel;
+    private JList<File> mediaGrid;
+    private MediaLibraryView mediaLibraryView;
+    private MediaListModel mediaListModel;
+    private MediaItemRenderer mediaItemRenderer;
     private JScrollPane itemPanelScroll;
     private JPanel mediaControlPanel;
     private JButton searchButton;
     private JButton addFolderButton;
     private JButton addFileButton;
+    private JButton watchFolderButton;
+    private JButton findDuplicatesButton;
+    private JButton playAllButton;
+    private JButton searchAllButton;
+    private JComboBox<String> libraryComboBox;
+    private boolean updatingLibraries;
+    private int libraryGeneration;
     private JTextField searchTextField;
+    private JComboBox<MediaLibraryView.SortKey> sortComboBox;
+    private JComboBox<MetadataFilter> metadataFilterComboBox;
+    private BitSet metadataFilterIds;
+    private JComboBox<String> typeComboBox;
+    private JCheckBox matchesOnlyCheckBox;
     private JPanel dynamicContentPanel;
     private MediaPlayerUI mediaPlayerUI;
-    private List<File> storedMediaFiles;
+    private MediaLibrary mediaLibrary;
+    private LibraryCatalog libraryCatalog;
+    private volatile LibraryStore libraryStore;
+    private final Set<File> highlightedMediaFiles = new HashSet<>();
+    private final BitSet highlightedRows = new BitSet();
+    private final Set<File> missingMediaFiles = new HashSet<>();
+    private final MediaFileValidator mediaFileValidator = new MediaFileValidator(256);
+    private ThumbnailService thumbnailService;
+    private MetadataStore metadataStore;
+    private MetadataProber metadataProber;
+    private FolderWatcher folderWatcher;
+    private final Set<File> watchedFolders = new LinkedHashSet<>();
+    private Path watchedFoldersPath;
+    private final MediaSearchIndex searchIndex;
+    private Timer searchDebounceTimer;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "media-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> pendingSearch;
+    private DuplicateScanWorker duplicateScan;
+    private int searchGeneration;
 
     public CinemaStoreUI() {
+        this.mediaLibrary = new MediaLibrary();
+        this.searchIndex = new MediaSearchIndex(this.mediaLibrary);
+        // Registered before the library view, which filters on highlightedRows when it handles the same removal.
+        this.mediaLibrary.addListener(new HighlightUpdater());
+        this.libraryCatalog = new LibraryCatalog(Paths.get(""));
+        this.libraryStore = createLibraryStore(this.libraryCatalog.loadActiveLibrary());
+        this.metadataStore = new MetadataStore(Paths.get("mediaMetadata.db"));
+        Timer probedBatchTimer = new Timer(PROBED_BATCH_MILLIS, e -> applyProbedEntries());
+        probedBatchTimer.setRepeats(false);
+        this.metadataProber = new MetadataProber(this.metadataStore, 2,
+                () -> SwingUtilities.invokeLater(probedBatchTimer::start),
+                e -> SwingUtilities.invokeLater(
+                        () -> handleException(e, "Error saving media metadata: " + e.getMessage())));
+        this.mediaLibrary.addListener(new MetadataUpdater());
+        this.thumbnailService = new ThumbnailService(new VlcFrameGrabber(), new ThumbnailMemoryCache(32L << 20),
+                new ThumbnailDiskCache(Paths.get("thumbnails")), 2,
+                mediaFile -> SwingUtilities.invokeLater(() -> repaintMedia(mediaFile)));
+        this.mediaLibrary.addListener(new ThumbnailUpdater());
+        this.folderWatcher = new FolderWatcher(
+                (created, deleted) -> SwingUtilities.invokeLater(() -> mediaLibrary.applyChanges(created, deleted)));
         this.initializeUI();
-        this.storedMediaFiles = new ArrayList<>();
-
-        try {
-            this.loadMediaFiles();
-        } catch (IOException e) {
-            this.handleException(e, "Error loading media files: " + e.getMessage());
-        }
 
         this.addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
+                if (duplicateScan != null) {
+                    duplicateScan.cancelScan();
+                }
+                mediaFileValidator.shutdown();
+                thumbnailService.shutdown();
+                metadataProber.shutdown();
+                folderWatcher.shutdown();
+                searchExecutor.shutdownNow();
+                libraryCatalog.shutdown();
                 saveMediaFiles();
+                MediaPlayerUI.shutdownPlayers();
+                Metrics.shutdown();
             }
         });
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> libraryStore.awaitClosed(10, TimeUnit.SECONDS),
+                "library-store-shutdown"));
+        ResumeStore.setSharedErrorHandler(e -> SwingUtilities.invokeLater(
+                () -> handleException(e, "Error saving resume positions: " + e.getMessage())));
+        this.setVisible(true);
+        MediaPlayerUI.warmUp();
+        this.loadMediaFiles();
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        StartupTimer.markFirstPaint();
     }
 
     private void initializeUI() {
@@ -66,7 +198,6 @@ public class CinemaStoreUI extends JFrame {
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         this.getContentPane().add(scrollPane, BorderLayout.CENTER);
-        this.setVisible(true);
     }
 
     private void initializeTitleCardPanel() {
@@ -120,6 +251,10 @@ public class CinemaStoreUI extends JFrame {
 
         addFileButton = createButton("Add File");
         addFolderButton = createButton("Add From Folder");
+        watchFolderButton = createButton("Watch Folder");
+        findDuplicatesButton = createButton("Find Duplicates");
+        playAllButton = createButton("Play All");
+        searchAllButton = createButton("Search All");
         searchButton = createButton("Search");
 
         addFileButton.addActionListener(e -> {
@@ -138,12 +273,193 @@ public class CinemaStoreUI extends JFrame {
             }
         });
 
+        watchFolderButton.addActionListener(e -> watchFolder());
+        findDuplicatesButton.addActionListener(e -> findDuplicates());
+        playAllButton.addActionListener(e -> playAll());
+        searchAllButton.addActionListener(e -> searchAllLibraries());
+
+        libraryComboBox = new JComboBox<>();
+        libraryComboBox.setPrototypeDisplayValue("Library Name (100000 files, 999.9 GB)");
+        libraryComboBox.setEnabled(false);
+        libraryComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, describeLibrary((String) value), index, isSelected,
+                        cellHasFocus);
+            }
+        });
+        libraryComboBox.addActionListener(e -> {
+            if (!updatingLibraries && libraryComboBox.getSelectedItem() != null) {
+                selectLibrary((String) libraryComboBox.getSelectedItem());
+            }
+        });
+
+        sortComboBox = new JComboBox<>(MediaLibraryView.SortKey.values());
+        sortComboBox.addActionListener(e -> {
+            mediaLibraryView.setSortKey((MediaLibraryView.SortKey) sortComboBox.getSelectedItem());
+            mediaGrid.ensureIndexIsVisible(0);
+        });
+
+        typeComboBox = new JComboBox<>(new String[] { null });
+        typeComboBox.setPrototypeDisplayValue("All Types (100000)");
+        typeComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                String extension = (String) value;
+                String text = extension == null ? "All Types"
+                        : (extension.isEmpty() ? "(none)" : extension.toUpperCase(Locale.ROOT)) + " ("
+                                + mediaLibraryView.getExtensionCount(extension) + ")";
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        typeComboBox.addPopupMenuListener(new PopupMenuListener() {
+            @Override
+            public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+                updateTypeFacets();
+            }
+
+            @Override
+            public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+            }
+
+            @Override
+            public void popupMenuCanceled(PopupMenuEvent e) {
+            }
+        });
+        typeComboBox.addActionListener(e -> mediaLibraryView.setExtensionFilter((String) typeComboBox.getSelectedItem()));
+
+        metadataFilterComboBox = new JComboBox<>(MetadataFilter.values());
+        metadataFilterComboBox.addActionListener(e -> {
+            selectMetadataFilter();
+            applyViewFilter();
+        });
+
+        matchesOnlyCheckBox = new JCheckBox("Matches Only");
+        matchesOnlyCheckBox.setOpaque(false);
+        matchesOnlyCheckBox.addActionListener(e -> applyViewFilter());
+
         searchButton.addActionListener(e -> searchMedia());
+        searchTextField.addActionListener(e -> searchMedia());
+
+        searchDebounceTimer = new Timer(SEARCH_DEBOUNCE_MILLIS, e -> applySearch(currentSearchText()));
+        searchDebounceTimer.setRepeats(false);
+        searchTextField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                restartSearchDebounce();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                restartSearchDebounce();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                restartSearchDebounce();
+            }
+        });
 
+        this.mediaControlPanel.add(this.libraryComboBox);
         this.mediaControlPanel.add(this.addFileButton);
         this.mediaControlPanel.add(this.addFolderButton);
+        this.mediaControlPanel.add(this.watchFolderButton);
+        this.mediaControlPanel.add(this.findDuplicatesButton);
+        this.mediaControlPanel.add(this.playAllButton);
         this.mediaControlPanel.add(this.searchTextField);
         this.mediaControlPanel.add(this.searchButton);
+        this.mediaControlPanel.add(this.searchAllButton);
+        this.mediaControlPanel.add(this.sortComboBox);
+        this.mediaControlPanel.add(this.typeComboBox);
+        this.mediaControlPanel.add(this.metadataFilterComboBox);
+        this.mediaControlPanel.add(this.matchesOnlyCheckBox);
+    }
+
+    private void updateTypeFacets() {
+        List<String> extensions = new ArrayList<>();
+        for (String extension : this.mediaLibraryView.getExtensions()) {
+            if (this.mediaLibraryView.getExtensionCount(extension) > 0) {
+                extensions.add(extension);
+            }
+        }
+        Collections.sort(extensions);
+        extensions.add(0, null);
+        Object selected = this.typeComboBox.getSelectedItem();
+        DefaultComboBoxModel<String> model = (DefaultComboBoxModel<String>) this.typeComboBox.getModel();
+        for (int i = model.getSize() - 1; i > 0; i--) {
+            if (!extensions.contains(model.getElementAt(i)) && !Objects.equals(model.getElementAt(i), selected)) {
+                model.removeElementAt(i);
+            }
+        }
+        for (int i = 1; i < extensions.size(); i++) {
+            if (model.getIndexOf(extensions.get(i)) < 0) {
+                model.addElement(extensions.get(i));
+            }
+        }
+    }
+
+    private void applyViewFilter() {
+        IntPredicate filter = null;
+        if (this.matchesOnlyCheckBox.isSelected() && !currentSearchText().isEmpty()) {
+            filter = this.highlightedRows::get;
+        }
+        BitSet ids = this.metadataFilterIds;
+        if (ids != null) {
+            IntPredicate metadata = row -> {
+                int id = this.metadataStore.idOf(this.mediaLibrary.getCanonicalPath(row));
+                return id >= 0 && ids.get(id);
+            };
+            filter = filter == null ? metadata : filter.and(metadata);
+        }
+        this.mediaLibraryView.setFilter(filter);
+    }
+
+    private void selectMetadataFilter() {
+        MetadataFilter selected = (MetadataFilter) this.metadataFilterComboBox.getSelectedItem();
+        if (selected == null || selected.selector == null) {
+            this.metadataFilterIds = null;
+            return;
+        }
+        BitSet ids = new BitSet();
+        for (int id : selected.selector.apply(this.metadataStore)) {
+            ids.set(id);
+        }
+        this.metadataFilterIds = ids;
+    }
+
+    /**
+     * Stores the durations probed in the library as one batch. Runs on a one-shot timer that the prober's first
+     * result after the previous batch starts, so nothing is polled while probing is idle.
+     */
+    private void applyProbedEntries() {
+        List<Integer> rows = new ArrayList<>();
+        List<MediaEntry> updated = new ArrayList<>();
+        for (MediaEntry probed : this.metadataProber.takeProbed()) {
+            int row = this.mediaLibrary.indexOf(probed.getFile());
+            if (row < 0) {
+                continue;
+            }
+            MediaEntry current = this.mediaLibrary.getEntry(row);
+            if (current.getSize() == probed.getSize() && current.getLastModified() == probed.getLastModified()
+                    && current.getDurationMillis() != probed.getDurationMillis()) {
+                rows.add(row);
+                updated.add(current.withDuration(probed.getDurationMillis()));
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        int[] indices = new int[rows.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = rows.get(i);
+        }
+        this.mediaLibrary.replaceAll(indices, updated);
+        if (this.metadataFilterIds != null) {
+            selectMetadataFilter();
+            applyViewFilter();
+        }
     }
 
     private JButton createButton(String text) {
@@ -172,38 +488,162 @@ public class CinemaStoreUI extends JFrame {
         return button;
     }
 
+    private String currentSearchText() {
+        String searchText = this.searchTextField.getText().trim();
+        return searchText.equals("Enter to search:") ? "" : searchText;
+    }
+
     private void searchMedia() {
-        String searchText = this.searchTextField.getText().trim().toLowerCase();
-        if (!searchText.isEmpty() && !searchText.equals("Enter to search:")) {
-            Component[] components = this.itemPanel.getComponents();
-            for (Component component : components) {
-                if (component instanceof JPanel) {
-                    JPanel mediaItemPanel = (JPanel) component;
-                    JLabel mediaLabel = (JLabel) mediaItemPanel.getComponent(0);
-                    String mediaText = mediaLabel.getText().toLowerCase();
-                    if (mediaText.contains(searchText)) {
-                        mediaItemPanel.setBorder(BorderFactory.createLineBorder(Color.RED, 3));
-                    } else {
-                        mediaItemPanel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
-                    }
-                }
-            }
+        String searchText = currentSearchText();
+        if (!searchText.isEmpty()) {
+            this.searchDebounceTimer.stop();
+            this.applySearch(searchText);
         } else {
             JOptionPane.showMessageDialog(this, "Please enter a valid search term.", "Error",
                     JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    private void restartSearchDebounce() {
+        // Short queries scan every row, so wait until the user has likely finished typing.
+        int length = currentSearchText().length();
+        this.searchDebounceTimer.setInitialDelay(length > 0 && length < MediaSearchIndex.INDEXED_QUERY_LENGTH
+                ? SHORT_SEARCH_DEBOUNCE_MILLIS : SEARCH_DEBOUNCE_MILLIS);
+        this.searchDebounceTimer.restart();
+    }
+
+    /**
+     * Runs the query on the search thread and cancels the one before it. The index is only changed on the EDT, so
+     * a result is applied only if the library has not changed since the query started; otherwise the query is run
+     * again.
+     */
+    private void applySearch(String searchText) {
+        if (this.pendingSearch != null) {
+            this.pendingSearch.cancel(true);
+        }
+        int generation = ++this.searchGeneration;
+        int modificationCount = this.mediaLibrary.getModificationCount();
+        this.pendingSearch = this.searchExecutor.submit(() -> {
+            long start = Metrics.startTimer();
+            int[] rows = null;
+            RuntimeException error = null;
+            try {
+                rows = this.searchIndex.searchRows(searchText, MediaSearchIndex.RESULT_LIMIT);
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            Metrics.stopTimer("search.query", start);
+            int[] result = rows;
+            RuntimeException failure = error;
+            SwingUtilities.invokeLater(() -> searchCompleted(generation, modificationCount, searchText, result,
+                    failure));
+        });
+    }
+
+    private void searchCompleted(int generation, int modificationCount, String searchText, int[] rows,
+            RuntimeException error) {
+        if (generation != this.searchGeneration) {
+            return;
+        }
+        this.pendingSearch = null;
+        if (modificationCount != this.mediaLibrary.getModificationCount()) {
+            this.applySearch(searchText);
+            return;
+        }
+        if (error != null) {
+            this.handleException(error, "Error searching media: " + error.getMessage());
+            return;
+        }
+        this.highlightedMediaFiles.clear();
+        this.highlightedRows.clear();
+        for (int row : rows) {
+            this.highlightedMediaFiles.add(this.mediaLibrary.get(row));
+            this.highlightedRows.set(row);
+        }
+        if (this.matchesOnlyCheckBox.isSelected()) {
+            this.applyViewFilter();
+        }
+        int first = -1;
+        for (int row : rows) {
+            int index = this.mediaLibraryView.viewIndexOf(row);
+            if (index >= 0 && (first < 0 || index < first)) {
+                first = index;
+            }
+        }
+        if (first >= 0) {
+            this.mediaGrid.ensureIndexIsVisible(first);
+        }
+        this.mediaGrid.repaint();
+    }
+
+    private void repaintMedia(File mediaFile) {
+        int index = this.mediaLibraryView.viewIndexOf(this.mediaLibrary.indexOf(mediaFile));
+        if (index >= 0) {
+            Rectangle bounds = this.mediaGrid.getCellBounds(index, index);
+            if (bounds != null) {
+                this.mediaGrid.repaint(bounds);
+            }
+        }
+    }
+
     private void initializeContentPanel() {
         this.contentPanel = new JPanel();
-        this.itemPanel = new JPanel(new GridLayout(0, 4, 10, 10));
-        this.itemPanelScroll = new JScrollPane(this.itemPanel);
+        this.mediaLibraryView = new MediaLibraryView(this.mediaLibrary);
+        this.mediaListModel = new MediaListModel(this.mediaLibraryView);
+        this.mediaItemRenderer = new MediaItemRenderer(this.highlightedMediaFiles::contains,
+                this.missingMediaFiles::contains, this.thumbnailService::thumbnail);
+        this.mediaGrid = new JList<File>(this.mediaListModel) {
+            @Override
+            public String getToolTipText(MouseEvent event) {
+                int index = locationToIndex(event.getPoint());
+                if (index < 0 || !getCellBounds(index, index).contains(event.getPoint())) {
+                    return null;
+                }
+                return describeMedia(mediaLibrary.getEntry(mediaLibraryView.libraryIndexAt(index)));
+            }
+        };
+        this.mediaGrid.setLayoutOrientation(JList.HORIZONTAL_WRAP);
+        this.mediaGrid.setVisibleRowCount(-1);
+        this.mediaGrid.setFixedCellWidth(MediaItemRenderer.CELL_WIDTH);
+        this.mediaGrid.setFixedCellHeight(MediaItemRenderer.CELL_HEIGHT);
+        this.mediaGrid.setCellRenderer(this.mediaItemRenderer);
+        MediaGridMouseHandler mouseHandler = new MediaGridMouseHandler();
+        this.mediaGrid.addMouseListener(mouseHandler);
+        this.mediaGrid.addMouseMotionListener(mouseHandler);
+        this.mediaGrid.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        this.mediaGrid.addListSelectionListener(e -> {
+            int lead = mediaGrid.getLeadSelectionIndex();
+            if (!e.getValueIsAdjusting() && lead >= 0 && lead < mediaLibraryView.size()
+                    && mediaGrid.isSelectedIndex(lead)) {
+                prepareMedia(lead);
+            }
+        });
+        this.mediaGrid.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_DELETE, 0), "deleteSelected");
+        this.mediaGrid.getActionMap().put("deleteSelected", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                deleteSelected();
+            }
+        });
+        this.mediaGrid.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "playSelected");
+        this.mediaGrid.getActionMap().put("playSelected", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                playSelected();
+            }
+        });
+        this.itemPanelScroll = new JScrollPane(this.mediaGrid);
+        this.itemPanelScroll.getViewport().addChangeListener(e -> thumbnailService.visibleRangeChanged());
         this.contentPanel.setLayout(new BorderLayout());
         this.contentPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         Color contentColor = Color.decode("#98FB98");
         this.contentPanel.setBackground(contentColor);
-        this.itemPanel.setBackground(Color.WHITE);
-        this.itemPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        this.mediaGrid.setBackground(Color.WHITE);
+        this.mediaGrid.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        this.itemPanelScroll.getVerticalScrollBar().setUnitIncrement(MediaItemRenderer.CELL_HEIGHT / 4);
         this.itemPanelScroll.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         this.itemPanelScroll.setPreferredSize(new Dimension(1200, 600));
         this.contentPanel.add(this.mediaControlPanel, BorderLayout.NORTH);
@@ -213,7 +653,7 @@ public class CinemaStoreUI extends JFrame {
     private void addFile() throws IOException {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Media Files", "mp4", "mkv", "avi"));
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Media Files", MediaFileTypes.EXTENSIONS));
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File selectedFile = fileChooser.getSelectedFile();
@@ -233,144 +673,1003 @@ public class CinemaStoreUI extends JFrame {
         int result = folderChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File selectedFolder = folderChooser.getSelectedFile();
-            File[] mediaFiles = selectedFolder
-                    .listFiles((dir, name) -> name.endsWith(".mp4") || name.endsWith(".mkv") || name.endsWith(".avi"));
-            if (mediaFiles != null) {
-                for (File file : mediaFiles) {
-                    addMedia(file);
+            new FolderImportWorker(selectedFolder).execute();
+        }
+    }
+
+    private void watchFolder() {
+        JFileChooser folderChooser = new JFileChooser();
+        folderChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (folderChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File folder = folderChooser.getSelectedFile().getAbsoluteFile();
+        if (watchedFolders.contains(folder)) {
+            int response = JOptionPane.showConfirmDialog(this, "Stop watching " + folder + "?", "Watched Folder",
+                    JOptionPane.YES_NO_OPTION);
+            if (response != JOptionPane.YES_OPTION) {
+                return;
+            }
+            watchedFolders.remove(folder);
+            folderWatcher.unwatch(folder);
+        } else {
+            watchedFolders.add(folder);
+            folderWatcher.watch(folder, Collections.<MediaEntry>emptyList());
+        }
+        saveWatchedFolders();
+    }
+
+    private void saveWatchedFolders() {
+        List<String> lines = new ArrayList<>();
+        for (File folder : watchedFolders) {
+            lines.add(folder.getPath());
+        }
+        try {
+            Files.write(watchedFoldersPath, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            handleException(e, "Error saving watched folders: " + e.getMessage());
+        }
+    }
+
+    private void findDuplicates() {
+        findDuplicatesButton.setEnabled(false);
+        findDuplicatesButton.setText("Finding...");
+        duplicateScan = new DuplicateScanWorker(new ArrayList<>(mediaLibrary.getEntries()));
+        duplicateScan.execute();
+    }
+
+    private void showDuplicates(DuplicateFinder.Result result) {
+        if (result.getGroups().isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No duplicate media files found.", "Duplicates",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        StringBuilder report = new StringBuilder();
+        report.append(result.getGroups().size()).append(" duplicate groups, ")
+                .append(formatSize(result.getWastedBytes())).append(" reclaimable\n\n");
+        for (List<MediaEntry> group : result.getGroups()) {
+            report.append(formatSize(group.get(0).getSize())).append(" x ").append(group.size()).append('\n');
+            for (MediaEntry entry : group) {
+                report.append("    ").append(entry.getFile().getAbsolutePath()).append('\n');
+            }
+            report.append('\n');
+        }
+        JTextArea reportArea = new JTextArea(report.toString(), 20, 80);
+        reportArea.setEditable(false);
+        reportArea.setCaretPosition(0);
+        JOptionPane.showMessageDialog(this, new JScrollPane(reportArea), "Duplicates",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private String describeMedia(MediaEntry entry) {
+        StringBuilder description = new StringBuilder("<html>").append(entry.getFile().getAbsolutePath());
+        int id = metadataStore.idOf(entry.getCanonicalPath());
+        if (id >= 0 && metadataStore.isProbed(id)) {
+            long duration = metadataStore.get(id, MetadataStore.Column.DURATION);
+            long width = metadataStore.get(id, MetadataStore.Column.WIDTH);
+            long height = metadataStore.get(id, MetadataStore.Column.HEIGHT);
+            description.append("<br>").append(metadataStore.getContainer(id));
+            if (duration >= 0) {
+                description.append(" | ").append(new TimeFormatter().format(duration));
+            }
+            if (width > 0 && height > 0) {
+                description.append(" | ").append(width).append('x').append(height);
+            }
+        }
+        if (entry.getSize() >= 0) {
+            description.append("<br>").append(formatSize(entry.getSize()));
+        }
+        return description.append("</html>").toString();
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        int unit = (63 - Long.numberOfLeadingZeros(bytes)) / 10;
+        return String.format("%.1f %sB", bytes / (double) (1L << (unit * 10)), " KMGTPE".charAt(unit));
+    }
+
+    private class MetadataUpdater implements MediaLibrary.Listener {
+        @Override
+        public void mediaAdded(int firstIndex, List<MediaEntry> added) {
+            metadataProber.enqueue(added);
+        }
+
+        @Override
+        public void mediaRemoved(int[] removedIndices, List<MediaEntry> removed) {
+        }
+
+        @Override
+        public void mediaReplaced(int index, MediaEntry oldEntry, MediaEntry newEntry) {
+            if (!oldEntry.getCanonicalPath().equals(newEntry.getCanonicalPath())) {
+                metadataStore.rename(oldEntry.getCanonicalPath(), newEntry.getCanonicalPath());
+            }
+        }
+    }
+
+    private class ThumbnailUpdater implements MediaLibrary.Listener {
+        @Override
+        public void mediaAdded(int firstIndex, List<MediaEntry> added) {
+        }
+
+        @Override
+        public void mediaRemoved(int[] removedIndices, List<MediaEntry> removed) {
+            for (MediaEntry entry : removed) {
+                thumbnailService.invalidate(entry.getFile());
+            }
+        }
+
+        @Override
+        public void mediaReplaced(int index, MediaEntry oldEntry, MediaEntry newEntry) {
+            if (oldEntry.getFile().equals(newEntry.getFile()) && oldEntry.getSize() == newEntry.getSize()
+                    && oldEntry.getLastModified() == newEntry.getLastModified()) {
+                return;
+            }
+            thumbnailService.invalidate(oldEntry.getFile());
+            thumbnailService.invalidate(newEntry.getFile());
+        }
+    }
+
+    private class HighlightUpdater implements MediaLibrary.Listener {
+        @Override
+        public void mediaAdded(int firstIndex, List<MediaEntry> added) {
+        }
+
+        @Override
+        public void mediaRemoved(int[] removedIndices, List<MediaEntry> removed) {
+            for (MediaEntry entry : removed) {
+                highlightedMediaFiles.remove(entry.getFile());
+                missingMediaFiles.remove(entry.getFile());
+            }
+            MediaLibrary.removeRows(highlightedRows, removedIndices);
+        }
+
+        @Override
+        public void mediaReplaced(int index, MediaEntry oldEntry, MediaEntry newEntry) {
+            if (oldEntry.getFile().equals(newEntry.getFile())) {
+                return;
+            }
+            if (highlightedMediaFiles.remove(oldEntry.getFile())) {
+                highlightedMediaFiles.add(newEntry.getFile());
+            }
+            missingMediaFiles.remove(oldEntry.getFile());
+        }
+    }
+
+    private class DuplicateScanWorker extends SwingWorker<DuplicateFinder.Result, Void> {
+        private final List<MediaEntry> entries;
+        private final DuplicateFinder finder = new DuplicateFinder();
+        private final JDialog progressDialog;
+        private final Timer popupTimer;
+
+        DuplicateScanWorker(List<MediaEntry> entries) {
+            this.entries = entries;
+            JProgressBar progressBar = new JProgressBar();
+            progressBar.setIndeterminate(true);
+            JButton cancelButton = new JButton("Cancel");
+            cancelButton.addActionListener(e -> {
+                cancelScan();
+                cancelButton.setEnabled(false);
+            });
+
+            JPanel panel = new JPanel(new BorderLayout(10, 10));
+            panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+            panel.add(new JLabel("Comparing " + entries.size() + " media files"), BorderLayout.NORTH);
+            panel.add(progressBar, BorderLayout.CENTER);
+            panel.add(cancelButton, BorderLayout.SOUTH);
+
+            this.progressDialog = new JDialog(CinemaStoreUI.this, "Finding Duplicates", false);
+            this.progressDialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+            this.progressDialog.getContentPane().add(panel);
+            this.progressDialog.setSize(420, 140);
+            this.progressDialog.setLocationRelativeTo(CinemaStoreUI.this);
+            this.popupTimer = new Timer(200, e -> progressDialog.setVisible(true));
+            this.popupTimer.setRepeats(false);
+            this.popupTimer.start();
+        }
+
+        void cancelScan() {
+            finder.cancel();
+        }
+
+        @Override
+        protected DuplicateFinder.Result doInBackground() throws InterruptedException {
+            return finder.find(entries);
+        }
+
+        @Override
+        protected void done() {
+            popupTimer.stop();
+            progressDialog.dispose();
+            if (duplicateScan == this) {
+                duplicateScan = null;
+            }
+            findDuplicatesButton.setText("Find Duplicates");
+            findDuplicatesButton.setEnabled(true);
+            try {
+                DuplicateFinder.Result result = get();
+                if (!result.isCancelled()) {
+                    showDuplicates(result);
                 }
-            } else {
-                JOptionPane.showMessageDialog(this, "No valid media files found in the selected folder.", "Info",
-                        JOptionPane.INFORMATION_MESSAGE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                handleException(cause instanceof Exception ? (Exception) cause : e,
+                        "Error finding duplicates: " + cause.getMessage());
+            }
+        }
+    }
+
+    private class FolderImportWorker extends SwingWorker<FolderScanner.Result, List<MediaEntry>> {
+        private final File folder;
+        private final FolderScanner scanner = new FolderScanner();
+        private final JDialog progressDialog;
+        private final JLabel progressLabel;
+        private final Timer popupTimer;
+
+        FolderImportWorker(File folder) {
+            this.folder = folder;
+            this.progressLabel = new JLabel("Scanning " + folder.getAbsolutePath());
+            JProgressBar progressBar = new JProgressBar();
+            progressBar.setIndeterminate(true);
+            JButton cancelButton = new JButton("Cancel");
+            cancelButton.addActionListener(e -> {
+                scanner.cancel();
+                cancelButton.setEnabled(false);
+            });
+
+            JPanel panel = new JPanel(new BorderLayout(10, 10));
+            panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+            panel.add(this.progressLabel, BorderLayout.NORTH);
+            panel.add(progressBar, BorderLayout.CENTER);
+            panel.add(cancelButton, BorderLayout.SOUTH);
+
+            this.progressDialog = new JDialog(CinemaStoreUI.this, "Importing " + folder.getName(), false);
+            this.progressDialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+            this.progressDialog.getContentPane().add(panel);
+            this.progressDialog.setSize(420, 140);
+            this.progressDialog.setLocationRelativeTo(CinemaStoreUI.this);
+            this.popupTimer = new Timer(200, e -> progressDialog.setVisible(true));
+            this.popupTimer.setRepeats(false);
+            this.popupTimer.start();
+        }
+
+        @Override
+        protected FolderScanner.Result doInBackground() throws IOException {
+            long start = Metrics.startTimer();
+            FolderScanner.Result result = scanner.scan(folder.toPath(), new FolderScanner.Listener() {
+                @Override
+                public void batchFound(List<File> batch) {
+                    List<MediaEntry> entries = new ArrayList<>(batch.size());
+                    for (File mediaFile : batch) {
+                        entries.add(MediaLibrary.describe(mediaFile));
+                    }
+                    publish(entries);
+                }
+
+                @Override
+                public void progress(int directoriesVisited, int filesFound) {
+                    SwingUtilities.invokeLater(() -> updateProgress(directoriesVisited, filesFound));
+                }
+            });
+            Metrics.stopTimer("library.folderImport", start);
+            Metrics.add("library.filesImported", result.getFilesFound());
+            return result;
+        }
+
+        private void updateProgress(int directoriesVisited, int filesFound) {
+            progressLabel.setText(filesFound + " media files in " + directoriesVisited + " folders");
+        }
+
+        @Override
+        protected void process(List<List<MediaEntry>> batches) {
+            List<MediaEntry> entries = new ArrayList<>();
+            for (List<MediaEntry> batch : batches) {
+                entries.addAll(batch);
+            }
+            mediaLibrary.addAll(entries);
+        }
+
+        @Override
+        protected void done() {
+            popupTimer.stop();
+            progressDialog.dispose();
+            try {
+                FolderScanner.Result result = get();
+                if (result.getFilesFound() == 0 && !result.isCancelled()) {
+                    JOptionPane.showMessageDialog(CinemaStoreUI.this,
+                            "No valid media files found in the selected folder.", "Info",
+                            JOptionPane.INFORMATION_MESSAGE);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                handleException(cause instanceof Exception ? (Exception) cause : e,
+                        "Error adding folder: " + cause.getMessage());
             }
         }
     }
 
     private void addMedia(File mediaFile) {
-        if (!storedMediaFiles.contains(mediaFile)) {
-            storedMediaFiles.add(mediaFile);
-            JPanel mediaItemPanel = createMediaItemPanel(mediaFile);
-            itemPanel.add(mediaItemPanel);
-            itemPanel.revalidate();
-            itemPanel.repaint();
-        } else {
+        if (!mediaLibrary.add(mediaFile)) {
             JOptionPane.showMessageDialog(this, "Media file already added: " + mediaFile.getName(), "Warning",
                     JOptionPane.WARNING_MESSAGE);
         }
     }
 
-    @SuppressWarnings("unused")
-    private JPanel createMediaItemPanel(File mediaFile) {
-        JPanel mediaItemPanel = new JPanel();
-        mediaItemPanel.setLayout(new BorderLayout());
-        mediaItemPanel.setPreferredSize(new Dimension(220, 100));
-        mediaItemPanel.setBackground(Color.LIGHT_GRAY);
-        mediaItemPanel.setBorder(BorderFactory.createLineBorder(Color.GRAY, 1));
-
-        JLabel mediaLabel = new JLabel(mediaFile.getName());
-        mediaLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        mediaLabel.setVerticalAlignment(SwingConstants.CENTER); 
-        mediaLabel.setFont(new Font("Arial", Font.BOLD, 14));
-        mediaLabel.setPreferredSize(new Dimension(220, 50)); 
-
-        JButton playButton = createMediaButton("Play", e -> {
-            mediaPlayerUI = new MediaPlayerUI(mediaFile);
-            mediaPlayerUI.setVisible(true);
-        });
+    private void playMedia(File mediaFile) {
+        playQueue(Collections.singletonList(mediaFile));
+    }
 
-        JButton deleteButton = createMediaButton("Delete", e -> {
-            int response = JOptionPane.showConfirmDialog(
-                    this,
-                    "Are you sure you want to delete this media file?",
-                    "Confirm Delete",
-                    JOptionPane.YES_NO_OPTION);
-            if (response == JOptionPane.YES_OPTION) {
-                itemPanel.remove(mediaItemPanel);
-                storedMediaFiles.remove(mediaFile);
-                itemPanel.revalidate();
-                itemPanel.repaint();
+    private void playAll() {
+        List<File> queue = new ArrayList<>();
+        for (int i = 0; i < mediaLibraryView.size(); i++) {
+            File mediaFile = mediaLibraryView.get(i);
+            if ((highlightedMediaFiles.isEmpty() || highlightedMediaFiles.contains(mediaFile))
+                    && !missingMediaFiles.contains(mediaFile)) {
+                queue.add(mediaFile);
             }
-        });
+        }
+        if (queue.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No media files to play.", "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        playQueue(queue);
+    }
 
-        JButton renameButton = createMediaButton("Rename", e -> {
-            String newName = JOptionPane.showInputDialog(this, "Enter new name:", mediaFile.getName());
-            if (newName != null && !newName.trim().isEmpty()) {
-                File newFile = new File(mediaFile.getParent(), newName);
-                if (mediaFile.renameTo(newFile)) {
-                    mediaLabel.setText(newFile.getName());
-                    mediaItemPanel.revalidate();
-                    mediaItemPanel.repaint();
-                    this.storedMediaFiles.remove(mediaFile);
-                    this.storedMediaFiles.add(newFile);
-                } else {
-                    JOptionPane.showMessageDialog(this, "Error renaming file.", "Error", JOptionPane.ERROR_MESSAGE);
+    private void playQueue(List<File> queue) {
+        if (!MediaPlayerUI.canOpenPlayer() && mediaPlayerUI != null && mediaPlayerUI.isDisplayable()) {
+            mediaPlayerUI.playQueue(queue, 0);
+            mediaPlayerUI.toFront();
+            return;
+        }
+        try {
+            mediaPlayerUI = new MediaPlayerUI(queue, 0);
+            mediaPlayerUI.setVisible(true);
+        } catch (IllegalStateException e) {
+            handleException(e, e.getMessage());
+        }
+    }
+
+    private void enqueueMedia(List<File> mediaFiles) {
+        if (!MediaPlayerUI.canOpenPlayer() && mediaPlayerUI != null && mediaPlayerUI.isDisplayable()) {
+            mediaPlayerUI.enqueue(mediaFiles);
+            mediaPlayerUI.toFront();
+            return;
+        }
+        playQueue(mediaFiles);
+    }
+
+    private void prepareMedia(int viewIndex) {
+        File mediaFile = mediaLibraryView.get(viewIndex);
+        if (!missingMediaFiles.contains(mediaFile)) {
+            MediaPlayerUI.prepareMedia(mediaFile);
+        }
+    }
+
+    private int[] selectedLibraryIndices() {
+        int[] selected = mediaGrid.getSelectedIndices();
+        for (int i = 0; i < selected.length; i++) {
+            selected[i] = mediaLibraryView.libraryIndexAt(selected[i]);
+        }
+        return selected;
+    }
+
+    private List<File> selectedMediaFiles() {
+        List<File> selected = new ArrayList<>();
+        for (int index : mediaGrid.getSelectedIndices()) {
+            selected.add(mediaLibraryView.get(index));
+        }
+        return selected;
+    }
+
+    private void playSelected() {
+        List<File> selected = selectedMediaFiles();
+        if (!selected.isEmpty()) {
+            playQueue(selected);
+        }
+    }
+
+    private void enqueueSelected() {
+        List<File> selected = selectedMediaFiles();
+        if (!selected.isEmpty()) {
+            enqueueMedia(selected);
+        }
+    }
+
+    private void deleteMedia(int index) {
+        deleteMedia(new int[] { index });
+    }
+
+    private void deleteSelected() {
+        deleteMedia(selectedLibraryIndices());
+    }
+
+    private void deleteMedia(int[] indices) {
+        if (indices.length == 0) {
+            return;
+        }
+        int response = JOptionPane.showConfirmDialog(
+                this,
+                indices.length == 1 ? "Are you sure you want to delete this media file?"
+                        : "Are you sure you want to delete these " + indices.length + " media files?",
+                "Confirm Delete",
+                JOptionPane.YES_NO_OPTION);
+        if (response == JOptionPane.YES_OPTION) {
+            mediaGrid.clearSelection();
+            mediaLibrary.removeIndices(indices);
+        }
+    }
+
+    private void renameMedia(int index) {
+        File mediaFile = mediaLibrary.get(index);
+        String newName = JOptionPane.showInputDialog(this, "Enter new name:", mediaFile.getName());
+        if (newName != null && !newName.trim().isEmpty()) {
+            renameMedia(new int[] { index }, BatchRenamer.named(newName));
+        }
+    }
+
+    private void renameSelected() {
+        int[] indices = selectedLibraryIndices();
+        if (indices.length == 0) {
+            return;
+        }
+        List<File> files = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            files.add(mediaLibrary.get(index));
+        }
+        BatchRenamer renamer = showRenameDialog(files);
+        if (renamer != null) {
+            renameMedia(indices, renamer);
+        }
+    }
+
+    private BatchRenamer showRenameDialog(List<File> files) {
+        JComboBox<BatchRenamer.Mode> modeComboBox = new JComboBox<>(new BatchRenamer.Mode[] {
+                BatchRenamer.Mode.PREFIX, BatchRenamer.Mode.SUFFIX, BatchRenamer.Mode.REGEX,
+                BatchRenamer.Mode.SEQUENCE });
+        JTextField textField = new JTextField(24);
+        JTextField replacementField = new JTextField(24);
+        JSpinner startSpinner = new JSpinner(new SpinnerNumberModel(1, 0, Integer.MAX_VALUE, 1));
+        JTextArea previewArea = new JTextArea(12, 60);
+        previewArea.setEditable(false);
+
+        JPanel fields = new JPanel(new GridLayout(0, 2, 5, 5));
+        fields.add(new JLabel("Rename:"));
+        fields.add(modeComboBox);
+        JLabel textLabel = new JLabel("Text:");
+        fields.add(textLabel);
+        fields.add(textField);
+        JLabel replacementLabel = new JLabel("Replace with:");
+        fields.add(replacementLabel);
+        fields.add(replacementField);
+        JLabel startLabel = new JLabel("Start at:");
+        fields.add(startLabel);
+        fields.add(startSpinner);
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.add(fields, BorderLayout.NORTH);
+        panel.add(new JScrollPane(previewArea), BorderLayout.CENTER);
+
+        List<File> sample = files.subList(0, Math.min(files.size(), 100));
+        Runnable updatePreview = () -> {
+            BatchRenamer.Mode mode = (BatchRenamer.Mode) modeComboBox.getSelectedItem();
+            textLabel.setText(mode == BatchRenamer.Mode.REGEX ? "Find (regex):"
+                    : mode == BatchRenamer.Mode.SEQUENCE ? "Name (# = number):" : "Text:");
+            replacementLabel.setEnabled(mode == BatchRenamer.Mode.REGEX);
+            replacementField.setEnabled(mode == BatchRenamer.Mode.REGEX);
+            startLabel.setEnabled(mode == BatchRenamer.Mode.SEQUENCE);
+            startSpinner.setEnabled(mode == BatchRenamer.Mode.SEQUENCE);
+            StringBuilder preview = new StringBuilder();
+            try {
+                BatchRenamer renamer = BatchRenamer.of(mode, textField.getText(), replacementField.getText(),
+                        (Integer) startSpinner.getValue());
+                for (BatchRenamer.Outcome outcome : renamer.preview(sample)) {
+                    preview.append(outcome.getSource().getName()).append("  ->  ")
+                            .append(outcome.getError() != null ? "(" + outcome.getError() + ")"
+                                    : outcome.getTarget().getName())
+                            .append('\n');
                 }
+                if (files.size() > sample.size()) {
+                    preview.append("... and ").append(files.size() - sample.size()).append(" more\n");
+                }
+            } catch (IllegalArgumentException e) {
+                preview.append(e.getMessage());
+            }
+            previewArea.setText(preview.toString());
+            previewArea.setCaretPosition(0);
+        };
+        DocumentListener previewListener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                updatePreview.run();
             }
-        });
 
-        Dimension buttonSize = new Dimension(90, 30);
-        playButton.setPreferredSize(buttonSize);
-        renameButton.setPreferredSize(buttonSize);
-        deleteButton.setPreferredSize(buttonSize);
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                updatePreview.run();
+            }
 
-        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 5, 5));
-        buttonPanel.add(playButton);
-        buttonPanel.add(renameButton);
-        buttonPanel.add(deleteButton);
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                updatePreview.run();
+            }
+        };
+        textField.getDocument().addDocumentListener(previewListener);
+        replacementField.getDocument().addDocumentListener(previewListener);
+        modeComboBox.addActionListener(e -> updatePreview.run());
+        startSpinner.addChangeListener(e -> updatePreview.run());
+        updatePreview.run();
+
+        while (true) {
+            int response = JOptionPane.showConfirmDialog(this, panel, "Rename " + files.size() + " Media Files",
+                    JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (response != JOptionPane.OK_OPTION) {
+                return null;
+            }
+            try {
+                return BatchRenamer.of((BatchRenamer.Mode) modeComboBox.getSelectedItem(), textField.getText(),
+                        replacementField.getText(), (Integer) startSpinner.getValue());
+            } catch (IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    private void renameMedia(int[] indices, BatchRenamer renamer) {
+        int generation = libraryGeneration;
+        List<MediaEntry> originals = new ArrayList<>(indices.length);
+        List<File> files = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            MediaEntry entry = mediaLibrary.getEntry(index);
+            originals.add(entry);
+            files.add(entry.getFile());
+        }
+        new SwingWorker<List<BatchRenamer.Outcome>, Void>() {
+            private final List<MediaEntry> renamed = new ArrayList<>();
 
-        mediaItemPanel.add(mediaLabel, BorderLayout.CENTER); 
-        mediaItemPanel.add(buttonPanel, BorderLayout.SOUTH); 
+            @Override
+            protected List<BatchRenamer.Outcome> doInBackground() {
+                List<BatchRenamer.Outcome> outcomes = renamer.rename(files);
+                for (BatchRenamer.Outcome outcome : outcomes) {
+                    renamed.add(outcome.isRenamed() ? MediaLibrary.describe(outcome.getTarget()) : null);
+                }
+                return outcomes;
+            }
 
-        return mediaItemPanel;
+            @Override
+            protected void done() {
+                try {
+                    renameCompleted(generation, originals, get(), renamed);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    handleException(cause instanceof Exception ? (Exception) cause : e,
+                            "Error renaming media files: " + cause.getMessage());
+                }
+            }
+        }.execute();
     }
 
-    private JButton createMediaButton(String text, ActionListener actionListener) {
-        JButton button = createButton(text);
-        button.addActionListener(actionListener);
-        return button;
+    private void renameCompleted(int generation, List<MediaEntry> originals, List<BatchRenamer.Outcome> outcomes,
+            List<MediaEntry> renamed) {
+        if (generation == libraryGeneration) {
+            int[] indices = new int[outcomes.size()];
+            List<MediaEntry> newEntries = new ArrayList<>(outcomes.size());
+            for (int i = 0; i < outcomes.size(); i++) {
+                if (renamed.get(i) == null) {
+                    continue;
+                }
+                String originalPath = originals.get(i).getCanonicalPath();
+                int index = mediaLibrary.indexOf(originals.get(i));
+                if (index >= 0 && mediaLibrary.getEntry(index).getCanonicalPath().equals(originalPath)) {
+                    indices[newEntries.size()] = index;
+                    newEntries.add(renamed.get(i));
+                }
+            }
+            mediaLibrary.replaceAll(Arrays.copyOf(indices, newEntries.size()), newEntries);
+        }
+
+        StringBuilder report = new StringBuilder();
+        int failed = 0;
+        for (BatchRenamer.Outcome outcome : outcomes) {
+            if (outcome.getError() != null) {
+                failed++;
+                report.append(outcome.getSource().getName()).append(": ").append(outcome.getError()).append('\n');
+            }
+        }
+        if (failed == 0) {
+            return;
+        }
+        if (outcomes.size() == 1) {
+            JOptionPane.showMessageDialog(this, "Error renaming file: " + outcomes.get(0).getError(), "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        JTextArea reportArea = new JTextArea(failed + " of " + outcomes.size() + " files were not renamed\n\n"
+                + report, 20, 80);
+        reportArea.setEditable(false);
+        reportArea.setCaretPosition(0);
+        JOptionPane.showMessageDialog(this, new JScrollPane(reportArea), "Rename", JOptionPane.WARNING_MESSAGE);
+    }
+
+    private class MediaGridMouseHandler extends MouseAdapter {
+        @Override
+        public void mouseClicked(MouseEvent e) {
+            if (!SwingUtilities.isLeftMouseButton(e)) {
+                return;
+            }
+            int index = cellIndexAt(e.getPoint());
+            if (index < 0) {
+                return;
+            }
+            MediaItemRenderer.MediaAction action = actionAt(index, e.getPoint());
+            if (action == MediaItemRenderer.MediaAction.PLAY) {
+                playMedia(mediaLibraryView.get(index));
+            } else if (action == MediaItemRenderer.MediaAction.RENAME) {
+                renameMedia(mediaLibraryView.libraryIndexAt(index));
+            } else if (action == MediaItemRenderer.MediaAction.DELETE) {
+                deleteMedia(mediaLibraryView.libraryIndexAt(index));
+            }
+        }
+
+        @Override
+        public void mousePressed(MouseEvent e) {
+            showSelectionMenu(e);
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent e) {
+            showSelectionMenu(e);
+        }
+
+        private void showSelectionMenu(MouseEvent e) {
+            if (!e.isPopupTrigger()) {
+                return;
+            }
+            int index = cellIndexAt(e.getPoint());
+            if (index >= 0 && !mediaGrid.isSelectedIndex(index)) {
+                mediaGrid.setSelectedIndex(index);
+            }
+            if (mediaGrid.isSelectionEmpty()) {
+                return;
+            }
+            int count = mediaGrid.getSelectedIndices().length;
+            String suffix = count == 1 ? "" : " (" + count + ")";
+            JPopupMenu menu = new JPopupMenu();
+            menu.add(new JMenuItem("Play Selected" + suffix)).addActionListener(event -> playSelected());
+            menu.add(new JMenuItem("Enqueue Selected" + suffix)).addActionListener(event -> enqueueSelected());
+            menu.addSeparator();
+            menu.add(new JMenuItem("Rename Selected" + suffix + "...")).addActionListener(event -> renameSelected());
+            menu.add(new JMenuItem("Delete Selected" + suffix)).addActionListener(event -> deleteSelected());
+            menu.show(mediaGrid, e.getX(), e.getY());
+        }
+
+        @Override
+        public void mouseMoved(MouseEvent e) {
+            int index = cellIndexAt(e.getPoint());
+            MediaItemRenderer.MediaAction action = index < 0 ? null : actionAt(index, e.getPoint());
+            updateHover(index, action);
+        }
+
+        @Override
+        public void mouseExited(MouseEvent e) {
+            updateHover(-1, null);
+        }
+
+        private int cellIndexAt(Point point) {
+            int index = mediaGrid.locationToIndex(point);
+            if (index < 0 || !mediaGrid.getCellBounds(index, index).contains(point)) {
+                return -1;
+            }
+            return index;
+        }
+
+        private MediaItemRenderer.MediaAction actionAt(int index, Point point) {
+            Rectangle cell = mediaGrid.getCellBounds(index, index);
+            return mediaItemRenderer.actionAt(new Point(point.x - cell.x, point.y - cell.y));
+        }
+
+        private void updateHover(int index, MediaItemRenderer.MediaAction action) {
+            int previous = mediaItemRenderer.getHoveredIndex();
+            if (index >= 0 && index != previous) {
+                prepareMedia(index);
+            }
+            if (mediaItemRenderer.setHover(index, action)) {
+                repaintCell(previous);
+                repaintCell(index);
+                mediaGrid.setCursor(action != null ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR)
+                        : Cursor.getDefaultCursor());
+            }
+        }
+
+        private void repaintCell(int index) {
+            if (index >= 0 && index < mediaLibraryView.size()) {
+                mediaGrid.repaint(mediaGrid.getCellBounds(index, index));
+            }
+        }
     }
 
     private void handleException(Exception e, String message) {
+        Metrics.increment("errors");
         e.printStackTrace();
         JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
     }
 
     private boolean isValidMediaFile(File file) {
-        String fileName = file.getName().toLowerCase();
-        return fileName.endsWith(".mp4") || fileName.endsWith(".mkv") || fileName.endsWith(".avi");
+        return MediaFileTypes.isSupported(file.getName());
     }
 
     private void saveMediaFiles() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("mediaFiles.txt"))) {
-            for (File mediaFile : storedMediaFiles) {
-                writer.write(mediaFile.getAbsolutePath());
-                writer.newLine();
+        libraryStore.close();
+    }
+
+    private LibraryStore createLibraryStore(String library) {
+        return new LibraryStore(libraryCatalog.getJournalPath(library), libraryCatalog.getLegacyPath(library),
+                e -> SwingUtilities.invokeLater(() -> handleException(e, "Error saving media files: " + e.getMessage())));
+    }
+
+    private void loadMediaFiles() {
+        loadLibrary(libraryCatalog.loadActiveLibrary(), null);
+    }
+
+    private void loadLibrary(String library, LibraryStore previousStore) {
+        int generation = ++libraryGeneration;
+        LibraryStore store = libraryStore;
+        watchedFoldersPath = libraryCatalog.getWatchedFoldersPath(library);
+        Path foldersPath = watchedFoldersPath;
+        addFileButton.setEnabled(false);
+        addFolderButton.setEnabled(false);
+        watchFolderButton.setEnabled(false);
+        libraryComboBox.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                if (previousStore == null) {
+                    try {
+                        metadataStore.load();
+                    } catch (IOException e) {
+                        SwingUtilities.invokeLater(
+                                () -> handleException(e, "Error loading media metadata: " + e.getMessage()));
+                    }
+                } else {
+                    previousStore.close();
+                    previousStore.awaitClosed(10, TimeUnit.SECONDS);
+                }
+                libraryCatalog.activate(library);
+                long loadStart = Metrics.startTimer();
+                List<MediaEntry> entries = libraryCatalog.load(library, store);
+                Metrics.stopTimer("library.load", loadStart);
+                Metrics.add("library.entriesLoaded", entries.size());
+                int chunkSize = 2000;
+                for (int start = 0; start < entries.size(); start += chunkSize) {
+                    List<MediaEntry> chunk = entries.subList(start, Math.min(entries.size(), start + chunkSize));
+                    SwingUtilities.invokeLater(() -> {
+                        if (generation == libraryGeneration) {
+                            mediaLibrary.addAll(chunk);
+                        }
+                    });
+                }
+                List<String> folders = Files.exists(foldersPath)
+                        ? Files.readAllLines(foldersPath, StandardCharsets.UTF_8)
+                        : Collections.<String>emptyList();
+                SwingUtilities.invokeLater(() -> {
+                    if (generation == libraryGeneration) {
+                        libraryLoaded(entries, folders);
+                    }
+                });
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    libraryComboBox.setEnabled(true);
+                    handleException(cause instanceof Exception ? (Exception) cause : e,
+                            "Error loading media files: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void libraryLoaded(List<MediaEntry> entries, List<String> folders) {
+        mediaLibrary.addListener(libraryStore);
+        addFileButton.setEnabled(true);
+        addFolderButton.setEnabled(true);
+        watchFolderButton.setEnabled(true);
+        updateLibraryChoices();
+        libraryComboBox.setEnabled(true);
+        for (String folder : folders) {
+            if (!folder.trim().isEmpty() && watchedFolders.add(new File(folder))) {
+                folderWatcher.watch(new File(folder), entries);
             }
+        }
+        StartupTimer.markLibraryLoaded(mediaLibrary.size());
+
+        AtomicInteger missingCount = new AtomicInteger();
+        mediaFileValidator.validate(entries, missing -> {
+            missingCount.addAndGet(missing.size());
+            SwingUtilities.invokeLater(() -> {
+                missingMediaFiles.addAll(missing);
+                mediaGrid.repaint();
+            });
+        }, () -> StartupTimer.markLibraryValidated(entries.size(), missingCount.get()));
+        summarizeLibraries();
+    }
+
+    private void updateLibraryChoices() {
+        updatingLibraries = true;
+        try {
+            libraryComboBox.removeAllItems();
+            for (String library : libraryCatalog.getLibraryNames()) {
+                libraryComboBox.addItem(library);
+            }
+            libraryComboBox.addItem(NEW_LIBRARY_ITEM);
+            libraryComboBox.setSelectedItem(libraryCatalog.getActiveLibrary());
+        } finally {
+            updatingLibraries = false;
+        }
+    }
+
+    private String describeLibrary(String library) {
+        if (library == null || library.equals(NEW_LIBRARY_ITEM)) {
+            return library;
+        }
+        if (library.equals(libraryCatalog.getActiveLibrary())) {
+            return library + " (" + mediaLibrary.size() + " files, " + formatSize(mediaLibrary.getTotalSize()) + ")";
+        }
+        LibrarySummary summary = libraryCatalog.getSummary(library);
+        return summary == null ? library
+                : library + " (" + summary.getCount() + " files, " + formatSize(summary.getTotalSize()) + ")";
+    }
+
+    private void summarizeLibraries() {
+        List<String> libraries = libraryCatalog.getLibraryNames();
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                for (String library : libraries) {
+                    libraryCatalog.summarize(library);
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                libraryComboBox.repaint();
+                try {
+                    get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    handleException(cause instanceof Exception ? (Exception) cause : e,
+                            "Error reading libraries: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void selectLibrary(String library) {
+        if (!library.equals(NEW_LIBRARY_ITEM)) {
+            switchLibrary(library);
+            return;
+        }
+        String name = JOptionPane.showInputDialog(this, "Name of the new library:", "New Library",
+                JOptionPane.PLAIN_MESSAGE);
+        if (name == null) {
+            updateLibraryChoices();
+            return;
+        }
+        try {
+            switchLibrary(libraryCatalog.createLibrary(name));
+        } catch (IllegalArgumentException e) {
+            updateLibraryChoices();
+            JOptionPane.showMessageDialog(this, e.getMessage(), "New Library", JOptionPane.ERROR_MESSAGE);
         } catch (IOException e) {
-            handleException(e, "Error saving media files: " + e.getMessage());
+            updateLibraryChoices();
+            handleException(e, "Error creating library: " + e.getMessage());
+        }
+    }
+
+    private void switchLibrary(String library) {
+        if (library.equals(libraryCatalog.getActiveLibrary())) {
+            return;
+        }
+        for (File folder : watchedFolders) {
+            folderWatcher.unwatch(folder);
         }
+        watchedFolders.clear();
+        mediaLibrary.removeListener(libraryStore);
+        LibraryStore previousStore = libraryStore;
+        mediaLibrary.clear();
+        missingMediaFiles.clear();
+        libraryStore = createLibraryStore(library);
+        loadLibrary(library, previousStore);
     }
 
-    private void loadMediaFiles() throws IOException {
-        File file = new File("mediaFiles.txt");
-        if (file.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    File mediaFile = new File(line);
-                    storedMediaFiles.add(mediaFile);
-                    JPanel mediaItemPanel = createMediaItemPanel(mediaFile);
-                    itemPanel.add(mediaItemPanel);
+    private void searchAllLibraries() {
+        String searchText = currentSearchText();
+        if (searchText.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid search term.", "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        int limit = 1000;
+        List<MediaSearchIndex.Hit> activeHits = searchIndex.searchRanked(searchText, limit);
+        searchAllButton.setEnabled(false);
+        new SwingWorker<List<LibraryCatalog.Match>, Void>() {
+            @Override
+            protected List<LibraryCatalog.Match> doInBackground() throws IOException {
+                long start = Metrics.startTimer();
+                List<LibraryCatalog.Match> matches = libraryCatalog.searchAll(searchText, limit, activeHits);
+                Metrics.stopTimer("search.allLibraries", start);
+                return matches;
+            }
+
+            @Override
+            protected void done() {
+                searchAllButton.setEnabled(true);
+                libraryComboBox.repaint();
+                try {
+                    showSearchResults(searchText, get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    handleException(cause instanceof Exception ? (Exception) cause : e,
+                            "Error searching libraries: " + cause.getMessage());
                 }
-                itemPanel.revalidate();
-                itemPanel.repaint();
-            } catch (Exception e) {
-                handleException(e, "Error loading media files: " + e.getMessage());
             }
+        }.execute();
+    }
+
+    private void showSearchResults(String searchText, List<LibraryCatalog.Match> matches) {
+        if (matches.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No media files match \"" + searchText + "\".", "Search All",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
         }
+        JList<LibraryCatalog.Match> resultList = new JList<>(matches.toArray(new LibraryCatalog.Match[0]));
+        resultList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                LibraryCatalog.Match match = (LibraryCatalog.Match) value;
+                return super.getListCellRendererComponent(list,
+                        "[" + match.getLibrary() + "] " + match.getFile().getAbsolutePath(), index, isSelected,
+                        cellHasFocus);
+            }
+        });
+        resultList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && resultList.getSelectedValue() != null) {
+                    playMedia(resultList.getSelectedValue().getFile());
+                }
+            }
+        });
+        JScrollPane resultScroll = new JScrollPane(resultList);
+        resultScroll.setPreferredSize(new Dimension(800, 400));
+        JDialog resultDialog = new JDialog(this, matches.size() + " matches for \"" + searchText
+                + "\" (double-click to play)", false);
+        resultDialog.add(resultScroll);
+        resultDialog.pack();
+        resultDialog.setLocationRelativeTo(this);
+        resultDialog.setVisible(true);
     }
 
     public static void main(String[] args) {
+        StartupTimer.markStart();
+        Metrics.install();
         SwingUtilities.invokeLater(CinemaStoreUI::new);
     }
 }
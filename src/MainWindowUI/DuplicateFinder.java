@@ -0,0 +1,279 @@
+package MainWindowUI;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DuplicateFinder {
+    public static final class Result {
+        private final List<List<MediaEntry>> groups;
+        private final int filesSampled;
+        private final int filesFullyHashed;
+        private final long bytesRead;
+        private final boolean cancelled;
+
+        Result(List<List<MediaEntry>> groups, int filesSampled, int filesFullyHashed, long bytesRead,
+                boolean cancelled) {
+            this.groups = groups;
+            this.filesSampled = filesSampled;
+            this.filesFullyHashed = filesFullyHashed;
+            this.bytesRead = bytesRead;
+            this.cancelled = cancelled;
+        }
+
+        public List<List<MediaEntry>> getGroups() {
+            return groups;
+        }
+
+        public int getFilesSampled() {
+            return filesSampled;
+        }
+
+        public int getFilesFullyHashed() {
+            return filesFullyHashed;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getWastedBytes() {
+            long wasted = 0;
+            for (List<MediaEntry> group : groups) {
+                wasted += group.get(0).getSize() * (group.size() - 1);
+            }
+            return wasted;
+        }
+    }
+
+    private static final int SAMPLE_BLOCK = 64 << 10;
+    private static final int MIDDLE_SAMPLES = 3;
+    private static final long SAMPLED_LENGTH = (long) SAMPLE_BLOCK * (MIDDLE_SAMPLES + 2);
+    private static final int STREAM_BLOCK = 1 << 20;
+
+    private final int threads;
+    private final IoThrottle throttle;
+    private final boolean confirmWithFullHash;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicInteger filesSampled = new AtomicInteger();
+    private final AtomicInteger filesFullyHashed = new AtomicInteger();
+
+    public DuplicateFinder() {
+        this(2, 64L << 20, true);
+    }
+
+    public DuplicateFinder(int threads, long maxBytesPerSecond, boolean confirmWithFullHash) {
+        this.threads = threads;
+        this.throttle = new IoThrottle(maxBytesPerSecond);
+        this.confirmWithFullHash = confirmWithFullHash;
+    }
+
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public Result find(List<MediaEntry> entries) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "duplicate-finder");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        try {
+            List<List<MediaEntry>> candidates = groupBySize(entries);
+            candidates = regroup(executor, candidates, false);
+            List<List<MediaEntry>> confirmed = new ArrayList<>();
+            List<List<MediaEntry>> needFullHash = new ArrayList<>();
+            for (List<MediaEntry> group : candidates) {
+                if (!confirmWithFullHash || group.get(0).getSize() <= SAMPLED_LENGTH) {
+                    confirmed.add(group);
+                } else {
+                    needFullHash.add(group);
+                }
+            }
+            confirmed.addAll(regroup(executor, needFullHash, true));
+            confirmed.sort((a, b) -> Long.compare(b.get(0).getSize() * (b.size() - 1),
+                    a.get(0).getSize() * (a.size() - 1)));
+            return new Result(confirmed, filesSampled.get(), filesFullyHashed.get(), bytesRead.get(),
+                    cancelled.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<List<MediaEntry>> groupBySize(List<MediaEntry> entries) {
+        Map<Long, List<MediaEntry>> bySize = new HashMap<>();
+        Set<String> seenPaths = new HashSet<>();
+        for (MediaEntry entry : entries) {
+            if (entry.getSize() > 0 && seenPaths.add(entry.getCanonicalPath())) {
+                bySize.computeIfAbsent(entry.getSize(), k -> new ArrayList<>(2)).add(entry);
+            }
+        }
+        List<List<MediaEntry>> groups = new ArrayList<>();
+        for (List<MediaEntry> group : bySize.values()) {
+            if (group.size() > 1) {
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    private List<List<MediaEntry>> regroup(ExecutorService executor, List<List<MediaEntry>> groups,
+            boolean fullHash) throws InterruptedException {
+        List<MediaEntry> files = new ArrayList<>();
+        List<Future<String>> hashes = new ArrayList<>();
+        for (List<MediaEntry> group : groups) {
+            for (MediaEntry entry : group) {
+                files.add(entry);
+                hashes.add(executor.submit((Callable<String>) () -> hash(entry, fullHash)));
+            }
+        }
+
+        Map<String, List<MediaEntry>> byHash = new HashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            if (cancelled.get()) {
+                return Collections.emptyList();
+            }
+            String hash;
+            try {
+                hash = hashes.get(i).get();
+            } catch (ExecutionException e) {
+                hash = null;
+            }
+            if (hash != null) {
+                MediaEntry entry = files.get(i);
+                byHash.computeIfAbsent(entry.getSize() + ":" + hash, k -> new ArrayList<>(2)).add(entry);
+            }
+        }
+
+        List<List<MediaEntry>> result = new ArrayList<>();
+        for (List<MediaEntry> group : byHash.values()) {
+            if (group.size() > 1) {
+                result.add(group);
+            }
+        }
+        return result;
+    }
+
+    private String hash(MediaEntry entry, boolean fullHash) throws IOException, InterruptedException {
+        if (cancelled.get()) {
+            return null;
+        }
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(entry.getFile().toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (fullHash) {
+                ByteBuffer buffer = ByteBuffer.allocate(STREAM_BLOCK);
+                for (long position = 0; position < size && !cancelled.get(); position += STREAM_BLOCK) {
+                    readBlock(channel, position, buffer, digest);
+                }
+                filesFullyHashed.incrementAndGet();
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate(SAMPLE_BLOCK);
+                for (long position : samplePositions(size)) {
+                    readBlock(channel, position, buffer, digest);
+                }
+                filesSampled.incrementAndGet();
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private void readBlock(FileChannel channel, long position, ByteBuffer buffer, MessageDigest digest)
+            throws IOException, InterruptedException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        throttle.acquire(buffer.remaining());
+        bytesRead.addAndGet(buffer.remaining());
+        digest.update(buffer);
+    }
+
+    static long[] samplePositions(long size) {
+        if (size <= SAMPLED_LENGTH) {
+            long[] positions = new long[(int) ((size + SAMPLE_BLOCK - 1) / SAMPLE_BLOCK)];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = (long) i * SAMPLE_BLOCK;
+            }
+            return positions;
+        }
+        long[] positions = new long[MIDDLE_SAMPLES + 2];
+        positions[0] = 0;
+        for (int i = 1; i <= MIDDLE_SAMPLES; i++) {
+            positions[i] = size / (MIDDLE_SAMPLES + 1) * i;
+        }
+        positions[MIDDLE_SAMPLES + 1] = size - SAMPLE_BLOCK;
+        return positions;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+            hex[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+        }
+        return new String(hex);
+    }
+
+    private static final class IoThrottle {
+        private final long bytesPerSecond;
+        private long availableBytes;
+        private long lastRefill = System.nanoTime();
+
+        IoThrottle(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+            this.availableBytes = bytesPerSecond;
+        }
+
+        synchronized void acquire(long bytes) throws InterruptedException {
+            if (bytesPerSecond <= 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            double refill = (now - lastRefill) / (double) TimeUnit.SECONDS.toNanos(1) * bytesPerSecond;
+            availableBytes = (long) Math.min(bytesPerSecond, availableBytes + refill);
+            lastRefill = now;
+            availableBytes -= bytes;
+            if (availableBytes < 0) {
+                TimeUnit.NANOSECONDS.sleep(-availableBytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package MainWindowUI;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class FolderScanner {
+    public interface Listener {
+        void batchFound(List<File> batch);
+
+        void progress(int directoriesVisited, int filesFound);
+    }
+
+    public static final class Result {
+        private final int filesFound;
+        private final int directoriesVisited;
+        private final int failures;
+        private final boolean cancelled;
+
+        Result(int filesFound, int directoriesVisited, int failures, boolean cancelled) {
+            this.filesFound = filesFound;
+            this.directoriesVisited = directoriesVisited;
+            this.failures = failures;
+            this.cancelled = cancelled;
+        }
+
+        public int getFilesFound() {
+            return filesFound;
+        }
+
+        public int getDirectoriesVisited() {
+            return directoriesVisited;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static final int PROGRESS_DIRECTORIES = 64;
+
+    private final int batchSize;
+    private final long batchIntervalNanos;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    public FolderScanner() {
+        this(500, 250);
+    }
+
+    public FolderScanner(int batchSize, long batchIntervalMillis) {
+        this.batchSize = batchSize;
+        this.batchIntervalNanos = TimeUnit.MILLISECONDS.toNanos(batchIntervalMillis);
+    }
+
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    public Result scan(Path root, Listener listener) throws IOException {
+        ScanVisitor visitor = new ScanVisitor(listener);
+        Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE, visitor);
+        visitor.flush();
+        return new Result(visitor.filesFound, visitor.directoriesVisited, visitor.failures, isCancelled());
+    }
+
+    private class ScanVisitor extends SimpleFileVisitor<Path> {
+        private final Listener listener;
+        private List<File> batch = new ArrayList<>();
+        private long lastFlush = System.nanoTime();
+        private long lastProgress = lastFlush;
+        private int filesFound;
+        private int directoriesVisited;
+        private int failures;
+
+        ScanVisitor(Listener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (shouldStop()) {
+                return FileVisitResult.TERMINATE;
+            }
+            directoriesVisited++;
+            if (directoriesVisited % PROGRESS_DIRECTORIES == 0
+                    || System.nanoTime() - lastProgress >= batchIntervalNanos) {
+                progress();
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (shouldStop()) {
+                return FileVisitResult.TERMINATE;
+            }
+            Path name = file.getFileName();
+            if (name != null && MediaFileTypes.isSupported(name.toString())
+                    && (attrs.isRegularFile() || attrs.isSymbolicLink() && Files.isRegularFile(file))) {
+                batch.add(file.toFile());
+                filesFound++;
+                if (batch.size() >= batchSize || System.nanoTime() - lastFlush >= batchIntervalNanos) {
+                    flush();
+                }
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            failures++;
+            return shouldStop() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            if (exc != null) {
+                failures++;
+            }
+            return shouldStop() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+        }
+
+        private boolean shouldStop() {
+            if (Thread.currentThread().isInterrupted()) {
+                cancelled.set(true);
+            }
+            return cancelled.get();
+        }
+
+        void flush() {
+            if (!batch.isEmpty()) {
+                listener.batchFound(batch);
+                batch = new ArrayList<>();
+            }
+            progress();
+            lastFlush = lastProgress;
+        }
+
+        private void progress() {
+            listener.progress(directoriesVisited, filesFound);
+            lastProgress = System.nanoTime();
+        }
+    }
+}
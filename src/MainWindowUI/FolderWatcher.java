@@ -0,0 +1,363 @@
+package MainWindowUI;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+public class FolderWatcher {
+    public interface Listener {
+        void changesDetected(List<MediaEntry> created, List<File> deleted);
+    }
+
+    private static final int BATCH_SIZE = 2000;
+
+    private final Listener listener;
+    private final long debounceMillis;
+    private final long rescanIntervalMillis;
+    private final WatchService watchService;
+    private final Thread thread;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Set<Path> registeredDirectories = new HashSet<>();
+    private final Set<Path> roots = new LinkedHashSet<>();
+    private final Set<Path> rootsToRescan = new HashSet<>();
+    private final NavigableSet<String> knownFiles = new TreeSet<>();
+    private final Set<String> pendingCreated = new LinkedHashSet<>();
+    private final Set<String> pendingDeleted = new LinkedHashSet<>();
+    private long lastEventMillis;
+    private long nextRescanMillis;
+    private volatile boolean running = true;
+
+    public FolderWatcher(Listener listener) {
+        this(listener, 500, TimeUnit.MINUTES.toMillis(5));
+    }
+
+    public FolderWatcher(Listener listener, long debounceMillis, long rescanIntervalMillis) {
+        this.listener = listener;
+        this.debounceMillis = debounceMillis;
+        this.rescanIntervalMillis = rescanIntervalMillis;
+        WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            service = null;
+        }
+        this.watchService = service;
+        this.nextRescanMillis = System.currentTimeMillis() + rescanIntervalMillis;
+        this.thread = new Thread(this::run, "folder-watcher");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MIN_PRIORITY);
+        this.thread.start();
+    }
+
+    /**
+     * Starts watching {@code folder}. {@code knownEntries} must not change afterwards: it is read on the watcher
+     * thread, where the entries under the folder are picked out. Files under the folder that are missing from it are
+     * reported as created by the first scan.
+     */
+    public void watch(File folder, Collection<MediaEntry> knownEntries) {
+        submit(() -> {
+            Path root = realPath(folder.toPath());
+            if (!roots.add(root)) {
+                return;
+            }
+            String prefix = root.toString() + File.separator;
+            for (MediaEntry entry : knownEntries) {
+                if (entry.getCanonicalPath().startsWith(prefix)) {
+                    knownFiles.add(entry.getCanonicalPath());
+                }
+            }
+            rootsToRescan.add(root);
+        });
+    }
+
+    public void unwatch(File folder) {
+        submit(() -> {
+            Path root = realPath(folder.toPath());
+            if (!roots.remove(root)) {
+                return;
+            }
+            Iterator<Map.Entry<WatchKey, Path>> keys = watchedDirectories.entrySet().iterator();
+            while (keys.hasNext()) {
+                Map.Entry<WatchKey, Path> key = keys.next();
+                if (key.getValue().startsWith(root) && !isCoveredByOtherRoot(key.getValue())) {
+                    key.getKey().cancel();
+                    registeredDirectories.remove(key.getValue());
+                    keys.remove();
+                }
+            }
+            String prefix = root.toString() + File.separator;
+            knownFiles.subSet(prefix, prefix + Character.MAX_VALUE).removeIf(path -> !isCoveredByOtherRoot(
+                    new File(path).toPath()));
+        });
+    }
+
+    public void rescan() {
+        submit(() -> rootsToRescan.addAll(roots));
+    }
+
+    public void shutdown() {
+        running = false;
+        thread.interrupt();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // Nothing left to release.
+            }
+        }
+    }
+
+    private void submit(Runnable command) {
+        commands.add(() -> {
+            synchronized (roots) {
+                command.run();
+            }
+        });
+        thread.interrupt();
+    }
+
+    private static Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+
+    private boolean isCoveredByOtherRoot(Path path) {
+        for (Path root : roots) {
+            if (path.startsWith(root)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void run() {
+        while (running) {
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+            if (!rootsToRescan.isEmpty()) {
+                List<Path> rescanning = new ArrayList<>(rootsToRescan);
+                rootsToRescan.clear();
+                for (Path root : rescanning) {
+                    rescanRoot(root);
+                }
+                lastEventMillis = 0;
+            }
+
+            long now = System.currentTimeMillis();
+            if (now >= nextRescanMillis) {
+                rootsToRescan.addAll(roots);
+                nextRescanMillis = now + rescanIntervalMillis;
+                continue;
+            }
+            if (hasPendingChanges() && now - lastEventMillis >= debounceMillis) {
+                flush();
+                continue;
+            }
+
+            long wait = nextRescanMillis - now;
+            if (hasPendingChanges()) {
+                wait = Math.min(wait, lastEventMillis + debounceMillis - now);
+            }
+            try {
+                WatchKey key = poll(Math.max(1, wait));
+                while (key != null) {
+                    processEvents(key);
+                    key = watchService.poll();
+                }
+            } catch (InterruptedException e) {
+                // Woken up to run a command or to stop.
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+        }
+    }
+
+    private WatchKey poll(long wait) throws InterruptedException {
+        if (watchService == null) {
+            Thread.sleep(wait);
+            return null;
+        }
+        return watchService.poll(wait, TimeUnit.MILLISECONDS);
+    }
+
+    private void processEvents(WatchKey key) {
+        Path directory = watchedDirectories.get(key);
+        if (directory == null) {
+            key.cancel();
+            return;
+        }
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                rootsToRescan.add(rootOf(directory));
+                continue;
+            }
+            Path child = directory.resolve((Path) event.context());
+            String path = child.toString();
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                pendingCreated.remove(path);
+                if (knownFiles.contains(path)) {
+                    pendingDeleted.add(path);
+                } else {
+                    String prefix = path + File.separator;
+                    pendingDeleted.addAll(knownFiles.subSet(prefix, prefix + Character.MAX_VALUE));
+                }
+            } else if (Files.isDirectory(child)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    Set<String> found = new HashSet<>();
+                    walk(child, found);
+                    pendingCreated.addAll(found);
+                }
+            } else if (MediaFileTypes.isSupported(child.getFileName().toString())) {
+                pendingDeleted.remove(path);
+                pendingCreated.add(path);
+            }
+        }
+        lastEventMillis = System.currentTimeMillis();
+        if (!key.reset()) {
+            registeredDirectories.remove(watchedDirectories.remove(key));
+        }
+    }
+
+    private Path rootOf(Path directory) {
+        for (Path root : roots) {
+            if (directory.startsWith(root)) {
+                return root;
+            }
+        }
+        return directory;
+    }
+
+    private void rescanRoot(Path root) {
+        if (!roots.contains(root)) {
+            return;
+        }
+        Set<String> found = new HashSet<>();
+        if (!walk(root, found)) {
+            return;
+        }
+        String prefix = root.toString() + File.separator;
+        for (String path : knownFiles.subSet(prefix, prefix + Character.MAX_VALUE)) {
+            if (!found.contains(path)) {
+                pendingDeleted.add(path);
+                pendingCreated.remove(path);
+            }
+        }
+        for (String path : found) {
+            if (!knownFiles.contains(path)) {
+                pendingCreated.add(path);
+                pendingDeleted.remove(path);
+            }
+        }
+    }
+
+    private boolean walk(Path start, Set<String> found) {
+        try {
+            Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!running) {
+                        return FileVisitResult.TERMINATE;
+                    }
+                    register(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    Path name = file.getFileName();
+                    if (attrs.isRegularFile() && name != null && MediaFileTypes.isSupported(name.toString())) {
+                        found.add(file.toString());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return running;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void register(Path directory) {
+        if (watchService == null || registeredDirectories.contains(directory)) {
+            return;
+        }
+        try {
+            WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchedDirectories.put(key, directory);
+            registeredDirectories.add(directory);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Unwatchable directories (e.g. some network mounts) are covered by the periodic rescan.
+        }
+    }
+
+    private boolean hasPendingChanges() {
+        return !pendingCreated.isEmpty() || !pendingDeleted.isEmpty();
+    }
+
+    private void flush() {
+        List<File> deleted = new ArrayList<>();
+        for (String path : pendingDeleted) {
+            if (!Files.exists(new File(path).toPath())) {
+                knownFiles.remove(path);
+                deleted.add(new File(path));
+            }
+        }
+        pendingDeleted.clear();
+
+        List<MediaEntry> created = new ArrayList<>();
+        for (String path : pendingCreated) {
+            File file = new File(path);
+            if (!file.isFile()) {
+                continue;
+            }
+            knownFiles.add(path);
+            created.add(MediaLibrary.describe(file));
+            if (created.size() >= BATCH_SIZE) {
+                listener.changesDetected(created, deleted);
+                created = new ArrayList<>();
+                deleted = Collections.emptyList();
+            }
+        }
+        pendingCreated.clear();
+
+        if (!created.isEmpty() || !deleted.isEmpty()) {
+            listener.changesDetected(created, deleted);
+        }
+    }
+}
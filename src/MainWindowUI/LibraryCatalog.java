@@ -0,0 +1,232 @@
+package MainWindowUI;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LibraryCatalog {
+    public static final String DEFAULT_LIBRARY = "Default";
+
+    public static final class Match {
+        private final String library;
+        private final MediaSearchIndex.Hit hit;
+
+        Match(String library, MediaSearchIndex.Hit hit) {
+            this.library = library;
+            this.hit = hit;
+        }
+
+        public String getLibrary() {
+            return library;
+        }
+
+        public File getFile() {
+            return hit.getFile();
+        }
+    }
+
+    private final Path root;
+    private final Path librariesDirectory;
+    private final Map<String, LibrarySummary> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final ExecutorService searchExecutor;
+    private volatile String activeLibrary = DEFAULT_LIBRARY;
+
+    public LibraryCatalog(Path root) {
+        this.root = root;
+        this.librariesDirectory = root.resolve("libraries");
+        this.searchExecutor = Executors.newFixedThreadPool(
+                Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), r -> {
+                    Thread thread = new Thread(r, "library-search");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public List<String> getLibraryNames() {
+        List<String> names = new ArrayList<>();
+        if (Files.isDirectory(librariesDirectory)) {
+            try (DirectoryStream<Path> directories = Files.newDirectoryStream(librariesDirectory, Files::isDirectory)) {
+                for (Path directory : directories) {
+                    names.add(directory.getFileName().toString());
+                }
+            } catch (IOException e) {
+                // An unreadable libraries folder leaves only the default library available.
+            }
+        }
+        Collections.sort(names, String.CASE_INSENSITIVE_ORDER);
+        names.remove(DEFAULT_LIBRARY);
+        names.add(0, DEFAULT_LIBRARY);
+        return names;
+    }
+
+    public String createLibrary(String name) throws IOException {
+        String trimmed = name == null ? "" : name.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith(".") || trimmed.contains("/") || trimmed.contains("\\")
+                || trimmed.contains(":")) {
+            throw new IllegalArgumentException("Invalid library name: " + name);
+        }
+        for (String existing : getLibraryNames()) {
+            if (existing.equalsIgnoreCase(trimmed)) {
+                throw new IllegalArgumentException("A library named " + existing + " already exists.");
+            }
+        }
+        Files.createDirectories(librariesDirectory.resolve(trimmed));
+        return trimmed;
+    }
+
+    public Path getJournalPath(String library) {
+        return directoryOf(library).resolve("mediaLibrary.db");
+    }
+
+    public Path getLegacyPath(String library) {
+        return DEFAULT_LIBRARY.equals(library) ? root.resolve("mediaFiles.txt") : null;
+    }
+
+    private Path getSummaryPath(String library) {
+        return directoryOf(library).resolve("summary.bin");
+    }
+
+    public Path getWatchedFoldersPath(String library) {
+        return directoryOf(library).resolve("watchedFolders.txt");
+    }
+
+    private Path directoryOf(String library) {
+        return DEFAULT_LIBRARY.equals(library) ? root : librariesDirectory.resolve(library);
+    }
+
+    public String loadActiveLibrary() {
+        Path activePath = root.resolve("activeLibrary.txt");
+        try {
+            if (Files.exists(activePath)) {
+                String name = new String(Files.readAllBytes(activePath), StandardCharsets.UTF_8).trim();
+                if (getLibraryNames().contains(name)) {
+                    return name;
+                }
+            }
+        } catch (IOException e) {
+            // Fall back to the default library when the marker cannot be read.
+        }
+        return DEFAULT_LIBRARY;
+    }
+
+    public String getActiveLibrary() {
+        return activeLibrary;
+    }
+
+    public void activate(String library) throws IOException {
+        activeLibrary = library;
+        summaries.remove(library);
+        Files.write(root.resolve("activeLibrary.txt"), library.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<MediaEntry> load(String library, LibraryStore store) throws IOException {
+        synchronized (lockFor(library)) {
+            return store.load();
+        }
+    }
+
+    private Object lockFor(String library) {
+        return locks.computeIfAbsent(library, k -> new Object());
+    }
+
+    public LibrarySummary getSummary(String library) {
+        return summaries.get(library);
+    }
+
+    /**
+     * Returns the summary of an inactive library, read from its summary file while that still matches the journal
+     * and otherwise rebuilt from the journal without opening it for writing.
+     */
+    public LibrarySummary summarize(String library) throws IOException {
+        synchronized (lockFor(library)) {
+            LibrarySummary summary = summaries.get(library);
+            if (summary != null || library.equals(activeLibrary)) {
+                return summary;
+            }
+            Path source = sourceOf(library);
+            long length = 0;
+            long modified = 0;
+            if (source != null) {
+                BasicFileAttributes attrs = Files.readAttributes(source, BasicFileAttributes.class);
+                length = attrs.size();
+                modified = attrs.lastModifiedTime().toMillis();
+            }
+            Path summaryPath = getSummaryPath(library);
+            try {
+                summary = LibrarySummary.read(summaryPath, length, modified);
+            } catch (IOException e) {
+                summary = null;
+            }
+            if (summary == null) {
+                summary = new LibrarySummary(LibraryStore.read(getJournalPath(library), getLegacyPath(library)));
+                if (source != null) {
+                    summary.write(summaryPath, length, modified);
+                }
+            }
+            summaries.put(library, summary);
+            return summary;
+        }
+    }
+
+    private Path sourceOf(String library) {
+        Path journal = getJournalPath(library);
+        if (Files.exists(journal)) {
+            return journal;
+        }
+        Path legacy = getLegacyPath(library);
+        return legacy != null && Files.exists(legacy) ? legacy : null;
+    }
+
+    public List<Match> searchAll(String query, int limit, List<MediaSearchIndex.Hit> activeHits)
+            throws IOException {
+        String active = activeLibrary;
+        List<String> libraries = getLibraryNames();
+        List<Future<List<MediaSearchIndex.Hit>>> futures = new ArrayList<>();
+        for (String library : libraries) {
+            futures.add(library.equals(active) ? null : searchExecutor.submit(() -> {
+                LibrarySummary summary = summarize(library);
+                return summary == null ? Collections.<MediaSearchIndex.Hit>emptyList() : summary.search(query, limit);
+            }));
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < libraries.size(); i++) {
+            List<MediaSearchIndex.Hit> hits;
+            if (futures.get(i) == null) {
+                hits = activeHits;
+            } else {
+                try {
+                    hits = futures.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Search was interrupted", e);
+                } catch (ExecutionException e) {
+                    throw new IOException("Could not search library " + libraries.get(i), e.getCause());
+                }
+            }
+            for (MediaSearchIndex.Hit hit : hits) {
+                matches.add(new Match(libraries.get(i), hit));
+            }
+        }
+        Collections.sort(matches, (a, b) -> a.hit.compareTo(b.hit));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    public void shutdown() {
+        searchExecutor.shutdownNow();
+    }
+}
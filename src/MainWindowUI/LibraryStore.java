@@ -0,0 +1,461 @@
+package MainWindowUI;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+public class LibraryStore implements MediaLibrary.Listener {
+    private static final int MAGIC = 0x43504C42;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final byte OP_REPLACE = 3;
+
+    private final Path journalPath;
+    private final Path legacyPath;
+    private final ExecutorService writer;
+    private final Consumer<IOException> errorHandler;
+    private FileChannel channel;
+    private long journalRecords;
+    private long liveCount;
+    private volatile boolean failed;
+
+    public LibraryStore(Path journalPath, Path legacyPath, Consumer<IOException> errorHandler) {
+        this.journalPath = journalPath;
+        this.legacyPath = legacyPath;
+        this.errorHandler = errorHandler;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "library-store-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized List<MediaEntry> load() throws IOException {
+        journalRecords = 0;
+        if (!Files.exists(journalPath) && legacyPath != null && Files.exists(legacyPath)) {
+            migrateLegacy();
+        }
+
+        LiveEntries live = new LiveEntries();
+        long validLength = HEADER_LENGTH;
+        if (Files.exists(journalPath)) {
+            validLength = replay(journalPath, live, Long.MAX_VALUE);
+            journalRecords = live.records;
+        }
+        if (validLength == HEADER_LENGTH && !Files.exists(journalPath)) {
+            writeSnapshot(live.entries());
+        }
+
+        channel = FileChannel.open(journalPath, StandardOpenOption.WRITE);
+        if (channel.size() > validLength) {
+            channel.truncate(validLength);
+            channel.force(true);
+        }
+        channel.position(validLength);
+        List<MediaEntry> entries = live.entries();
+        liveCount = entries.size();
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Reads the entries of a library without opening it for writing: the journal is neither truncated, migrated
+     * nor compacted, and a legacy path list is read without touching the listed files.
+     */
+    public static List<MediaEntry> read(Path journalPath, Path legacyPath) throws IOException {
+        LiveEntries live = new LiveEntries();
+        if (Files.exists(journalPath)) {
+            replay(journalPath, live, Long.MAX_VALUE);
+        } else if (legacyPath != null && Files.exists(legacyPath)) {
+            for (String line : Files.readAllLines(legacyPath, Charset.defaultCharset())) {
+                if (!line.trim().isEmpty()) {
+                    File file = new File(line);
+                    live.put(new MediaEntry(file, file.getAbsolutePath(), MediaEntry.UNKNOWN, MediaEntry.UNKNOWN,
+                            null, MediaEntry.UNKNOWN));
+                }
+            }
+        }
+        return live.entries();
+    }
+
+    private static long replay(Path journalPath, LiveEntries live, long limit) throws IOException {
+        long validLength;
+        try (InputStream fileInput = Files.newInputStream(journalPath);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(fileInput, 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a library journal: " + journalPath);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported library journal version " + version);
+            }
+            validLength = HEADER_LENGTH;
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[256];
+            while (validLength < limit) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_RECORD_LENGTH) {
+                    break;
+                }
+                if (buffer.length < length) {
+                    buffer = new byte[Math.max(length, buffer.length * 2)];
+                }
+                int checksum;
+                try {
+                    in.readFully(buffer, 0, length);
+                    checksum = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                apply(live, new DataInputStream(new ByteArrayInputStream(buffer, 0, length)));
+                validLength += 8 + length;
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated library journal header: " + journalPath, e);
+        }
+        return validLength;
+    }
+
+    private static void apply(LiveEntries live, DataInputStream record) throws IOException {
+        byte op = record.readByte();
+        if (op == OP_ADD) {
+            live.put(readEntry(record));
+        } else if (op == OP_REMOVE) {
+            live.remove(record.readUTF());
+        } else if (op == OP_REPLACE) {
+            String oldPath = record.readUTF();
+            live.replace(oldPath, readEntry(record));
+        } else {
+            throw new IOException("Unknown library journal record type " + op);
+        }
+        live.records++;
+    }
+
+    private static MediaEntry readEntry(DataInputStream in) throws IOException {
+        String path = in.readUTF();
+        String canonicalPath = in.readUTF();
+        long size = in.readLong();
+        long lastModified = in.readLong();
+        String identityKey = in.readBoolean() ? in.readUTF() : null;
+        long durationMillis = in.readLong();
+        return new MediaEntry(new File(path), canonicalPath, size, lastModified, identityKey, durationMillis);
+    }
+
+    private static void writeEntry(DataOutputStream out, MediaEntry entry) throws IOException {
+        out.writeUTF(entry.getFile().getPath());
+        out.writeUTF(entry.getCanonicalPath());
+        out.writeLong(entry.getSize());
+        out.writeLong(entry.getLastModified());
+        out.writeBoolean(entry.getIdentityKey() != null);
+        if (entry.getIdentityKey() != null) {
+            out.writeUTF(entry.getIdentityKey());
+        }
+        out.writeLong(entry.getDurationMillis());
+    }
+
+    private void migrateLegacy() throws IOException {
+        LiveEntries live = new LiveEntries();
+        try (BufferedReader reader = Files.newBufferedReader(legacyPath, Charset.defaultCharset())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    MediaEntry entry = MediaLibrary.describe(new File(line));
+                    if (!live.contains(entry.getCanonicalPath())) {
+                        live.put(entry);
+                    }
+                }
+            }
+        }
+        writeSnapshot(live.entries());
+        Files.move(legacyPath, legacyPath.resolveSibling(legacyPath.getFileName() + ".bak"),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void writeSnapshot(List<MediaEntry> entries) throws IOException {
+        Path tempPath = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        try (FileChannel temp = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            writeFully(temp, header);
+            RecordBuffer records = new RecordBuffer();
+            for (MediaEntry entry : entries) {
+                records.add(OP_ADD, entry, null);
+                if (records.size() >= 1 << 16) {
+                    writeFully(temp, records.drain());
+                }
+            }
+            writeFully(temp, records.drain());
+            temp.force(true);
+        }
+        try {
+            Files.move(tempPath, journalPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, journalPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(journalPath.toAbsolutePath().getParent());
+        journalRecords = entries.size();
+    }
+
+    private static void syncDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException | RuntimeException e) {
+            // Not every platform allows opening a directory; the rename is still durable on close there.
+        }
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    @Override
+    public void mediaAdded(int firstIndex, List<MediaEntry> added) {
+        List<MediaEntry> batch = new ArrayList<>(added);
+        submit(records -> {
+            for (MediaEntry entry : batch) {
+                records.add(OP_ADD, entry, null);
+            }
+            liveCount += batch.size();
+        });
+    }
+
+    @Override
+    public void mediaRemoved(int[] removedIndices, List<MediaEntry> removed) {
+        List<MediaEntry> batch = new ArrayList<>(removed);
+        submit(records -> {
+            for (MediaEntry entry : batch) {
+                records.add(OP_REMOVE, null, entry.getCanonicalPath());
+            }
+            liveCount -= batch.size();
+        });
+    }
+
+    @Override
+    public void mediaReplaced(int index, MediaEntry oldEntry, MediaEntry newEntry) {
+        submit(records -> {
+            records.add(OP_REPLACE, newEntry, oldEntry.getCanonicalPath());
+        });
+    }
+
+    @Override
+    public void mediaReplaced(int[] indices, List<MediaEntry> oldEntries, List<MediaEntry> newEntries) {
+        List<MediaEntry> oldBatch = new ArrayList<>(oldEntries);
+        List<MediaEntry> newBatch = new ArrayList<>(newEntries);
+        submit(records -> {
+            for (int i = 0; i < newBatch.size(); i++) {
+                String oldPath = oldBatch.get(i).getCanonicalPath();
+                records.add(OP_REPLACE, newBatch.get(i), oldPath);
+            }
+        });
+    }
+
+    private interface RecordWriter {
+        void write(RecordBuffer records) throws IOException;
+    }
+
+    private void submit(RecordWriter recordWriter) {
+        if (failed || writer.isShutdown()) {
+            return;
+        }
+        writer.execute(() -> {
+            synchronized (this) {
+                if (failed || channel == null) {
+                    return;
+                }
+                try {
+                    RecordBuffer records = new RecordBuffer();
+                    recordWriter.write(records);
+                    journalRecords += records.count();
+                    writeFully(channel, records.drain());
+                    channel.force(false);
+                    if (journalRecords > Math.max(MIN_COMPACTION_RECORDS, liveCount * 2)) {
+                        compact();
+                    }
+                } catch (IOException e) {
+                    failed = true;
+                    errorHandler.accept(e);
+                }
+            }
+        });
+    }
+
+    /** Rewrites the journal as one add per live entry, re-reading it rather than keeping a copy of the library. */
+    private void compact() throws IOException {
+        long length = channel.position();
+        channel.close();
+        LiveEntries live = new LiveEntries();
+        replay(journalPath, live, length);
+        writeSnapshot(live.entries());
+        liveCount = journalRecords;
+        channel = FileChannel.open(journalPath, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    /**
+     * Queues the final compaction and close behind any pending writes and returns at once; use
+     * {@link #awaitClosed} where the caller has to know the journal is on disk, such as at JVM shutdown.
+     */
+    public void close() {
+        if (writer.isShutdown()) {
+            return;
+        }
+        writer.execute(() -> {
+            synchronized (this) {
+                if (channel == null) {
+                    return;
+                }
+                try {
+                    if (!failed && journalRecords > liveCount) {
+                        compact();
+                    }
+                    channel.close();
+                } catch (IOException e) {
+                    errorHandler.accept(e);
+                }
+                channel = null;
+            }
+        });
+        writer.shutdown();
+    }
+
+    public boolean awaitClosed(long timeout, TimeUnit unit) {
+        try {
+            return writer.awaitTermination(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class LiveEntries {
+        private final List<MediaEntry> slots = new ArrayList<>();
+        private final Map<String, Integer> slotByPath = new HashMap<>();
+        private long records;
+
+        boolean contains(String canonicalPath) {
+            return slotByPath.containsKey(canonicalPath);
+        }
+
+        void put(MediaEntry entry) {
+            Integer slot = slotByPath.get(entry.getCanonicalPath());
+            if (slot != null) {
+                slots.set(slot, entry);
+            } else {
+                slotByPath.put(entry.getCanonicalPath(), slots.size());
+                slots.add(entry);
+            }
+        }
+
+        void remove(String canonicalPath) {
+            Integer slot = slotByPath.remove(canonicalPath);
+            if (slot != null) {
+                slots.set(slot, null);
+            }
+        }
+
+        void replace(String oldPath, MediaEntry entry) {
+            Integer slot = slotByPath.remove(oldPath);
+            if (slot == null) {
+                put(entry);
+                return;
+            }
+            remove(entry.getCanonicalPath());
+            slots.set(slot, entry);
+            slotByPath.put(entry.getCanonicalPath(), slot);
+        }
+
+        List<MediaEntry> entries() {
+            List<MediaEntry> live = new ArrayList<>(slotByPath.size());
+            for (MediaEntry entry : slots) {
+                if (entry != null) {
+                    live.add(entry);
+                }
+            }
+            return live;
+        }
+    }
+
+    private static final class RecordBuffer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        private final DataOutputStream payloadOut = new DataOutputStream(payload);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final CRC32 crc = new CRC32();
+        private int count;
+
+        void add(byte op, MediaEntry entry, String path) throws IOException {
+            payload.reset();
+            payloadOut.writeByte(op);
+            if (path != null) {
+                payloadOut.writeUTF(path);
+            }
+            if (entry != null) {
+                writeEntry(payloadOut, entry);
+            }
+            payloadOut.flush();
+            crc.reset();
+            crc.update(payload.toByteArray(), 0, payload.size());
+            out.writeInt(payload.size());
+            payload.writeTo(out);
+            out.writeInt((int) crc.getValue());
+            count++;
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        int count() {
+            return count;
+        }
+
+        ByteBuffer drain() throws IOException {
+            out.flush();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            bytes.reset();
+            return buffer;
+        }
+    }
+}
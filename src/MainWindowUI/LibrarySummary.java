@@ -0,0 +1,256 @@
+package MainWindowUI;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Count, total size and paths of a library that is not loaded. The paths are kept as one newline-separated UTF-8
+ * blob with trigram postings over its plain ASCII paths, both persisted in the summary file. Queries of at least
+ * three ASCII characters only verify the paths the postings return; shorter ones scan the blob in place. Paths
+ * that are not plain ASCII are never indexed and are decoded and normalized per query.
+ */
+public class LibrarySummary {
+    private static final int MAGIC = 0x4350534D;
+    private static final int VERSION = 2;
+
+    private final int count;
+    private final long totalSize;
+    private final byte[] paths;
+    private final int[] offsets;
+    private final int[] nameStarts;
+    private final BitSet nonAscii = new BitSet();
+    private final TrigramPostings postings;
+
+    public LibrarySummary(List<MediaEntry> entries) {
+        long total = 0;
+        int length = 0;
+        List<byte[]> encoded = new ArrayList<>(entries.size());
+        for (MediaEntry entry : entries) {
+            byte[] path = entry.getFile().getAbsolutePath().replace('\n', ' ').getBytes(StandardCharsets.UTF_8);
+            encoded.add(path);
+            length += path.length + 1;
+            total += Math.max(0, entry.getSize());
+        }
+        byte[] blob = new byte[length];
+        int position = 0;
+        for (byte[] path : encoded) {
+            System.arraycopy(path, 0, blob, position, path.length);
+            position += path.length;
+            blob[position++] = '\n';
+        }
+        this.count = entries.size();
+        this.totalSize = total;
+        this.paths = blob;
+        this.offsets = new int[count + 1];
+        this.nameStarts = new int[count];
+        index();
+        this.postings = TrigramPostings.build(paths, offsets, count, nonAscii);
+    }
+
+    private LibrarySummary(int count, long totalSize, byte[] paths, TrigramPostings postings) {
+        this.count = count;
+        this.totalSize = totalSize;
+        this.paths = paths;
+        this.offsets = new int[count + 1];
+        this.nameStarts = new int[count];
+        this.postings = postings;
+        index();
+    }
+
+    private void index() {
+        int entry = 0;
+        int nameStart = 0;
+        for (int i = 0; i < paths.length && entry < count; i++) {
+            byte b = paths[i];
+            if (b == '\n') {
+                nameStarts[entry] = nameStart;
+                offsets[++entry] = i + 1;
+                nameStart = i + 1;
+            } else if (b == File.separatorChar) {
+                nameStart = i + 1;
+            } else if (b < 0) {
+                nonAscii.set(entry);
+            }
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public File getFile(int index) {
+        return new File(new String(paths, offsets[index], offsets[index + 1] - offsets[index] - 1,
+                StandardCharsets.UTF_8));
+    }
+
+    public List<MediaSearchIndex.Hit> search(String query, int limit) {
+        String normalizedQuery = MediaSearchIndex.normalize(query).trim();
+        if (normalizedQuery.isEmpty() || normalizedQuery.indexOf('\n') >= 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        byte[] asciiQuery = null;
+        if (normalizedQuery.chars().allMatch(c -> c < 0x80)) {
+            asciiQuery = normalizedQuery.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        long[] matches = new long[16];
+        int matchCount = 0;
+        if (asciiQuery != null && asciiQuery.length >= MediaSearchIndex.INDEXED_QUERY_LENGTH) {
+            for (int i : postings.candidates(asciiQuery)) {
+                long match = i >= 0 && i < count && !nonAscii.get(i) ? match(i, normalizedQuery, asciiQuery) : -1;
+                if (match >= 0) {
+                    if (matchCount == matches.length) {
+                        matches = Arrays.copyOf(matches, matchCount * 2);
+                    }
+                    matches[matchCount++] = match;
+                }
+            }
+        }
+        boolean scanAll = asciiQuery != null && asciiQuery.length < MediaSearchIndex.INDEXED_QUERY_LENGTH;
+        for (int i = scanAll ? 0 : nonAscii.nextSetBit(0); i >= 0 && i < count;
+                i = scanAll ? i + 1 : nonAscii.nextSetBit(i + 1)) {
+            long match = match(i, normalizedQuery, asciiQuery);
+            if (match >= 0) {
+                if (matchCount == matches.length) {
+                    matches = Arrays.copyOf(matches, matchCount * 2);
+                }
+                matches[matchCount++] = match;
+            }
+        }
+
+        Arrays.sort(matches, 0, matchCount);
+        int resultCount = Math.min(limit, matchCount);
+        List<MediaSearchIndex.Hit> hits = new ArrayList<>(resultCount);
+        for (int i = 0; i < resultCount; i++) {
+            long match = matches[i];
+            hits.add(new MediaSearchIndex.Hit(getFile((int) match), 1000 - (int) (match >>> 48),
+                    (int) ((match >>> 32) & 0xFFFF)));
+        }
+        return hits;
+    }
+
+    /**
+     * Scores one path against the query and returns a key that packs the score, name length and index so that it
+     * sorts best first, or -1 when the path does not match.
+     */
+    private long match(int i, String normalizedQuery, byte[] asciiQuery) {
+        int score;
+        int nameLength;
+        if (nonAscii.get(i)) {
+            String path = MediaSearchIndex.normalize(getFile(i).getPath());
+            int nameStart = path.lastIndexOf(File.separatorChar) + 1;
+            int namePosition = path.indexOf(normalizedQuery, nameStart);
+            if (namePosition >= 0) {
+                score = MediaSearchIndex.nameScore(path, nameStart, namePosition);
+            } else if (path.contains(normalizedQuery)) {
+                score = MediaSearchIndex.PATH_SCORE;
+            } else {
+                return -1;
+            }
+            nameLength = path.length() - nameStart;
+        } else if (asciiQuery != null) {
+            int start = offsets[i];
+            int nameStart = nameStarts[i];
+            int end = offsets[i + 1] - 1;
+            int namePosition = indexOf(asciiQuery, nameStart, end);
+            if (namePosition >= 0) {
+                score = MediaSearchIndex.nameScore(nameStart, namePosition,
+                        namePosition == nameStart ? ' ' : lower(paths[namePosition - 1]));
+            } else if (indexOf(asciiQuery, start, end) >= 0) {
+                score = MediaSearchIndex.PATH_SCORE;
+            } else {
+                return -1;
+            }
+            nameLength = end - nameStart;
+        } else {
+            return -1;
+        }
+        return ((long) (1000 - score) << 48) | ((long) Math.min(nameLength, 0xFFFF) << 32) | i;
+    }
+
+    private int indexOf(byte[] query, int from, int end) {
+        int last = end - query.length;
+        for (int i = from; i <= last; i++) {
+            int j = 0;
+            while (j < query.length && lower(paths[i + j]) == query[j]) {
+                j++;
+            }
+            if (j == query.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static char lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (char) (b + ('a' - 'A')) : (char) b;
+    }
+
+    /**
+     * Reads a summary written by {@link #write}, or returns null when there is none or it was taken from a
+     * different version of the library's journal.
+     */
+    static LibrarySummary read(Path path, long sourceLength, long sourceModified) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (InputStream fileInput = Files.newInputStream(path);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(fileInput, 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != sourceLength
+                    || in.readLong() != sourceModified) {
+                return null;
+            }
+            int count = in.readInt();
+            long totalSize = in.readLong();
+            int length = in.readInt();
+            if (count < 0 || length < count || length > Files.size(path)) {
+                return null;
+            }
+            byte[] paths = new byte[length];
+            in.readFully(paths);
+            TrigramPostings postings = TrigramPostings.read(in, Files.size(path));
+            return postings == null ? null : new LibrarySummary(count, totalSize, paths, postings);
+        }
+    }
+
+    void write(Path path, long sourceLength, long sourceModified) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream fileOutput = Files.newOutputStream(temp);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOutput, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceLength);
+            out.writeLong(sourceModified);
+            out.writeInt(count);
+            out.writeLong(totalSize);
+            out.writeInt(paths.length);
+            out.write(paths);
+            postings.write(out);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
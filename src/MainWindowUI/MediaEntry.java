@@ -0,0 +1,56 @@
+package MainWindowUI;
+
+import java.io.File;
+
+public final class MediaEntry {
+    public static final long UNKNOWN = -1;
+
+    private final File file;
+    private final String canonicalPath;
+    private final long size;
+    private final long lastModified;
+    private final String identityKey;
+    private final long durationMillis;
+
+    public MediaEntry(File file, String canonicalPath, long size, long lastModified, String identityKey,
+            long durationMillis) {
+        this.file = file;
+        this.canonicalPath = canonicalPath;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.identityKey = identityKey;
+        this.durationMillis = durationMillis;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public String getCanonicalPath() {
+        return canonicalPath;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getIdentityKey() {
+        return identityKey;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public boolean hasIdentity() {
+        return identityKey != null && size != UNKNOWN && lastModified != UNKNOWN;
+    }
+
+    public MediaEntry withDuration(long durationMillis) {
+        return new MediaEntry(file, canonicalPath, size, lastModified, identityKey, durationMillis);
+    }
+}
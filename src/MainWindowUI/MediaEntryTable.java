@@ -0,0 +1,729 @@
+package MainWindowUI;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class MediaEntryTable {
+    private static final int NO_DIRECTORY = -1;
+    static final int NOT_ASCII = Integer.MIN_VALUE;
+
+    private final List<String> directories = new ArrayList<>();
+    private final Map<String, Integer> directoryIds = new HashMap<>();
+    private final PackedStrings names = new PackedStrings();
+    private final PackedStrings identityKeys = new PackedStrings();
+    private final RowIndex pathIndex = new RowIndex(false) {
+        @Override
+        int hashOf(int row) {
+            return pathHashes[row];
+        }
+    };
+    private final RowIndex identityIndex = new RowIndex(true) {
+        @Override
+        int hashOf(int row) {
+            return identityHashes[row];
+        }
+    };
+    // Rows whose canonical path differs from their file path are indexed a second time by the file path.
+    private final RowIndex aliasIndex = new RowIndex(true) {
+        @Override
+        int hashOf(int row) {
+            return aliasHashes[row];
+        }
+    };
+
+    private int size;
+    private int capacity;
+    private int[] directoryOf = new int[0];
+    private int[] pathHashes = new int[0];
+    // The columns below stay null until some row stores a value other than UNKNOWN or no override.
+    private String[] canonicalOverrides;
+    private long[] sizes;
+    private long[] lastModified;
+    private long[] durations;
+    private int[] identityHashes;
+    private int[] aliasHashes;
+    private long totalSize;
+
+    int size() {
+        return size;
+    }
+
+    long getTotalSize() {
+        return totalSize;
+    }
+
+    MediaEntry get(int row) {
+        checkRow(row);
+        return new MediaEntry(getFile(row), getCanonicalPath(row), getSize(row), getLastModified(row),
+                identityKeys.get(row), getDuration(row));
+    }
+
+    File getFile(int row) {
+        checkRow(row);
+        return new File(getPath(row));
+    }
+
+    String getCanonicalPath(int row) {
+        String canonicalPath = canonicalOverrides == null ? null : canonicalOverrides[row];
+        return canonicalPath != null ? canonicalPath : getPath(row);
+    }
+
+    String getName(int row) {
+        return names.get(row);
+    }
+
+    int getNameLength(int row) {
+        return names.byteLength(row);
+    }
+
+    long getSize(int row) {
+        return valueAt(sizes, row);
+    }
+
+    long getLastModified(int row) {
+        return valueAt(lastModified, row);
+    }
+
+    long getDuration(int row) {
+        return valueAt(durations, row);
+    }
+
+    int getDirectoryId(int row) {
+        return directoryOf[row];
+    }
+
+    String getDirectory(int directoryId) {
+        return directoryId == NO_DIRECTORY ? "" : directories.get(directoryId);
+    }
+
+    int getDirectoryCount() {
+        return directories.size();
+    }
+
+    /**
+     * Finds {@code lowerQuery} in the lower-cased name of a row without materializing it. Returns the position,
+     * -1 when the name does not contain it, or {@link #NOT_ASCII} when the name is not plain ASCII and has to be
+     * normalized as a String instead.
+     */
+    int indexOfInName(int row, String lowerQuery) {
+        return names.indexOfLowerAscii(row, lowerQuery);
+    }
+
+    /** Returns the lower-cased char at {@code index} of a plain ASCII name. */
+    char nameCharAt(int row, int index) {
+        return names.lowerAsciiAt(row, index);
+    }
+
+    /** Orders rows by their normalized names without materializing them when both names are plain ASCII. */
+    int compareNames(int a, int b) {
+        int result = names.compareLowerAscii(a, b);
+        if (result == NOT_ASCII) {
+            return MediaSearchIndex.normalize(names.get(a)).compareTo(MediaSearchIndex.normalize(names.get(b)));
+        }
+        return result;
+    }
+
+    private String getPath(int row) {
+        int directory = directoryOf[row];
+        String name = names.get(row);
+        return directory == NO_DIRECTORY ? name : directories.get(directory) + File.separatorChar + name;
+    }
+
+    void ensureCapacity(int rows) {
+        if (rows > capacity) {
+            int newCapacity = Math.max(rows, Math.max(16, capacity + (capacity >> 1)));
+            directoryOf = Arrays.copyOf(directoryOf, newCapacity);
+            pathHashes = Arrays.copyOf(pathHashes, newCapacity);
+            canonicalOverrides = canonicalOverrides == null ? null : Arrays.copyOf(canonicalOverrides, newCapacity);
+            sizes = grow(sizes, newCapacity);
+            lastModified = grow(lastModified, newCapacity);
+            durations = grow(durations, newCapacity);
+            identityHashes = identityHashes == null ? null : Arrays.copyOf(identityHashes, newCapacity);
+            aliasHashes = aliasHashes == null ? null : Arrays.copyOf(aliasHashes, newCapacity);
+            names.ensureCapacity(newCapacity);
+            identityKeys.ensureCapacity(newCapacity);
+            capacity = newCapacity;
+        }
+        pathIndex.reserve(rows);
+        identityIndex.reserve(rows);
+        aliasIndex.reserve(rows);
+    }
+
+    void add(MediaEntry entry) {
+        ensureCapacity(size + 1);
+        int row = size++;
+        names.addRow(row);
+        identityKeys.addRow(row);
+        store(row, entry);
+        index(row);
+    }
+
+    void set(int row, MediaEntry entry) {
+        checkRow(row);
+        totalSize -= Math.max(0, getSize(row));
+        unindex(row);
+        store(row, entry);
+        index(row);
+    }
+
+    void removeRows(int[] sortedRows) {
+        int write = sortedRows[0];
+        int next = 0;
+        for (int read = sortedRows[0]; read < size; read++) {
+            if (next < sortedRows.length && sortedRows[next] == read) {
+                totalSize -= Math.max(0, getSize(read));
+                next++;
+                continue;
+            }
+            directoryOf[write] = directoryOf[read];
+            pathHashes[write] = pathHashes[read];
+            if (canonicalOverrides != null) {
+                canonicalOverrides[write] = canonicalOverrides[read];
+            }
+            if (sizes != null) {
+                sizes[write] = sizes[read];
+            }
+            if (lastModified != null) {
+                lastModified[write] = lastModified[read];
+            }
+            if (durations != null) {
+                durations[write] = durations[read];
+            }
+            if (identityHashes != null) {
+                identityHashes[write] = identityHashes[read];
+            }
+            if (aliasHashes != null) {
+                aliasHashes[write] = aliasHashes[read];
+            }
+            write++;
+        }
+        if (canonicalOverrides != null) {
+            Arrays.fill(canonicalOverrides, write, size, null);
+        }
+        names.removeRows(sortedRows, size);
+        identityKeys.removeRows(sortedRows, size);
+        size = write;
+        pathIndex.clear();
+        identityIndex.clear();
+        aliasIndex.clear();
+        for (int row = 0; row < size; row++) {
+            index(row);
+        }
+    }
+
+    void clear() {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        if (size > 0) {
+            removeRows(rows);
+        }
+    }
+
+    int findPath(String canonicalPath) {
+        int hash = canonicalPath.hashCode();
+        for (int slot = pathIndex.first(hash); slot >= 0; slot = pathIndex.next(slot, hash)) {
+            int row = pathIndex.rowAt(slot);
+            if (pathEquals(row, canonicalPath)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /** Finds the row stored under {@code path} as its file path, whether or not that is also its canonical path. */
+    int findFilePath(String path) {
+        int hash = path.hashCode();
+        for (int slot = pathIndex.first(hash); slot >= 0; slot = pathIndex.next(slot, hash)) {
+            int row = pathIndex.rowAt(slot);
+            if (!hasOverride(row) && filePathEquals(row, path)) {
+                return row;
+            }
+        }
+        for (int slot = aliasIndex.first(hash); slot >= 0; slot = aliasIndex.next(slot, hash)) {
+            int row = aliasIndex.rowAt(slot);
+            if (filePathEquals(row, path)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    int findIdentity(MediaEntry entry) {
+        if (!entry.hasIdentity()) {
+            return -1;
+        }
+        int hash = identityHash(entry.getSize(), entry.getLastModified(), entry.getIdentityKey());
+        for (int slot = identityIndex.first(hash); slot >= 0; slot = identityIndex.next(slot, hash)) {
+            int row = identityIndex.rowAt(slot);
+            if (getSize(row) == entry.getSize() && getLastModified(row) == entry.getLastModified()
+                    && identityKeys.matches(row, entry.getIdentityKey(), 0)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private void store(int row, MediaEntry entry) {
+        String path = entry.getFile().getPath();
+        int separator = path.lastIndexOf(File.separatorChar);
+        directoryOf[row] = separator < 0 ? NO_DIRECTORY : internDirectory(path.substring(0, separator));
+        names.set(row, separator < 0 ? path : path.substring(separator + 1));
+        String override = path.equals(entry.getCanonicalPath()) ? null : entry.getCanonicalPath();
+        if (override != null && canonicalOverrides == null) {
+            canonicalOverrides = new String[capacity];
+        }
+        if (canonicalOverrides != null) {
+            canonicalOverrides[row] = override;
+        }
+        if (override != null && aliasHashes == null) {
+            aliasHashes = new int[capacity];
+        }
+        if (aliasHashes != null) {
+            aliasHashes[row] = override == null ? 0 : path.hashCode();
+        }
+        sizes = store(sizes, row, entry.getSize());
+        lastModified = store(lastModified, row, entry.getLastModified());
+        durations = store(durations, row, entry.getDurationMillis());
+        identityKeys.set(row, entry.getIdentityKey());
+        pathHashes[row] = entry.getCanonicalPath().hashCode();
+        if (entry.hasIdentity() && identityHashes == null) {
+            identityHashes = new int[capacity];
+        }
+        if (identityHashes != null) {
+            identityHashes[row] = entry.hasIdentity()
+                    ? identityHash(entry.getSize(), entry.getLastModified(), entry.getIdentityKey()) : 0;
+        }
+        totalSize += Math.max(0, entry.getSize());
+    }
+
+    private long[] store(long[] column, int row, long value) {
+        if (column == null) {
+            if (value == MediaEntry.UNKNOWN) {
+                return null;
+            }
+            column = new long[capacity];
+            Arrays.fill(column, MediaEntry.UNKNOWN);
+        }
+        column[row] = value;
+        return column;
+    }
+
+    private static long valueAt(long[] column, int row) {
+        return column == null ? MediaEntry.UNKNOWN : column[row];
+    }
+
+    private static long[] grow(long[] column, int newCapacity) {
+        if (column == null) {
+            return null;
+        }
+        int oldCapacity = column.length;
+        column = Arrays.copyOf(column, newCapacity);
+        Arrays.fill(column, oldCapacity, newCapacity, MediaEntry.UNKNOWN);
+        return column;
+    }
+
+    private void index(int row) {
+        pathIndex.insert(row, pathHashes[row]);
+        if (hasIdentity(row)) {
+            identityIndex.insert(row, identityHashes[row]);
+        }
+        if (hasOverride(row)) {
+            aliasIndex.insert(row, aliasHashes[row]);
+        }
+    }
+
+    private void unindex(int row) {
+        pathIndex.remove(row, pathHashes[row]);
+        if (hasIdentity(row)) {
+            identityIndex.remove(row, identityHashes[row]);
+        }
+        if (hasOverride(row)) {
+            aliasIndex.remove(row, aliasHashes[row]);
+        }
+    }
+
+    private boolean hasIdentity(int row) {
+        return !identityKeys.isNull(row) && getSize(row) != MediaEntry.UNKNOWN
+                && getLastModified(row) != MediaEntry.UNKNOWN;
+    }
+
+    private boolean hasOverride(int row) {
+        return canonicalOverrides != null && canonicalOverrides[row] != null;
+    }
+
+    private boolean pathEquals(int row, String canonicalPath) {
+        String override = canonicalOverrides == null ? null : canonicalOverrides[row];
+        if (override != null) {
+            return override.equals(canonicalPath);
+        }
+        return filePathEquals(row, canonicalPath);
+    }
+
+    private boolean filePathEquals(int row, String path) {
+        int directory = directoryOf[row];
+        if (directory == NO_DIRECTORY) {
+            return names.matches(row, path, 0);
+        }
+        String directoryPath = directories.get(directory);
+        int nameStart = directoryPath.length() + 1;
+        return path.length() > nameStart && path.startsWith(directoryPath)
+                && path.charAt(directoryPath.length()) == File.separatorChar && names.matches(row, path, nameStart);
+    }
+
+    private int internDirectory(String directory) {
+        Integer id = directoryIds.get(directory);
+        if (id == null) {
+            id = directories.size();
+            directories.add(directory);
+            directoryIds.put(directory, id);
+        }
+        return id;
+    }
+
+    private static int identityHash(long size, long lastModified, String key) {
+        return (int) (size ^ (size >>> 32)) * 31 + (int) (lastModified ^ (lastModified >>> 32)) * 17 + key.hashCode();
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + size);
+        }
+    }
+
+    private static final class PackedStrings {
+        private static final char NULL_LENGTH = 0xFFFF;
+
+        private byte[] data = new byte[0];
+        private int length;
+        private int garbage;
+        private int capacity;
+        private int[] offsets;
+        private char[] lengths;
+
+        void ensureCapacity(int newCapacity) {
+            if (offsets != null) {
+                offsets = Arrays.copyOf(offsets, newCapacity);
+                lengths = Arrays.copyOf(lengths, newCapacity);
+            }
+            capacity = newCapacity;
+        }
+
+        void addRow(int row) {
+            if (lengths != null) {
+                lengths[row] = NULL_LENGTH;
+            }
+        }
+
+        boolean isNull(int row) {
+            return lengths == null || lengths[row] == NULL_LENGTH;
+        }
+
+        String get(int row) {
+            return isNull(row) ? null : new String(data, offsets[row], lengths[row], StandardCharsets.UTF_8);
+        }
+
+        boolean matches(int row, String value, int start) {
+            if (isNull(row)) {
+                return false;
+            }
+            int rowLength = lengths[row];
+            if (rowLength < value.length() - start) {
+                return false;
+            }
+            if (rowLength != value.length() - start) {
+                return value.substring(start).equals(get(row));
+            }
+            int offset = offsets[row];
+            for (int i = 0; i < rowLength; i++) {
+                byte b = data[offset + i];
+                if (b < 0) {
+                    return value.substring(start).equals(get(row));
+                }
+                if (b != value.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int byteLength(int row) {
+            return isNull(row) ? 0 : lengths[row];
+        }
+
+        int indexOfLowerAscii(int row, String lowerQuery) {
+            int rowLength = byteLength(row);
+            int offset = rowLength == 0 ? 0 : offsets[row];
+            int end = offset + rowLength;
+            int last = end - lowerQuery.length();
+            char first = lowerQuery.charAt(0);
+            int firstUpper = first >= 'a' && first <= 'z' ? first - ('a' - 'A') : first;
+            int i = offset;
+            for (; i < end; i++) {
+                int b = data[i];
+                if (b == first || b == firstUpper) {
+                    if (i > last) {
+                        break;
+                    }
+                    int j = 1;
+                    while (j < lowerQuery.length() && lower(data[i + j]) == lowerQuery.charAt(j)) {
+                        j++;
+                    }
+                    if (j == lowerQuery.length()) {
+                        return asciiOnly(i + j, end) ? i - offset : NOT_ASCII;
+                    }
+                } else if (b < 0) {
+                    return NOT_ASCII;
+                }
+            }
+            return asciiOnly(i, end) ? -1 : NOT_ASCII;
+        }
+
+        private boolean asciiOnly(int from, int end) {
+            for (int i = from; i < end; i++) {
+                if (data[i] < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        char lowerAsciiAt(int row, int index) {
+            return lower(data[offsets[row] + index]);
+        }
+
+        private static char lower(byte b) {
+            return (char) (b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b);
+        }
+
+        int compareLowerAscii(int a, int b) {
+            int aOffset = offsets[a];
+            int bOffset = offsets[b];
+            int aLength = lengths[a];
+            int bLength = lengths[b];
+            int shared = Math.min(aLength, bLength);
+            for (int i = 0; i < shared; i++) {
+                int x = data[aOffset + i];
+                int y = data[bOffset + i];
+                if (x < 0 || y < 0) {
+                    return NOT_ASCII;
+                }
+                if (x != y) {
+                    x = x >= 'A' && x <= 'Z' ? x + ('a' - 'A') : x;
+                    y = y >= 'A' && y <= 'Z' ? y + ('a' - 'A') : y;
+                    if (x != y) {
+                        return x - y;
+                    }
+                }
+            }
+            for (int i = shared; i < aLength; i++) {
+                if (data[aOffset + i] < 0) {
+                    return NOT_ASCII;
+                }
+            }
+            for (int i = shared; i < bLength; i++) {
+                if (data[bOffset + i] < 0) {
+                    return NOT_ASCII;
+                }
+            }
+            return aLength - bLength;
+        }
+
+        void set(int row, String value) {
+            if (value == null) {
+                if (!isNull(row)) {
+                    garbage += lengths[row];
+                    lengths[row] = NULL_LENGTH;
+                }
+                return;
+            }
+            if (lengths == null) {
+                offsets = new int[capacity];
+                lengths = new char[capacity];
+                Arrays.fill(lengths, NULL_LENGTH);
+            }
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            if (encoded.length >= NULL_LENGTH) {
+                throw new IllegalArgumentException("Name is too long: " + value.substring(0, 64) + "...");
+            }
+            int previous = isNull(row) ? -1 : lengths[row];
+            if (previous >= encoded.length) {
+                System.arraycopy(encoded, 0, data, offsets[row], encoded.length);
+                garbage += previous - encoded.length;
+                lengths[row] = (char) encoded.length;
+                return;
+            }
+            garbage += Math.max(0, previous);
+            if (length + encoded.length > data.length) {
+                data = Arrays.copyOf(data,
+                        Math.max(length + encoded.length, Math.max(1024, data.length + (data.length >> 1))));
+            }
+            System.arraycopy(encoded, 0, data, length, encoded.length);
+            offsets[row] = length;
+            lengths[row] = (char) encoded.length;
+            length += encoded.length;
+        }
+
+        void removeRows(int[] sortedRows, int rows) {
+            if (lengths == null) {
+                return;
+            }
+            int write = sortedRows[0];
+            int next = 0;
+            for (int read = sortedRows[0]; read < rows; read++) {
+                if (next < sortedRows.length && sortedRows[next] == read) {
+                    garbage += isNull(read) ? 0 : lengths[read];
+                    next++;
+                    continue;
+                }
+                offsets[write] = offsets[read];
+                lengths[write] = lengths[read];
+                write++;
+            }
+            if (garbage > length / 2) {
+                compact(write);
+            }
+        }
+
+        private void compact(int rows) {
+            byte[] compacted = new byte[Math.max(1024, (length - garbage) * 5 / 4)];
+            int position = 0;
+            for (int row = 0; row < rows; row++) {
+                int rowLength = isNull(row) ? 0 : lengths[row];
+                if (rowLength > 0) {
+                    System.arraycopy(data, offsets[row], compacted, position, rowLength);
+                }
+                offsets[row] = position;
+                position += rowLength;
+            }
+            data = compacted;
+            length = position;
+            garbage = 0;
+        }
+    }
+
+    /**
+     * Open-addressing index from a row hash to row numbers. The slot array is not a power of two, so it can be
+     * sized close to the row count; slots hold row + 1 so that zero marks an empty slot.
+     */
+    private abstract static class RowIndex {
+        private final boolean lazy;
+        private int[] slots = new int[0];
+        private int count;
+
+        RowIndex(boolean lazy) {
+            this.lazy = lazy;
+        }
+
+        abstract int hashOf(int row);
+
+        void reserve(int rows) {
+            if ((slots.length > 0 || !lazy) && rows * 4 > slots.length * 3) {
+                resize(Math.max(rows * 5 / 3 + 1, slots.length + (slots.length >> 1)));
+            }
+        }
+
+        void clear() {
+            Arrays.fill(slots, 0);
+            count = 0;
+        }
+
+        void insert(int row, int hash) {
+            if ((count + 1) * 4 > slots.length * 3) {
+                resize(Math.max(16, (count + 1) * 2));
+            }
+            int slot = home(hash);
+            while (slots[slot] != 0) {
+                slot = following(slot);
+            }
+            slots[slot] = row + 1;
+            count++;
+        }
+
+        void remove(int row, int hash) {
+            if (slots.length == 0) {
+                return;
+            }
+            int slot = home(hash);
+            while (slots[slot] != 0 && slots[slot] != row + 1) {
+                slot = following(slot);
+            }
+            if (slots[slot] == 0) {
+                return;
+            }
+            count--;
+            int hole = slot;
+            slot = following(slot);
+            while (slots[slot] != 0) {
+                int home = home(hashOf(slots[slot] - 1));
+                if (distance(home, slot) >= distance(hole, slot)) {
+                    slots[hole] = slots[slot];
+                    hole = slot;
+                }
+                slot = following(slot);
+            }
+            slots[hole] = 0;
+        }
+
+        int first(int hash) {
+            return slots.length == 0 ? -1 : seek(home(hash), hash);
+        }
+
+        int next(int slot, int hash) {
+            return seek(following(slot), hash);
+        }
+
+        int rowAt(int slot) {
+            return slots[slot] - 1;
+        }
+
+        private void resize(int length) {
+            int[] oldSlots = slots;
+            slots = new int[length];
+            count = 0;
+            for (int oldSlot : oldSlots) {
+                if (oldSlot != 0) {
+                    int slot = home(hashOf(oldSlot - 1));
+                    while (slots[slot] != 0) {
+                        slot = following(slot);
+                    }
+                    slots[slot] = oldSlot;
+                    count++;
+                }
+            }
+        }
+
+        private int home(int hash) {
+            return (int) (((mix(hash) & 0xFFFFFFFFL) * slots.length) >>> 32);
+        }
+
+        private int following(int slot) {
+            return slot + 1 == slots.length ? 0 : slot + 1;
+        }
+
+        private int distance(int from, int to) {
+            return to >= from ? to - from : to + slots.length - from;
+        }
+
+        private int seek(int slot, int hash) {
+            while (slots[slot] != 0) {
+                if (hashOf(slots[slot] - 1) == hash) {
+                    return slot;
+                }
+                slot = following(slot);
+            }
+            return -1;
+        }
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,24 @@
+package MainWindowUI;
+
+import java.util.Locale;
+
+public final class MediaFileTypes {
+    public static final String[] EXTENSIONS = { "mp4", "mkv", "avi" };
+
+    private MediaFileTypes() {
+    }
+
+    public static boolean isSupported(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return false;
+        }
+        String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        for (String supported : EXTENSIONS) {
+            if (supported.equals(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
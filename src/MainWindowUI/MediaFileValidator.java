@@ -0,0 +1,52 @@
+package MainWindowUI;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+public class MediaFileValidator {
+    private final ExecutorService executor;
+    private final int batchSize;
+
+    public MediaFileValidator(int batchSize) {
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "media-file-validator");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public void validate(List<MediaEntry> entries, Consumer<List<File>> missingBatch, Runnable finished) {
+        List<MediaEntry> snapshot = new ArrayList<>(entries);
+        executor.execute(() -> {
+            List<File> missing = new ArrayList<>();
+            for (int i = 0; i < snapshot.size(); i++) {
+                File file = snapshot.get(i).getFile();
+                if (!file.exists()) {
+                    missing.add(file);
+                }
+                if (missing.size() >= batchSize || (i + 1) % (batchSize * 8) == 0) {
+                    flush(missing, missingBatch);
+                    missing = new ArrayList<>();
+                }
+            }
+            flush(missing, missingBatch);
+            finished.run();
+        });
+    }
+
+    private static void flush(List<File> missing, Consumer<List<File>> missingBatch) {
+        if (!missing.isEmpty()) {
+            missingBatch.accept(missing);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,152 @@
+package MainWindowUI;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+class MediaItemRenderer extends JPanel implements ListCellRenderer<File> {
+    private static final long serialVersionUID = 1L;
+
+    static final int CELL_WIDTH = 260;
+    static final int CELL_HEIGHT = 110;
+
+    enum MediaAction {
+        PLAY, RENAME, DELETE
+    }
+
+    private static final Color BUTTON_COLOR = new Color(173, 216, 230);
+    private static final Color BUTTON_HOVER_COLOR = new Color(135, 206, 250);
+    private static final Border DEFAULT_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(5, 5, 5, 5, Color.WHITE),
+            BorderFactory.createLineBorder(Color.GRAY, 1));
+    private static final Border HIGHLIGHT_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createMatteBorder(5, 5, 5, 5, Color.WHITE),
+            BorderFactory.createLineBorder(Color.RED, 3));
+
+    private final JLabel mediaLabel;
+    private final JLabel thumbnailLabel;
+    private final ImageIcon thumbnailIcon = new ImageIcon();
+    private final JPanel buttonPanel;
+    private final JButton playButton;
+    private final JButton renameButton;
+    private final JButton deleteButton;
+    private final Predicate<File> highlighted;
+    private final Predicate<File> missing;
+    private final Function<File, BufferedImage> thumbnails;
+    private int hoveredIndex = -1;
+    private MediaAction hoveredAction;
+
+    MediaItemRenderer(Predicate<File> highlighted, Predicate<File> missing,
+            Function<File, BufferedImage> thumbnails) {
+        this.highlighted = highlighted;
+        this.missing = missing;
+        this.thumbnails = thumbnails;
+        this.setLayout(new BorderLayout());
+        this.setOpaque(true);
+
+        this.mediaLabel = new JLabel();
+        this.mediaLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        this.mediaLabel.setVerticalAlignment(SwingConstants.CENTER);
+        this.mediaLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        this.mediaLabel.setPreferredSize(new Dimension(150, 50));
+
+        this.thumbnailLabel = new JLabel();
+        this.thumbnailLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        this.thumbnailLabel.setPreferredSize(
+                new Dimension(ThumbnailService.THUMBNAIL_WIDTH + 4, ThumbnailService.THUMBNAIL_HEIGHT));
+        this.thumbnailLabel.setBackground(Color.DARK_GRAY);
+        this.thumbnailLabel.setOpaque(true);
+
+        this.playButton = createCellButton("Play");
+        this.renameButton = createCellButton("Rename");
+        this.deleteButton = createCellButton("Delete");
+
+        this.buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 5, 5));
+        this.buttonPanel.setOpaque(false);
+        this.buttonPanel.add(this.playButton);
+        this.buttonPanel.add(this.renameButton);
+        this.buttonPanel.add(this.deleteButton);
+
+        this.add(this.thumbnailLabel, BorderLayout.WEST);
+        this.add(this.mediaLabel, BorderLayout.CENTER);
+        this.add(this.buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private JButton createCellButton(String text) {
+        JButton button = new JButton(text);
+        button.setPreferredSize(new Dimension(72, 30));
+        button.setFocusPainted(false);
+        button.setBorderPainted(false);
+        button.setBackground(BUTTON_COLOR);
+        button.setForeground(Color.BLACK);
+        button.setFont(new Font("Arial", Font.BOLD, 12));
+        button.setMargin(new Insets(5, 5, 5, 5));
+        return button;
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends File> list, File mediaFile, int index,
+            boolean isSelected, boolean cellHasFocus) {
+        if (this.missing.test(mediaFile)) {
+            this.mediaLabel.setText(mediaFile.getName() + " (missing)");
+            this.mediaLabel.setForeground(Color.RED.darker());
+        } else {
+            this.mediaLabel.setText(mediaFile.getName());
+            this.mediaLabel.setForeground(Color.BLACK);
+        }
+        this.setBackground(isSelected ? Color.GRAY : Color.LIGHT_GRAY);
+        BufferedImage thumbnail = this.thumbnails.apply(mediaFile);
+        if (thumbnail != null) {
+            this.thumbnailIcon.setImage(thumbnail);
+            this.thumbnailLabel.setIcon(this.thumbnailIcon);
+        } else {
+            this.thumbnailLabel.setIcon(null);
+        }
+        this.setBorder(this.highlighted.test(mediaFile) ? HIGHLIGHT_BORDER : DEFAULT_BORDER);
+
+        MediaAction hover = index == this.hoveredIndex ? this.hoveredAction : null;
+        this.playButton.setBackground(hover == MediaAction.PLAY ? BUTTON_HOVER_COLOR : BUTTON_COLOR);
+        this.renameButton.setBackground(hover == MediaAction.RENAME ? BUTTON_HOVER_COLOR : BUTTON_COLOR);
+        this.deleteButton.setBackground(hover == MediaAction.DELETE ? BUTTON_HOVER_COLOR : BUTTON_COLOR);
+        return this;
+    }
+
+    MediaAction actionAt(Point pointInCell) {
+        this.setBorder(DEFAULT_BORDER);
+        this.setSize(CELL_WIDTH, CELL_HEIGHT);
+        this.doLayout();
+        this.buttonPanel.doLayout();
+        Point p = SwingUtilities.convertPoint(this, pointInCell, this.buttonPanel);
+        if (contains(this.playButton, p)) {
+            return MediaAction.PLAY;
+        }
+        if (contains(this.renameButton, p)) {
+            return MediaAction.RENAME;
+        }
+        if (contains(this.deleteButton, p)) {
+            return MediaAction.DELETE;
+        }
+        return null;
+    }
+
+    private static boolean contains(JButton button, Point p) {
+        return button.getBounds().contains(p);
+    }
+
+    boolean setHover(int index, MediaAction action) {
+        if (index == this.hoveredIndex && action == this.hoveredAction) {
+            return false;
+        }
+        this.hoveredIndex = index;
+        this.hoveredAction = action;
+        return true;
+    }
+
+    int getHoveredIndex() {
+        return this.hoveredIndex;
+    }
+}
@@ -0,0 +1,313 @@
+package MainWindowUI;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class MediaLibrary {
+    public interface Listener {
+        void mediaAdded(int firstIndex, List<MediaEntry> added);
+
+        void mediaRemoved(int[] removedIndices, List<MediaEntry> removed);
+
+        void mediaReplaced(int index, MediaEntry oldEntry, MediaEntry newEntry);
+
+        default void mediaReplaced(int[] indices, List<MediaEntry> oldEntries, List<MediaEntry> newEntries) {
+            for (int i = 0; i < indices.length; i++) {
+                mediaReplaced(indices[i], oldEntries.get(i), newEntries.get(i));
+            }
+        }
+    }
+
+    private final boolean detectByFileIdentity;
+    private int modificationCount;
+    private final MediaEntryTable entries = new MediaEntryTable();
+    private final List<MediaEntry> entryList = new AbstractList<MediaEntry>() {
+        @Override
+        public MediaEntry get(int index) {
+            return entries.get(index);
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    };
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public MediaLibrary() {
+        this(true);
+    }
+
+    public MediaLibrary(boolean detectByFileIdentity) {
+        this.detectByFileIdentity = detectByFileIdentity;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public static MediaEntry describe(File file) {
+        String canonicalPath;
+        try {
+            canonicalPath = file.getCanonicalPath();
+        } catch (IOException e) {
+            canonicalPath = file.getAbsoluteFile().toPath().normalize().toString();
+        }
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            String key = attrs.fileKey() != null ? attrs.fileKey().toString() : file.getName();
+            return new MediaEntry(file, canonicalPath, attrs.size(), attrs.lastModifiedTime().toMillis(), key,
+                    MediaEntry.UNKNOWN);
+        } catch (IOException | RuntimeException e) {
+            return new MediaEntry(file, canonicalPath, MediaEntry.UNKNOWN, MediaEntry.UNKNOWN, null,
+                    MediaEntry.UNKNOWN);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** Counts changes to the rows; work done off the EDT compares it to tell whether it read a stable library. */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    public boolean isEmpty() {
+        return entries.size() == 0;
+    }
+
+    public long getTotalSize() {
+        return entries.getTotalSize();
+    }
+
+    public File get(int index) {
+        return entries.getFile(index);
+    }
+
+    public String getCanonicalPath(int index) {
+        return entries.getCanonicalPath(index);
+    }
+
+    public MediaEntry getEntry(int index) {
+        return entries.get(index);
+    }
+
+    public List<MediaEntry> getEntries() {
+        return entryList;
+    }
+
+    MediaEntryTable table() {
+        return entries;
+    }
+
+    public int indexOf(File file) {
+        String path = file.getAbsolutePath();
+        int index = entries.findFilePath(path);
+        return index >= 0 ? index : entries.findPath(path);
+    }
+
+    public boolean contains(File file) {
+        return indexOf(file) >= 0;
+    }
+
+    public int indexOf(MediaEntry entry) {
+        int index = entries.findPath(entry.getCanonicalPath());
+        if (index < 0 && detectByFileIdentity) {
+            index = entries.findIdentity(entry);
+        }
+        return index;
+    }
+
+    public boolean add(File file) {
+        return !addAll(Collections.singletonList(describe(file))).isEmpty();
+    }
+
+    public List<MediaEntry> addFiles(Collection<File> newFiles) {
+        List<MediaEntry> described = new ArrayList<>(newFiles.size());
+        for (File file : newFiles) {
+            described.add(describe(file));
+        }
+        return addAll(described);
+    }
+
+    public List<MediaEntry> addAll(Collection<MediaEntry> newEntries) {
+        int firstIndex = entries.size();
+        entries.ensureCapacity(firstIndex + newEntries.size());
+        List<MediaEntry> added = new ArrayList<>();
+        for (MediaEntry entry : newEntries) {
+            if (indexOf(entry) >= 0) {
+                continue;
+            }
+            entries.add(entry);
+            added.add(entry);
+            modificationCount++;
+        }
+        if (!added.isEmpty()) {
+            List<MediaEntry> view = Collections.unmodifiableList(added);
+            for (Listener listener : listeners) {
+                listener.mediaAdded(firstIndex, view);
+            }
+        }
+        return added;
+    }
+
+    public void applyChanges(List<MediaEntry> created, Collection<File> deleted) {
+        Set<String> deletedPaths = new HashSet<>();
+        for (File file : deleted) {
+            deletedPaths.add(file.getAbsolutePath());
+        }
+        List<MediaEntry> added = new ArrayList<>();
+        for (MediaEntry entry : created) {
+            int index = indexOf(entry);
+            if (index < 0) {
+                added.add(entry);
+                continue;
+            }
+            String existingPath = entries.getCanonicalPath(index);
+            if (existingPath.equals(entry.getCanonicalPath())) {
+                if (entries.getSize(index) != entry.getSize()
+                        || entries.getLastModified(index) != entry.getLastModified()) {
+                    replace(index, entry);
+                }
+            } else if (deletedPaths.remove(existingPath) || !entries.getFile(index).exists()) {
+                replace(index, entry);
+            }
+        }
+        addAll(added);
+
+        int[] indices = new int[deletedPaths.size()];
+        int count = 0;
+        for (String path : deletedPaths) {
+            int index = indexOf(new File(path));
+            if (index >= 0) {
+                indices[count++] = index;
+            }
+        }
+        removeIndices(Arrays.copyOf(indices, count));
+    }
+
+    public boolean remove(int index) {
+        return removeIndices(new int[] { index }).size() == 1;
+    }
+
+    public boolean remove(File file) {
+        int index = indexOf(file);
+        return index >= 0 && remove(index);
+    }
+
+    public List<MediaEntry> removeAll(Collection<File> toRemove) {
+        int[] indices = new int[toRemove.size()];
+        int count = 0;
+        for (File file : toRemove) {
+            int index = indexOf(file);
+            if (index >= 0) {
+                indices[count++] = index;
+            }
+        }
+        return removeIndices(Arrays.copyOf(indices, count));
+    }
+
+    public List<MediaEntry> clear() {
+        int[] indices = new int[entries.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        return removeIndices(indices);
+    }
+
+    public List<MediaEntry> removeIndices(int[] indices) {
+        int[] sorted = indices.clone();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] >= 0 && sorted[i] < entries.size() && (unique == 0 || sorted[unique - 1] != sorted[i])) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        if (unique == 0) {
+            return Collections.emptyList();
+        }
+        int[] removedIndices = Arrays.copyOf(sorted, unique);
+
+        List<MediaEntry> removed = new ArrayList<>(unique);
+        for (int index : removedIndices) {
+            removed.add(entries.get(index));
+        }
+        entries.removeRows(removedIndices);
+        modificationCount++;
+
+        List<MediaEntry> view = Collections.unmodifiableList(removed);
+        for (Listener listener : listeners) {
+            listener.mediaRemoved(removedIndices, view);
+        }
+        return removed;
+    }
+
+    /**
+     * Shifts a set of row ids in place to match a {@link Listener#mediaRemoved} call, dropping the removed rows.
+     * Callers that filter on the set keep seeing the same object.
+     */
+    public static void removeRows(BitSet rows, int[] removedIndices) {
+        int shift = 0;
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            while (shift < removedIndices.length && removedIndices[shift] < row) {
+                shift++;
+            }
+            rows.clear(row);
+            if (shift == removedIndices.length || removedIndices[shift] != row) {
+                rows.set(row - shift);
+            }
+        }
+    }
+
+    public void replace(int index, File newFile) {
+        replace(index, describe(newFile));
+    }
+
+    public void replace(int index, MediaEntry newEntry) {
+        MediaEntry oldEntry = entries.get(index);
+        entries.set(index, newEntry);
+        modificationCount++;
+        for (Listener listener : listeners) {
+            listener.mediaReplaced(index, oldEntry, newEntry);
+        }
+    }
+
+    public void replaceAll(int[] indices, List<MediaEntry> newEntries) {
+        if (indices.length != newEntries.size()) {
+            throw new IllegalArgumentException("Expected " + indices.length + " entries, got " + newEntries.size());
+        }
+        if (indices.length == 0) {
+            return;
+        }
+        List<MediaEntry> oldEntries = new ArrayList<>(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            oldEntries.add(entries.get(indices[i]));
+            entries.set(indices[i], newEntries.get(i));
+        }
+        modificationCount++;
+        int[] replacedIndices = indices.clone();
+        List<MediaEntry> oldView = Collections.unmodifiableList(oldEntries);
+        List<MediaEntry> newView = Collections.unmodifiableList(new ArrayList<>(newEntries));
+        for (Listener listener : listeners) {
+            listener.mediaReplaced(replacedIndices, oldView, newView);
+        }
+    }
+}
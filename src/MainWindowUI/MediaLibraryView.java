@@ -0,0 +1,474 @@
+package MainWindowUI;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntPredicate;
+
+public class MediaLibraryView implements MediaLibrary.Listener {
+    public enum SortKey {
+        LIBRARY("Library Order"),
+        NAME("Name"),
+        FOLDER("Folder"),
+        SIZE("Size"),
+        DURATION("Longest First"),
+        DATE_ADDED("Date Added"),
+        NEWEST("Newest First"),
+        EXTENSION("Type");
+
+        private final String label;
+
+        SortKey(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public interface Listener {
+        void viewChanged(int start, int removedCount, int addedCount);
+    }
+
+    private final MediaLibrary mediaLibrary;
+    private final MediaEntryTable table;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final List<String> extensions = new ArrayList<>();
+    private final Map<String, Integer> extensionIds = new HashMap<>();
+    private int[] extensionCounts = new int[0];
+    private int[] extensionRanks = new int[0];
+    private final List<String> folders = new ArrayList<>();
+    private final Map<String, Integer> folderIds = new HashMap<>();
+    private int[] folderRanks = new int[0];
+    private boolean ranksStale;
+    private final int[][] orders = new int[SortKey.values().length][];
+
+    private int size;
+    private long[] namePrefixes = new long[1024];
+    private int[] folderOf = new int[1024];
+    private int[] extensionOf = new int[1024];
+
+    private SortKey sortKey = SortKey.LIBRARY;
+    private int extensionFilter = -1;
+    private IntPredicate filter;
+    private int[] visible = new int[0];
+    private int[] viewIndexByLibraryIndex = new int[0];
+
+    public MediaLibraryView(MediaLibrary mediaLibrary) {
+        this.mediaLibrary = mediaLibrary;
+        this.table = mediaLibrary.table();
+        for (int i = 0; i < mediaLibrary.size(); i++) {
+            append(mediaLibrary.getEntry(i));
+        }
+        rebuildVisible();
+        mediaLibrary.addListener(this);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public int size() {
+        return visible.length;
+    }
+
+    public int libraryIndexAt(int viewIndex) {
+        return visible[viewIndex];
+    }
+
+    public File get(int viewIndex) {
+        return mediaLibrary.get(visible[viewIndex]);
+    }
+
+    public int viewIndexOf(int libraryIndex) {
+        return libraryIndex >= 0 && libraryIndex < viewIndexByLibraryIndex.length
+                ? viewIndexByLibraryIndex[libraryIndex] : -1;
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public void setSortKey(SortKey sortKey) {
+        if (this.sortKey != sortKey) {
+            this.sortKey = sortKey;
+            refresh();
+        }
+    }
+
+    public List<String> getExtensions() {
+        return new ArrayList<>(extensions);
+    }
+
+    public int getExtensionCount(String extension) {
+        Integer id = extensionIds.get(extension);
+        return id == null ? 0 : extensionCounts[id];
+    }
+
+    public void setExtensionFilter(String extension) {
+        int id = extension == null ? -1 : extensionIds.getOrDefault(extension.toLowerCase(Locale.ROOT), -2);
+        if (extensionFilter != id) {
+            extensionFilter = id;
+            refresh();
+        }
+    }
+
+    public void setFilter(IntPredicate filter) {
+        this.filter = filter;
+        refresh();
+    }
+
+    public void refresh() {
+        refresh(visible);
+    }
+
+    private void refresh(int[] previous) {
+        rebuildVisible();
+        fireViewChanged(previous);
+    }
+
+    @Override
+    public void mediaAdded(int firstIndex, List<MediaEntry> added) {
+        for (MediaEntry entry : added) {
+            append(entry);
+        }
+        int[] addedIndices = new int[added.size()];
+        for (int i = 0; i < addedIndices.length; i++) {
+            addedIndices[i] = firstIndex + i;
+        }
+        for (SortKey key : SortKey.values()) {
+            int[] order = orders[key.ordinal()];
+            if (order != null) {
+                int[] sortedAdded = addedIndices.clone();
+                sort(sortedAdded, key);
+                orders[key.ordinal()] = merge(order, sortedAdded, key);
+            }
+        }
+        refresh();
+    }
+
+    @Override
+    public void mediaRemoved(int[] removedIndices, List<MediaEntry> removed) {
+        int oldSize = size;
+        int[] remap = new int[oldSize];
+        int write = 0;
+        int next = 0;
+        for (int read = 0; read < oldSize; read++) {
+            if (next < removedIndices.length && removedIndices[next] == read) {
+                extensionCounts[extensionOf[read]]--;
+                remap[read] = -1;
+                next++;
+                continue;
+            }
+            remap[read] = write;
+            if (write != read) {
+                namePrefixes[write] = namePrefixes[read];
+                folderOf[write] = folderOf[read];
+                extensionOf[write] = extensionOf[read];
+            }
+            write++;
+        }
+        size = write;
+        int[] previous = new int[visible.length];
+        for (int i = 0; i < previous.length; i++) {
+            previous[i] = remap[visible[i]];
+        }
+
+        for (int k = 0; k < orders.length; k++) {
+            int[] order = orders[k];
+            if (order == null) {
+                continue;
+            }
+            int[] compacted = new int[size];
+            int kept = 0;
+            for (int libraryIndex : order) {
+                int mapped = remap[libraryIndex];
+                if (mapped >= 0) {
+                    compacted[kept++] = mapped;
+                }
+            }
+            orders[k] = compacted;
+        }
+        refresh(previous);
+    }
+
+    @Override
+    public void mediaReplaced(int index, MediaEntry oldEntry, MediaEntry newEntry) {
+        int[] previous = changedRows(new int[] { index });
+        replaceRows(new int[] { index }, Collections.singletonList(newEntry));
+        refresh(previous);
+    }
+
+    @Override
+    public void mediaReplaced(int[] indices, List<MediaEntry> oldEntries, List<MediaEntry> newEntries) {
+        int[] previous = changedRows(indices);
+        replaceRows(indices, newEntries);
+        refresh(previous);
+    }
+
+    private int[] changedRows(int[] libraryIndices) {
+        int[] previous = visible.clone();
+        for (int libraryIndex : libraryIndices) {
+            int viewIndex = viewIndexOf(libraryIndex);
+            if (viewIndex >= 0) {
+                previous[viewIndex] = -1;
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Takes every changed row out of each sort order before merging them back in, so no comparison ever runs against
+     * a row whose key changed but which still sits at its old position.
+     */
+    private void replaceRows(int[] indices, List<MediaEntry> newEntries) {
+        BitSet changed = new BitSet(size);
+        for (int i = 0; i < indices.length; i++) {
+            int index = indices[i];
+            extensionCounts[extensionOf[index]]--;
+            describe(index, newEntries.get(i));
+            changed.set(index);
+        }
+        int[] rows = changed.stream().toArray();
+        for (SortKey key : SortKey.values()) {
+            int[] order = orders[key.ordinal()];
+            if (order == null) {
+                continue;
+            }
+            int[] kept = new int[order.length - rows.length];
+            int count = 0;
+            for (int libraryIndex : order) {
+                if (!changed.get(libraryIndex)) {
+                    kept[count++] = libraryIndex;
+                }
+            }
+            int[] sortedRows = rows.clone();
+            sort(sortedRows, key);
+            orders[key.ordinal()] = merge(kept, sortedRows, key);
+        }
+    }
+
+    private void append(MediaEntry entry) {
+        if (size == namePrefixes.length) {
+            int capacity = size * 2;
+            namePrefixes = Arrays.copyOf(namePrefixes, capacity);
+            folderOf = Arrays.copyOf(folderOf, capacity);
+            extensionOf = Arrays.copyOf(extensionOf, capacity);
+        }
+        describe(size++, entry);
+    }
+
+    private void describe(int index, MediaEntry entry) {
+        File file = entry.getFile();
+        String name = MediaSearchIndex.normalize(file.getName());
+        String parent = file.getParent();
+        namePrefixes[index] = prefixOf(name);
+        folderOf[index] = internFolder(parent == null ? "" : MediaSearchIndex.normalize(parent));
+        int dot = name.lastIndexOf('.');
+        extensionOf[index] = internExtension(dot < 0 ? "" : name.substring(dot + 1));
+        extensionCounts[extensionOf[index]]++;
+    }
+
+    private int internExtension(String extension) {
+        Integer id = extensionIds.get(extension);
+        if (id == null) {
+            id = extensions.size();
+            extensions.add(extension);
+            extensionIds.put(extension, id);
+            extensionCounts = Arrays.copyOf(extensionCounts, extensions.size());
+            ranksStale = true;
+        }
+        return id;
+    }
+
+    private int internFolder(String folder) {
+        Integer id = folderIds.get(folder);
+        if (id == null) {
+            id = folders.size();
+            folders.add(folder);
+            folderIds.put(folder, id);
+            ranksStale = true;
+        }
+        return id;
+    }
+
+    private void updateRanks() {
+        if (ranksStale) {
+            extensionRanks = ranksOf(extensions);
+            folderRanks = ranksOf(folders);
+            ranksStale = false;
+        }
+    }
+
+    private static int[] ranksOf(List<String> values) {
+        Integer[] ids = new Integer[values.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        Arrays.sort(ids, (a, b) -> values.get(a).compareTo(values.get(b)));
+        int[] ranks = new int[ids.length];
+        for (int rank = 0; rank < ids.length; rank++) {
+            ranks[ids[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    private static long prefixOf(String text) {
+        long prefix = 0;
+        for (int i = 0; i < 4; i++) {
+            prefix = (prefix << 16) | (i < text.length() ? text.charAt(i) : 0);
+        }
+        return prefix;
+    }
+
+    private int compare(SortKey key, int a, int b) {
+        int result;
+        switch (key) {
+            case NAME:
+                result = compareNames(a, b);
+                break;
+            case FOLDER:
+                result = Integer.compare(folderRanks[folderOf[a]], folderRanks[folderOf[b]]);
+                if (result == 0) {
+                    result = compareNames(a, b);
+                }
+                break;
+            case SIZE:
+                result = Long.compare(table.getSize(b), table.getSize(a));
+                break;
+            case DURATION:
+                result = Long.compare(table.getDuration(b), table.getDuration(a));
+                break;
+            case DATE_ADDED:
+                return Integer.compare(b, a);
+            case NEWEST:
+                result = Long.compare(table.getLastModified(b), table.getLastModified(a));
+                break;
+            case EXTENSION:
+                result = Integer.compare(extensionRanks[extensionOf[a]], extensionRanks[extensionOf[b]]);
+                if (result == 0) {
+                    result = compareNames(a, b);
+                }
+                break;
+            default:
+                result = 0;
+                break;
+        }
+        return result != 0 ? result : Integer.compare(a, b);
+    }
+
+    private int compareNames(int a, int b) {
+        int result = Long.compareUnsigned(namePrefixes[a], namePrefixes[b]);
+        return result != 0 ? result : table.compareNames(a, b);
+    }
+
+    private int[] order(SortKey key) {
+        int[] order = orders[key.ordinal()];
+        if (order == null) {
+            order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            sort(order, key);
+            orders[key.ordinal()] = order;
+        }
+        return order;
+    }
+
+    private void sort(int[] indices, SortKey key) {
+        updateRanks();
+        int[] buffer = new int[indices.length];
+        for (int width = 1; width < indices.length; width *= 2) {
+            for (int low = 0; low < indices.length - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, indices.length);
+                if (compare(key, indices[middle - 1], indices[middle]) <= 0) {
+                    continue;
+                }
+                int left = low;
+                int right = middle;
+                for (int out = low; out < high; out++) {
+                    if (right >= high || (left < middle && compare(key, indices[left], indices[right]) <= 0)) {
+                        buffer[out] = indices[left++];
+                    } else {
+                        buffer[out] = indices[right++];
+                    }
+                }
+                System.arraycopy(buffer, low, indices, low, high - low);
+            }
+        }
+    }
+
+    private int[] merge(int[] order, int[] sortedAdded, SortKey key) {
+        updateRanks();
+        int[] merged = new int[order.length + sortedAdded.length];
+        int left = 0;
+        int right = 0;
+        for (int out = 0; out < merged.length; out++) {
+            if (right >= sortedAdded.length
+                    || (left < order.length && compare(key, order[left], sortedAdded[right]) <= 0)) {
+                merged[out] = order[left++];
+            } else {
+                merged[out] = sortedAdded[right++];
+            }
+        }
+        return merged;
+    }
+
+    private void rebuildVisible() {
+        int[] order = sortKey == SortKey.LIBRARY || sortKey == SortKey.DATE_ADDED ? null : order(sortKey);
+        boolean reversed = sortKey == SortKey.DATE_ADDED;
+        int[] nextVisible = new int[size];
+        int[] inverse = new int[size];
+        int count = 0;
+        for (int position = 0; position < size; position++) {
+            int libraryIndex = order != null ? order[position] : reversed ? size - 1 - position : position;
+            inverse[libraryIndex] = -1;
+            if (extensionFilter != -1 && extensionOf[libraryIndex] != extensionFilter) {
+                continue;
+            }
+            if (filter != null && !filter.test(libraryIndex)) {
+                continue;
+            }
+            inverse[libraryIndex] = count;
+            nextVisible[count++] = libraryIndex;
+        }
+        visible = count == size ? nextVisible : Arrays.copyOf(nextVisible, count);
+        viewIndexByLibraryIndex = inverse;
+    }
+
+    /**
+     * Reports the single range that differs between {@code previous} and the rebuilt view, found by trimming the
+     * rows both share at the start and the end. Rows marked -1 in {@code previous} count as changed.
+     */
+    private void fireViewChanged(int[] previous) {
+        int[] current = visible;
+        int shared = Math.min(previous.length, current.length);
+        int start = 0;
+        while (start < shared && previous[start] == current[start]) {
+            start++;
+        }
+        int end = 0;
+        while (end < shared - start
+                && previous[previous.length - 1 - end] == current[current.length - 1 - end]) {
+            end++;
+        }
+        int removedCount = previous.length - start - end;
+        int addedCount = current.length - start - end;
+        if (removedCount == 0 && addedCount == 0) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            listener.viewChanged(start, removedCount, addedCount);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package MainWindowUI;
+
+import javax.swing.AbstractListModel;
+import java.io.File;
+
+class MediaListModel extends AbstractListModel<File> implements MediaLibraryView.Listener {
+    private static final long serialVersionUID = 1L;
+
+    private final MediaLibraryView mediaLibraryView;
+
+    MediaListModel(MediaLibraryView mediaLibraryView) {
+        this.mediaLibraryView = mediaLibraryView;
+        this.mediaLibraryView.addListener(this);
+    }
+
+    @Override
+    public int getSize() {
+        return this.mediaLibraryView.size();
+    }
+
+    @Override
+    public File getElementAt(int index) {
+        return this.mediaLibraryView.get(index);
+    }
+
+    @Override
+    public void viewChanged(int start, int removedCount, int addedCount) {
+        int changed = Math.min(removedCount, addedCount);
+        if (changed > 0) {
+            this.fireContentsChanged(this, start, start + changed - 1);
+        }
+        if (removedCount > changed) {
+            this.fireIntervalRemoved(this, start + changed, start + removedCount - 1);
+        } else if (addedCount > changed) {
+            this.fireIntervalAdded(this, start + changed, start + addedCount - 1);
+        }
+    }
+}
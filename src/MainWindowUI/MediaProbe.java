@@ -0,0 +1,326 @@
+package MainWindowUI;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public final class MediaProbe {
+    public enum Container {
+        UNKNOWN, MP4, MKV, AVI
+    }
+
+    public static final class MediaInfo {
+        private final Container container;
+        private final long durationMillis;
+        private final int width;
+        private final int height;
+
+        public MediaInfo(Container container, long durationMillis, int width, int height) {
+            this.container = container;
+            this.durationMillis = durationMillis;
+            this.width = width;
+            this.height = height;
+        }
+
+        public Container getContainer() {
+            return container;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    private static final int MAX_HEADER_BYTES = 4 << 20;
+    private static final int MKV_FIRST_SCAN_BYTES = 64 << 10;
+    private static final int MKV_SCAN_BYTES = 1 << 20;
+    private static final int AVI_SCAN_BYTES = 64 << 10;
+
+    private MediaProbe() {
+    }
+
+    public static MediaInfo probe(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer magic = read(channel, 0, 12);
+            if (magic.remaining() >= 12 && magic.getInt(0) == 0x52494646 && magic.getInt(8) == 0x41564920) {
+                return probeAvi(channel);
+            }
+            if (magic.remaining() >= 4 && magic.getInt(0) == 0x1A45DFA3) {
+                return probeMkv(channel);
+            }
+            if (magic.remaining() >= 8 && isMp4BoxType(magic.getInt(4))) {
+                return probeMp4(channel);
+            }
+            return new MediaInfo(Container.UNKNOWN, MediaEntry.UNKNOWN, 0, 0);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static boolean isMp4BoxType(int type) {
+        return type == fourCc("ftyp") || type == fourCc("moov") || type == fourCc("mdat") || type == fourCc("free")
+                || type == fourCc("wide") || type == fourCc("skip");
+    }
+
+    private static int fourCc(String code) {
+        return (code.charAt(0) << 24) | (code.charAt(1) << 16) | (code.charAt(2) << 8) | code.charAt(3);
+    }
+
+    private static MediaInfo probeMp4(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        long position = 0;
+        while (position + 8 <= fileSize) {
+            ByteBuffer header = read(channel, position, 16);
+            if (header.remaining() < 8) {
+                break;
+            }
+            long size = header.getInt(0) & 0xFFFFFFFFL;
+            int type = header.getInt(4);
+            int headerLength = 8;
+            if (size == 1) {
+                if (header.remaining() < 16) {
+                    break;
+                }
+                size = header.getLong(8);
+                headerLength = 16;
+            } else if (size == 0) {
+                size = fileSize - position;
+            }
+            if (size < headerLength) {
+                break;
+            }
+            if (type == fourCc("moov")) {
+                int length = (int) Math.min(size - headerLength, MAX_HEADER_BYTES);
+                return parseMoov(read(channel, position + headerLength, length));
+            }
+            position += size;
+        }
+        return new MediaInfo(Container.MP4, MediaEntry.UNKNOWN, 0, 0);
+    }
+
+    private static MediaInfo parseMoov(ByteBuffer moov) {
+        long[] duration = { MediaEntry.UNKNOWN };
+        int[] dimensions = new int[2];
+        walkMp4Boxes(moov, 0, moov.limit(), duration, dimensions);
+        return new MediaInfo(Container.MP4, duration[0], dimensions[0], dimensions[1]);
+    }
+
+    private static void walkMp4Boxes(ByteBuffer buffer, int start, int end, long[] duration, int[] dimensions) {
+        int position = start;
+        while (position + 8 <= end) {
+            long size = buffer.getInt(position) & 0xFFFFFFFFL;
+            int type = buffer.getInt(position + 4);
+            int headerLength = 8;
+            if (size == 1 && position + 16 <= end) {
+                size = buffer.getLong(position + 8);
+                headerLength = 16;
+            } else if (size == 0) {
+                size = end - position;
+            }
+            if (size < headerLength || position + size > end) {
+                return;
+            }
+            int body = position + headerLength;
+            if (type == fourCc("mvhd") && body + 32 <= end) {
+                int version = buffer.get(body) & 0xFF;
+                long timescale;
+                long units;
+                if (version == 1) {
+                    timescale = buffer.getInt(body + 20) & 0xFFFFFFFFL;
+                    units = buffer.getLong(body + 24);
+                } else {
+                    timescale = buffer.getInt(body + 12) & 0xFFFFFFFFL;
+                    units = buffer.getInt(body + 16) & 0xFFFFFFFFL;
+                }
+                if (timescale > 0) {
+                    duration[0] = units * 1000 / timescale;
+                }
+            } else if (type == fourCc("tkhd") && dimensions[0] == 0) {
+                int version = buffer.get(body) & 0xFF;
+                int offset = body + (version == 1 ? 88 : 76);
+                if (offset + 8 <= end) {
+                    int width = buffer.getInt(offset) >>> 16;
+                    int height = buffer.getInt(offset + 4) >>> 16;
+                    if (width > 0 && height > 0) {
+                        dimensions[0] = width;
+                        dimensions[1] = height;
+                    }
+                }
+            } else if (type == fourCc("trak") || type == fourCc("mdia") || type == fourCc("minf")) {
+                walkMp4Boxes(buffer, body, (int) (position + size), duration, dimensions);
+            }
+            position += (int) size;
+        }
+    }
+
+    private static MediaInfo probeMkv(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > MKV_FIRST_SCAN_BYTES) {
+            MediaInfo info = parseMkv(read(channel, 0, MKV_FIRST_SCAN_BYTES), false);
+            if (info != null) {
+                return info;
+            }
+        }
+        return parseMkv(read(channel, 0, (int) Math.min(size, MKV_SCAN_BYTES)), true);
+    }
+
+    private static MediaInfo parseMkv(ByteBuffer buffer, boolean complete) {
+        EbmlReader reader = new EbmlReader(buffer);
+        double durationUnits = -1;
+        long timecodeScale = 1000000;
+        int width = 0;
+        int height = 0;
+        try {
+            reader.readElementHeader();
+            reader.skip();
+            reader.readElementHeader();
+            if (reader.id != 0x18538067) {
+                return new MediaInfo(Container.MKV, MediaEntry.UNKNOWN, 0, 0);
+            }
+            while (buffer.remaining() > 0) {
+                reader.readElementHeader();
+                if (reader.id == 0x1549A966 || reader.id == 0x1654AE6B || reader.id == 0xAE || reader.id == 0xE0) {
+                    continue;
+                }
+                if (reader.id == 0x1F43B675) {
+                    break;
+                }
+                if (reader.id == 0x2AD7B1) {
+                    timecodeScale = reader.readUnsigned();
+                } else if (reader.id == 0x4489) {
+                    durationUnits = reader.readFloat();
+                } else if (reader.id == 0xB0 && width == 0) {
+                    width = (int) reader.readUnsigned();
+                } else if (reader.id == 0xBA && height == 0) {
+                    height = (int) reader.readUnsigned();
+                } else {
+                    reader.skip();
+                }
+                if (durationUnits >= 0 && width > 0 && height > 0) {
+                    break;
+                }
+            }
+        } catch (EOFException e) {
+            if (!complete) {
+                return null;
+            }
+            // The scan window ended inside an element; report whatever was found before it.
+        } catch (IllegalArgumentException e) {
+            // A malformed element; report whatever was found before it.
+        }
+        if (!complete && !buffer.hasRemaining()) {
+            return null;
+        }
+        long duration = durationUnits >= 0 ? (long) (durationUnits * timecodeScale / 1000000) : MediaEntry.UNKNOWN;
+        return new MediaInfo(Container.MKV, duration, width, height);
+    }
+
+    private static final class EbmlReader {
+        private final ByteBuffer buffer;
+        private long id;
+        private long size;
+
+        EbmlReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void readElementHeader() throws EOFException {
+            id = readVint(false);
+            size = readVint(true);
+        }
+
+        private long readVint(boolean stripMarker) throws EOFException {
+            if (!buffer.hasRemaining()) {
+                throw new EOFException();
+            }
+            int first = buffer.get() & 0xFF;
+            int length = Integer.numberOfLeadingZeros(first) - 23;
+            if (length < 1 || length > 8) {
+                throw new IllegalArgumentException("Invalid EBML variable-length integer");
+            }
+            if (buffer.remaining() < length - 1) {
+                throw new EOFException();
+            }
+            long value = stripMarker ? first & (0xFF >> length) : first;
+            boolean allOnes = value == (0xFF >> length);
+            for (int i = 1; i < length; i++) {
+                int next = buffer.get() & 0xFF;
+                allOnes &= next == 0xFF;
+                value = (value << 8) | next;
+            }
+            return stripMarker && allOnes ? -1 : value;
+        }
+
+        long readUnsigned() throws EOFException {
+            if (size < 0 || size > 8 || buffer.remaining() < size) {
+                throw new EOFException();
+            }
+            long value = 0;
+            for (int i = 0; i < size; i++) {
+                value = (value << 8) | (buffer.get() & 0xFF);
+            }
+            return value;
+        }
+
+        double readFloat() throws EOFException {
+            if (buffer.remaining() < size) {
+                throw new EOFException();
+            }
+            if (size == 4) {
+                return buffer.getFloat();
+            }
+            if (size == 8) {
+                return buffer.getDouble();
+            }
+            skip();
+            return -1;
+        }
+
+        void skip() throws EOFException {
+            if (size < 0 || buffer.remaining() < size) {
+                throw new EOFException();
+            }
+            buffer.position(buffer.position() + (int) size);
+        }
+    }
+
+    private static MediaInfo probeAvi(FileChannel channel) throws IOException {
+        ByteBuffer buffer = read(channel, 0, (int) Math.min(channel.size(), AVI_SCAN_BYTES));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int avih = Integer.reverseBytes(fourCc("avih"));
+        for (int position = 12; position + 48 <= buffer.limit(); position++) {
+            if (buffer.getInt(position) == avih) {
+                int body = position + 8;
+                long microsPerFrame = buffer.getInt(body) & 0xFFFFFFFFL;
+                long totalFrames = buffer.getInt(body + 16) & 0xFFFFFFFFL;
+                int width = buffer.getInt(body + 32);
+                int height = buffer.getInt(body + 36);
+                long duration = microsPerFrame > 0 ? totalFrames * microsPerFrame / 1000 : MediaEntry.UNKNOWN;
+                return new MediaInfo(Container.AVI, duration, width, height);
+            }
+        }
+        return new MediaInfo(Container.AVI, MediaEntry.UNKNOWN, 0, 0);
+    }
+}
@@ -0,0 +1,470 @@
+package MainWindowUI;
+
+import java.io.File;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Trigram index over the paths of a {@link MediaLibrary}. It keeps only postings and a document-to-row mapping;
+ * names and folders are read back from the library's entry table when candidates are verified.
+ */
+public class MediaSearchIndex implements MediaLibrary.Listener {
+    private static final int NAME_PREFIX_SCORE = 300;
+    private static final int NAME_WORD_SCORE = 200;
+    private static final int NAME_SCORE = 100;
+    static final int PATH_SCORE = 10;
+    public static final int RESULT_LIMIT = 5000;
+    /** Shorter queries have no trigram to look up and scan every row. */
+    public static final int INDEXED_QUERY_LENGTH = 3;
+
+    public static final class Hit implements Comparable<Hit> {
+        private final File file;
+        private final int row;
+        private final int score;
+        private final int nameLength;
+
+        Hit(File file, int score, int nameLength) {
+            this(file, -1, score, nameLength);
+        }
+
+        Hit(File file, int row, int score, int nameLength) {
+            this.file = file;
+            this.row = row;
+            this.score = score;
+            this.nameLength = nameLength;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getNameLength() {
+            return nameLength;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            if (this.score != other.score) {
+                return Integer.compare(other.score, this.score);
+            }
+            return Integer.compare(this.nameLength, other.nameLength);
+        }
+    }
+
+    private final MediaLibrary mediaLibrary;
+    private final MediaEntryTable table;
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private int[] rowOfDocument = new int[16];
+    private int[] documentOfRow = new int[0];
+    private int documentCount;
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private String[] normalizedDirectories = new String[0];
+
+    public MediaSearchIndex(MediaLibrary mediaLibrary) {
+        this.mediaLibrary = mediaLibrary;
+        this.table = mediaLibrary.table();
+        for (int row = 0; row < this.table.size(); row++) {
+            this.add(row, this.table.getFile(row));
+        }
+        mediaLibrary.addListener(this);
+    }
+
+    public void detach() {
+        this.mediaLibrary.removeListener(this);
+    }
+
+    public int size() {
+        return this.documentCount - this.freeCount;
+    }
+
+    @Override
+    public void mediaAdded(int firstIndex, List<MediaEntry> added) {
+        for (int i = 0; i < added.size(); i++) {
+            this.add(firstIndex + i, added.get(i).getFile());
+        }
+    }
+
+    @Override
+    public void mediaRemoved(int[] removedIndices, List<MediaEntry> removed) {
+        int oldRows = this.documentOfRow.length;
+        for (int id = 0; id < this.documentCount; id++) {
+            int row = this.rowOfDocument[id];
+            if (row < 0) {
+                continue;
+            }
+            int position = Arrays.binarySearch(removedIndices, row);
+            if (position >= 0) {
+                this.remove(id, removed.get(position).getFile());
+            } else {
+                this.rowOfDocument[id] = row - (-position - 1);
+            }
+        }
+        Arrays.fill(this.documentOfRow, -1);
+        this.documentOfRow = Arrays.copyOf(this.documentOfRow, Math.max(0, oldRows - removedIndices.length));
+        for (int id = 0; id < this.documentCount; id++) {
+            int row = this.rowOfDocument[id];
+            if (row >= 0 && row < this.documentOfRow.length) {
+                this.documentOfRow[row] = id;
+            }
+        }
+    }
+
+    @Override
+    public void mediaReplaced(int index, MediaEntry oldEntry, MediaEntry newEntry) {
+        this.replace(index, oldEntry.getFile(), newEntry.getFile());
+    }
+
+    @Override
+    public void mediaReplaced(int[] indices, List<MediaEntry> oldEntries, List<MediaEntry> newEntries) {
+        for (int i = 0; i < indices.length; i++) {
+            this.replace(indices[i], oldEntries.get(i).getFile(), newEntries.get(i).getFile());
+        }
+    }
+
+    private void replace(int row, File oldFile, File newFile) {
+        if (oldFile.equals(newFile)) {
+            return;
+        }
+        int id = row < this.documentOfRow.length ? this.documentOfRow[row] : -1;
+        if (id >= 0) {
+            this.remove(id, oldFile);
+        }
+        this.add(row, newFile);
+    }
+
+    private void add(int row, File mediaFile) {
+        int id;
+        if (this.freeCount > 0) {
+            id = this.freeIds[--this.freeCount];
+        } else {
+            id = this.documentCount++;
+            if (id == this.rowOfDocument.length) {
+                this.rowOfDocument = Arrays.copyOf(this.rowOfDocument, id + (id >> 1));
+            }
+        }
+        this.rowOfDocument[id] = row;
+        if (row >= this.documentOfRow.length) {
+            int oldLength = this.documentOfRow.length;
+            this.documentOfRow = Arrays.copyOf(this.documentOfRow, Math.max(row + 1, oldLength + (oldLength >> 1)));
+            Arrays.fill(this.documentOfRow, oldLength, this.documentOfRow.length, -1);
+        }
+        this.documentOfRow[row] = id;
+        for (long trigram : trigrams(normalize(mediaFile.getPath()))) {
+            this.postings.computeIfAbsent(trigram, k -> new Postings()).add(id);
+        }
+    }
+
+    private void remove(int id, File mediaFile) {
+        for (long trigram : trigrams(normalize(mediaFile.getPath()))) {
+            Postings list = this.postings.get(trigram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                this.postings.remove(trigram);
+            }
+        }
+        int row = this.rowOfDocument[id];
+        if (row >= 0 && row < this.documentOfRow.length && this.documentOfRow[row] == id) {
+            this.documentOfRow[row] = -1;
+        }
+        this.rowOfDocument[id] = -1;
+        if (this.freeCount == this.freeIds.length) {
+            this.freeIds = Arrays.copyOf(this.freeIds, this.freeCount * 2);
+        }
+        this.freeIds[this.freeCount++] = id;
+    }
+
+    public List<File> search(String query, int limit) {
+        List<Hit> hits = this.searchRanked(query, limit);
+        List<File> results = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            results.add(hit.getFile());
+        }
+        return results;
+    }
+
+    public List<Hit> searchRanked(String query, int limit) {
+        long[] matches = this.rank(query, limit);
+        List<Hit> results = new ArrayList<>(matches.length);
+        for (long match : matches) {
+            int row = (int) match;
+            results.add(new Hit(this.table.getFile(row), row, 1000 - (int) (match >>> 48),
+                    (int) ((match >>> 32) & 0xFFFF)));
+        }
+        return results;
+    }
+
+    /** Returns the library rows of the best {@code limit} matches, best first, without building any Files. */
+    public int[] searchRows(String query, int limit) {
+        long[] matches = this.rank(query, limit);
+        int[] rows = new int[matches.length];
+        for (int i = 0; i < matches.length; i++) {
+            rows[i] = (int) matches[i];
+        }
+        return rows;
+    }
+
+    /**
+     * Keeps the best {@code limit} match keys in a bounded max-heap, so a query that matches most of the library
+     * costs one heap comparison per match instead of a sort of every match. Stops early and returns nothing when
+     * the calling thread is interrupted.
+     */
+    private long[] rank(String query, int limit) {
+        String normalizedQuery = normalize(query).trim();
+        if (normalizedQuery.isEmpty() || limit <= 0) {
+            return new long[0];
+        }
+
+        TopMatches top = new TopMatches(limit);
+        boolean spansFolders = normalizedQuery.indexOf(File.separatorChar) >= 0;
+        if (normalizedQuery.length() < INDEXED_QUERY_LENGTH) {
+            for (int row = 0; row < this.table.size(); row++) {
+                if ((row & 0x3FF) == 0 && Thread.currentThread().isInterrupted()) {
+                    return new long[0];
+                }
+                this.match(row, normalizedQuery, spansFolders, top);
+            }
+        } else {
+            Postings candidates = this.candidates(normalizedQuery);
+            if (candidates == null) {
+                return new long[0];
+            }
+            for (int i = 0; i < candidates.size; i++) {
+                if ((i & 0x3FF) == 0 && Thread.currentThread().isInterrupted()) {
+                    return new long[0];
+                }
+                int row = this.rowOfDocument[candidates.ids[i]];
+                this.match(row, normalizedQuery, spansFolders, top);
+            }
+        }
+        return top.sorted();
+    }
+
+    private Postings candidates(String normalizedQuery) {
+        long[] queryTrigrams = trigrams(normalizedQuery);
+        Postings[] lists = new Postings[queryTrigrams.length];
+        for (int i = 0; i < queryTrigrams.length; i++) {
+            lists[i] = this.postings.get(queryTrigrams[i]);
+            if (lists[i] == null) {
+                return null;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        Postings result = lists[0].copy();
+        for (int i = 1; i < lists.length && result.size > 0; i++) {
+            result.retainAll(lists[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Scores one row against the query and offers a key that packs the score, name length and row so that it sorts
+     * best first. Plain ASCII names are searched in the entry table's bytes without building a String.
+     */
+    private void match(int row, String normalizedQuery, boolean spansFolders, TopMatches top) {
+        int length = this.table.getNameLength(row);
+        int position = this.table.indexOfInName(row, normalizedQuery);
+        char previous;
+        if (position == MediaEntryTable.NOT_ASCII) {
+            String normalized = normalize(this.table.getName(row));
+            length = normalized.length();
+            position = normalized.indexOf(normalizedQuery);
+            previous = position > 0 ? normalized.charAt(position - 1) : ' ';
+        } else {
+            previous = position > 0 ? this.table.nameCharAt(row, position - 1) : ' ';
+        }
+        int score;
+        if (position == 0) {
+            score = NAME_PREFIX_SCORE;
+        } else if (position > 0) {
+            score = Character.isLetterOrDigit(previous) ? NAME_SCORE : NAME_WORD_SCORE;
+        } else if (this.pathContains(row, normalizedQuery, spansFolders)) {
+            score = PATH_SCORE;
+        } else {
+            return;
+        }
+        top.offer(((long) (1000 - score) << 48) | ((long) Math.min(length, 0xFFFF) << 32) | row);
+    }
+
+    private boolean pathContains(int row, String normalizedQuery, boolean spansFolders) {
+        if (spansFolders) {
+            return normalize(this.table.getFile(row).getPath()).contains(normalizedQuery);
+        }
+        int directory = this.table.getDirectoryId(row);
+        if (directory < 0) {
+            return false;
+        }
+        if (directory >= this.normalizedDirectories.length) {
+            this.normalizedDirectories = Arrays.copyOf(this.normalizedDirectories,
+                    Math.max(directory + 1, this.table.getDirectoryCount()));
+        }
+        String normalized = this.normalizedDirectories[directory];
+        if (normalized == null) {
+            normalized = normalize(this.table.getDirectory(directory));
+            this.normalizedDirectories[directory] = normalized;
+        }
+        return normalized.contains(normalizedQuery);
+    }
+
+    static int nameScore(String text, int nameStart, int position) {
+        return nameScore(nameStart, position, position == nameStart ? ' ' : text.charAt(position - 1));
+    }
+
+    static int nameScore(int nameStart, int position, char previous) {
+        if (position == nameStart) {
+            return NAME_PREFIX_SCORE;
+        }
+        return Character.isLetterOrDigit(previous) ? NAME_SCORE : NAME_WORD_SCORE;
+    }
+
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            if (lower.charAt(i) > 0x7F) {
+                return Normalizer.normalize(lower, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+            }
+        }
+        return lower;
+    }
+
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int unique = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (unique == 0 || grams[unique - 1] != grams[i]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, unique);
+    }
+
+    /** The smallest keys offered so far, at most {@code limit} of them, in a max-heap rooted at index 0. */
+    private static final class TopMatches {
+        private final int limit;
+        private long[] heap = new long[16];
+        private int size;
+
+        TopMatches(int limit) {
+            this.limit = limit;
+        }
+
+        void offer(long key) {
+            if (this.size < this.limit) {
+                if (this.size == this.heap.length) {
+                    this.heap = Arrays.copyOf(this.heap, Math.min(this.limit, this.size * 2));
+                }
+                int child = this.size++;
+                while (child > 0) {
+                    int parent = (child - 1) >>> 1;
+                    if (this.heap[parent] >= key) {
+                        break;
+                    }
+                    this.heap[child] = this.heap[parent];
+                    child = parent;
+                }
+                this.heap[child] = key;
+            } else if (key < this.heap[0]) {
+                int parent = 0;
+                while (true) {
+                    int child = 2 * parent + 1;
+                    if (child >= this.size) {
+                        break;
+                    }
+                    if (child + 1 < this.size && this.heap[child + 1] > this.heap[child]) {
+                        child++;
+                    }
+                    if (this.heap[child] <= key) {
+                        break;
+                    }
+                    this.heap[parent] = this.heap[child];
+                    parent = child;
+                }
+                this.heap[parent] = key;
+            }
+        }
+
+        long[] sorted() {
+            long[] keys = Arrays.copyOf(this.heap, this.size);
+            Arrays.sort(keys);
+            return keys;
+        }
+    }
+
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (this.size > 0 && this.ids[this.size - 1] < id) {
+                if (this.size == this.ids.length) {
+                    this.ids = Arrays.copyOf(this.ids, this.size * 2);
+                }
+                this.ids[this.size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(this.ids, 0, this.size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            }
+            System.arraycopy(this.ids, position, this.ids, position + 1, this.size - position);
+            this.ids[position] = id;
+            this.size++;
+        }
+
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(this.ids, 0, this.size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(this.ids, position + 1, this.ids, position, this.size - position - 1);
+            this.size--;
+            return true;
+        }
+
+        Postings copy() {
+            Postings copy = new Postings();
+            copy.ids = Arrays.copyOf(this.ids, this.size);
+            copy.size = this.size;
+            return copy;
+        }
+
+        void retainAll(Postings other) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < this.size && j < other.size; i++) {
+                int id = this.ids[i];
+                while (j < other.size && other.ids[j] < id) {
+                    j++;
+                }
+                if (j < other.size && other.ids[j] == id) {
+                    this.ids[kept++] = id;
+                }
+            }
+            this.size = kept;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package MainWindowUI;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class MetadataProber {
+    private static final long SAVE_INTERVAL_MILLIS = 30000;
+
+    private final MetadataStore store;
+    private final ThreadPoolExecutor executor;
+    private final Runnable resultsListener;
+    private final Consumer<IOException> errorHandler;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong lastSave = new AtomicLong(System.currentTimeMillis());
+    private final ConcurrentLinkedQueue<MediaEntry> probed = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean resultsNotified = new AtomicBoolean();
+
+    /**
+     * {@code resultsListener} runs on a probing thread when the first entry is probed after the last
+     * {@link #takeProbed}, so it is called once per batch and never while nothing is being probed.
+     */
+    public MetadataProber(MetadataStore store, int threads, Runnable resultsListener,
+            Consumer<IOException> errorHandler) {
+        this.store = store;
+        this.resultsListener = resultsListener;
+        this.errorHandler = errorHandler;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "metadata-prober-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public void enqueue(List<MediaEntry> entries) {
+        long now = System.currentTimeMillis();
+        List<MediaEntry> toProbe = new ArrayList<>();
+        for (MediaEntry entry : entries) {
+            store.register(entry.getCanonicalPath(), now);
+            if (!store.isCurrent(entry.getCanonicalPath(), entry.getSize(), entry.getLastModified())) {
+                toProbe.add(entry);
+            }
+        }
+        for (MediaEntry entry : toProbe) {
+            outstanding.incrementAndGet();
+            executor.execute(() -> probe(entry));
+        }
+    }
+
+    private void probe(MediaEntry entry) {
+        try {
+            MediaProbe.MediaInfo info = MediaProbe.probe(entry.getFile());
+            store.update(entry.getCanonicalPath(), entry.getSize(), entry.getLastModified(), info);
+            probed.add(entry.withDuration(info.getDurationMillis()));
+            if (resultsNotified.compareAndSet(false, true)) {
+                resultsListener.run();
+            }
+        } catch (IOException e) {
+            store.update(entry.getCanonicalPath(), entry.getSize(), entry.getLastModified(),
+                    new MediaProbe.MediaInfo(MediaProbe.Container.UNKNOWN, MediaEntry.UNKNOWN, 0, 0));
+        } finally {
+            long last = lastSave.get();
+            if (outstanding.decrementAndGet() == 0 || (System.currentTimeMillis() - last >= SAVE_INTERVAL_MILLIS
+                    && lastSave.compareAndSet(last, System.currentTimeMillis()))) {
+                save();
+            }
+        }
+    }
+
+    /** Returns the entries probed since the last call, with their durations, and rearms the results listener. */
+    public List<MediaEntry> takeProbed() {
+        resultsNotified.set(false);
+        List<MediaEntry> entries = new ArrayList<>();
+        MediaEntry entry;
+        while ((entry = probed.poll()) != null) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    public int getOutstandingCount() {
+        return outstanding.get();
+    }
+
+    private void save() {
+        try {
+            store.save();
+        } catch (IOException e) {
+            errorHandler.accept(e);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        save();
+    }
+}
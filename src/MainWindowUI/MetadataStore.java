@@ -0,0 +1,356 @@
+package MainWindowUI;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class MetadataStore {
+    public enum Column {
+        SIZE, DURATION, WIDTH, HEIGHT, DATE_ADDED, LAST_MODIFIED
+    }
+
+    private static final int MAGIC = 0x43504D44;
+    private static final int VERSION = 2;
+    private static final long EMPTY = 0;
+
+    private final Path path;
+    private long[] slotKeys = new long[2048];
+    private int[] slotIds = new int[2048];
+    private long[] fingerprints = new long[1024];
+    private long[] sizes = new long[1024];
+    private long[] lastModified = new long[1024];
+    private long[] durations = new long[1024];
+    private long[] datesAdded = new long[1024];
+    private int[] widths = new int[1024];
+    private int[] heights = new int[1024];
+    private byte[] containers = new byte[1024];
+    private boolean[] probed = new boolean[1024];
+    private int count;
+    private boolean dirty;
+
+    public MetadataStore(Path path) {
+        this.path = path;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /** FNV-1a fingerprint of a canonical path, the same hash {@link MediaPlayerUI.ResumeStore} keys by. */
+    static long fingerprintOf(String canonicalPath) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < canonicalPath.length(); i++) {
+            hash ^= canonicalPath.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    public synchronized int idOf(String canonicalPath) {
+        return idOf(fingerprintOf(canonicalPath));
+    }
+
+    private int idOf(long fingerprint) {
+        int slot = find(fingerprint);
+        return slotKeys[slot] == fingerprint ? slotIds[slot] : -1;
+    }
+
+    public synchronized int register(String canonicalPath, long dateAdded) {
+        return register(fingerprintOf(canonicalPath), dateAdded);
+    }
+
+    private int register(long fingerprint, long dateAdded) {
+        int existing = idOf(fingerprint);
+        if (existing >= 0) {
+            return existing;
+        }
+        int id = count++;
+        ensureCapacity(count);
+        fingerprints[id] = fingerprint;
+        put(fingerprint, id);
+        sizes[id] = MediaEntry.UNKNOWN;
+        lastModified[id] = MediaEntry.UNKNOWN;
+        durations[id] = MediaEntry.UNKNOWN;
+        datesAdded[id] = dateAdded;
+        dirty = true;
+        return id;
+    }
+
+    public synchronized void rename(String oldPath, String newPath) {
+        long oldFingerprint = fingerprintOf(oldPath);
+        long newFingerprint = fingerprintOf(newPath);
+        int id = idOf(oldFingerprint);
+        if (id < 0 || oldFingerprint == newFingerprint) {
+            return;
+        }
+        int existing = idOf(newFingerprint);
+        remove(oldFingerprint);
+        if (existing < 0) {
+            fingerprints[id] = newFingerprint;
+            put(newFingerprint, id);
+        } else {
+            sizes[existing] = sizes[id];
+            lastModified[existing] = lastModified[id];
+            durations[existing] = durations[id];
+            datesAdded[existing] = datesAdded[id];
+            widths[existing] = widths[id];
+            heights[existing] = heights[id];
+            containers[existing] = containers[id];
+            probed[existing] = probed[id];
+            fingerprints[id] = EMPTY;
+        }
+        dirty = true;
+    }
+
+    public synchronized boolean isCurrent(String canonicalPath, long size, long modified) {
+        int id = idOf(canonicalPath);
+        return id >= 0 && probed[id] && sizes[id] == size && lastModified[id] == modified;
+    }
+
+    public synchronized void update(String canonicalPath, long size, long modified, MediaProbe.MediaInfo info) {
+        int id = register(canonicalPath, System.currentTimeMillis());
+        sizes[id] = size;
+        lastModified[id] = modified;
+        durations[id] = info.getDurationMillis();
+        widths[id] = info.getWidth();
+        heights[id] = info.getHeight();
+        containers[id] = (byte) info.getContainer().ordinal();
+        probed[id] = true;
+        dirty = true;
+    }
+
+    public synchronized boolean isProbed(int id) {
+        return probed[id];
+    }
+
+    public synchronized long get(int id, Column column) {
+        switch (column) {
+            case SIZE:
+                return sizes[id];
+            case DURATION:
+                return durations[id];
+            case WIDTH:
+                return widths[id];
+            case HEIGHT:
+                return heights[id];
+            case DATE_ADDED:
+                return datesAdded[id];
+            case LAST_MODIFIED:
+                return lastModified[id];
+            default:
+                throw new IllegalArgumentException("Unknown column " + column);
+        }
+    }
+
+    public synchronized MediaProbe.Container getContainer(int id) {
+        return MediaProbe.Container.values()[containers[id]];
+    }
+
+    public synchronized int[] select(Column column, long min, long max) {
+        int[] ids = new int[count];
+        int matches = 0;
+        for (int id = 0; id < count; id++) {
+            if (fingerprints[id] == EMPTY) {
+                continue;
+            }
+            long value = get(id, column);
+            if (probed[id] && value >= min && value <= max) {
+                ids[matches++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, matches);
+    }
+
+    public synchronized int[] selectContainer(MediaProbe.Container container) {
+        int[] ids = new int[count];
+        int matches = 0;
+        byte wanted = (byte) container.ordinal();
+        for (int id = 0; id < count; id++) {
+            if (probed[id] && fingerprints[id] != EMPTY && containers[id] == wanted) {
+                ids[matches++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, matches);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= sizes.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, sizes.length * 2);
+        fingerprints = Arrays.copyOf(fingerprints, newCapacity);
+        sizes = Arrays.copyOf(sizes, newCapacity);
+        lastModified = Arrays.copyOf(lastModified, newCapacity);
+        durations = Arrays.copyOf(durations, newCapacity);
+        datesAdded = Arrays.copyOf(datesAdded, newCapacity);
+        widths = Arrays.copyOf(widths, newCapacity);
+        heights = Arrays.copyOf(heights, newCapacity);
+        containers = Arrays.copyOf(containers, newCapacity);
+        probed = Arrays.copyOf(probed, newCapacity);
+    }
+
+    private int find(long fingerprint) {
+        int mask = slotKeys.length - 1;
+        long mixed = fingerprint * 0x9E3779B97F4A7C15L;
+        int slot = (int) (mixed ^ (mixed >>> 32)) & mask;
+        while (slotKeys[slot] != EMPTY && slotKeys[slot] != fingerprint) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void put(long fingerprint, int id) {
+        if ((count + 1) * 2 > slotKeys.length) {
+            rehash(slotKeys.length * 2);
+        }
+        int slot = find(fingerprint);
+        slotKeys[slot] = fingerprint;
+        slotIds[slot] = id;
+    }
+
+    private void remove(long fingerprint) {
+        int slot = find(fingerprint);
+        if (slotKeys[slot] != fingerprint) {
+            return;
+        }
+        slotKeys[slot] = EMPTY;
+        int mask = slotKeys.length - 1;
+        for (int next = (slot + 1) & mask; slotKeys[next] != EMPTY; next = (next + 1) & mask) {
+            long movedKey = slotKeys[next];
+            int movedId = slotIds[next];
+            slotKeys[next] = EMPTY;
+            int target = find(movedKey);
+            slotKeys[target] = movedKey;
+            slotIds[target] = movedId;
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = slotKeys;
+        int[] oldIds = slotIds;
+        slotKeys = new long[capacity];
+        slotIds = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                slotKeys[slot] = oldKeys[i];
+                slotIds[slot] = oldIds[i];
+            }
+        }
+    }
+
+    public synchronized void load() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (InputStream fileInput = Files.newInputStream(path);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(fileInput, 1 << 16))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Unsupported metadata store: " + path);
+            }
+            int stored = in.readInt();
+            Arrays.fill(slotKeys, EMPTY);
+            count = 0;
+            ensureCapacity(stored);
+            for (int id = 0; id < stored; id++) {
+                long fingerprint = version == 1 ? fingerprintOf(in.readUTF()) : in.readLong();
+                fingerprints[id] = fingerprint;
+                put(fingerprint, id);
+                count++;
+            }
+            for (int id = 0; id < stored; id++) {
+                sizes[id] = in.readLong();
+            }
+            for (int id = 0; id < stored; id++) {
+                lastModified[id] = in.readLong();
+            }
+            for (int id = 0; id < stored; id++) {
+                durations[id] = in.readLong();
+            }
+            for (int id = 0; id < stored; id++) {
+                datesAdded[id] = in.readLong();
+            }
+            for (int id = 0; id < stored; id++) {
+                widths[id] = in.readInt();
+            }
+            for (int id = 0; id < stored; id++) {
+                heights[id] = in.readInt();
+            }
+            for (int id = 0; id < stored; id++) {
+                containers[id] = in.readByte();
+            }
+            for (int id = 0; id < stored; id++) {
+                probed[id] = in.readBoolean();
+            }
+            dirty = version != VERSION;
+        }
+    }
+
+    public synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream fileOutput = Files.newOutputStream(temp);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOutput, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            int[] live = new int[count];
+            int liveCount = 0;
+            for (int id = 0; id < count; id++) {
+                if (fingerprints[id] != EMPTY) {
+                    live[liveCount++] = id;
+                }
+            }
+            out.writeInt(liveCount);
+            for (int i = 0; i < liveCount; i++) {
+                out.writeLong(fingerprints[live[i]]);
+            }
+            for (int i = 0; i < liveCount; i++) {
+                out.writeLong(sizes[live[i]]);
+            }
+            for (int i = 0; i < liveCount; i++) {
+                out.writeLong(lastModified[live[i]]);
+            }
+            for (int i = 0; i < liveCount; i++) {
+                out.writeLong(durations[live[i]]);
+            }
+            for (int i = 0; i < liveCount; i++) {
+                out.writeLong(datesAdded[live[i]]);
+            }
+            for (int i = 0; i < liveCount; i++) {
+                out.writeInt(widths[live[i]]);
+            }
+            for (int i = 0; i < liveCount; i++) {
+                out.writeInt(heights[live[i]]);
+            }
+            for (int i = 0; i < liveCount; i++) {
+                out.writeByte(containers[live[i]]);
+            }
+            for (int i = 0; i < liveCount; i++) {
+                out.writeBoolean(probed[live[i]]);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        dirty = false;
+    }
+}
@@ -0,0 +1,58 @@
+package MainWindowUI;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+public final class StartupTimer {
+    private static final Logger LOGGER = Logger.getLogger(StartupTimer.class.getName());
+
+    private static volatile long startNanos = System.nanoTime();
+    private static volatile long firstPaintMillis = -1;
+    private static volatile long libraryLoadedMillis = -1;
+    private static volatile long libraryValidatedMillis = -1;
+
+    private StartupTimer() {
+    }
+
+    public static void markStart() {
+        startNanos = System.nanoTime();
+    }
+
+    public static void markFirstPaint() {
+        if (firstPaintMillis < 0) {
+            firstPaintMillis = elapsedMillis();
+            LOGGER.info("Time to first paint: " + firstPaintMillis + " ms");
+        }
+    }
+
+    public static void markLibraryLoaded(int entries) {
+        if (libraryLoadedMillis < 0) {
+            libraryLoadedMillis = elapsedMillis();
+            LOGGER.info("Time to fully loaded: " + libraryLoadedMillis + " ms (" + entries + " entries)");
+        }
+    }
+
+    public static void markLibraryValidated(int checked, int missing) {
+        if (libraryValidatedMillis < 0) {
+            libraryValidatedMillis = elapsedMillis();
+            LOGGER.info("Library validated after " + libraryValidatedMillis + " ms (" + checked + " checked, "
+                    + missing + " missing)");
+        }
+    }
+
+    public static long getFirstPaintMillis() {
+        return firstPaintMillis;
+    }
+
+    public static long getLibraryLoadedMillis() {
+        return libraryLoadedMillis;
+    }
+
+    public static long getLibraryValidatedMillis() {
+        return libraryValidatedMillis;
+    }
+
+    private static long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,191 @@
+package MainWindowUI;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+public class ThumbnailDiskCache {
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+    private final Path directory;
+    private final long maxBytes;
+    private long totalBytes = -1;
+
+    public ThumbnailDiskCache(Path directory) {
+        this(directory, DEFAULT_MAX_BYTES);
+    }
+
+    public ThumbnailDiskCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    public static String key(String path, long size, long lastModified) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest((path + '\u0000' + size + '\u0000' + lastModified)
+                    .getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public BufferedImage read(String key) {
+        Path file = pathFor(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            BufferedImage image = ImageIO.read(file.toFile());
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return image;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void write(String key, BufferedImage image) throws IOException {
+        Path file = pathFor(key);
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writeJpeg(toRgb(image), out);
+            }
+            long written = Files.size(temp);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            added(written);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public synchronized long getTotalBytes() throws IOException {
+        if (totalBytes < 0) {
+            totalBytes = 0;
+            for (CachedFile cached : list()) {
+                totalBytes += cached.size;
+            }
+        }
+        return totalBytes;
+    }
+
+    /** Deletes the least recently read thumbnails down to 80% of the cap once the cache grows past it. */
+    private synchronized void added(long bytes) throws IOException {
+        if (totalBytes < 0) {
+            getTotalBytes();
+        } else {
+            totalBytes += bytes;
+        }
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+        List<CachedFile> files = list();
+        files.sort(Comparator.comparingLong(cached -> cached.lastUsed));
+        long target = maxBytes * 4 / 5;
+        totalBytes = 0;
+        for (CachedFile cached : files) {
+            totalBytes += cached.size;
+        }
+        for (CachedFile cached : files) {
+            if (totalBytes <= target) {
+                break;
+            }
+            if (Files.deleteIfExists(cached.path)) {
+                totalBytes -= cached.size;
+            }
+        }
+    }
+
+    private List<CachedFile> list() throws IOException {
+        List<CachedFile> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (Stream<Path> paths = Files.walk(directory, 2)) {
+            Iterator<Path> iterator = paths.iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                if (path.getFileName().toString().endsWith(".jpg")) {
+                    BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                    files.add(new CachedFile(path, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                }
+            }
+        }
+        return files;
+    }
+
+    private static final class CachedFile {
+        private final Path path;
+        private final long size;
+        private final long lastUsed;
+
+        CachedFile(Path path, long size, long lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private Path pathFor(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".jpg");
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return rgb;
+    }
+
+    private static void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package MainWindowUI;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ThumbnailMemoryCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, BufferedImage> images = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    public ThumbnailMemoryCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized BufferedImage get(String key) {
+        return images.get(key);
+    }
+
+    public synchronized void put(String key, BufferedImage image) {
+        BufferedImage previous = images.put(key, image);
+        if (previous != null) {
+            bytes -= sizeOf(previous);
+        }
+        bytes += sizeOf(image);
+        Iterator<Map.Entry<String, BufferedImage>> eldest = images.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, BufferedImage> entry = eldest.next();
+            if (entry.getValue() == image) {
+                break;
+            }
+            bytes -= sizeOf(entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    public synchronized void remove(String key) {
+        BufferedImage previous = images.remove(key);
+        if (previous != null) {
+            bytes -= sizeOf(previous);
+        }
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+
+    static long sizeOf(BufferedImage image) {
+        int bitsPerPixel = image.getColorModel().getPixelSize();
+        return (long) image.getWidth() * image.getHeight() * Math.max(1, bitsPerPixel / 8);
+    }
+}
@@ -0,0 +1,160 @@
+package MainWindowUI;
+
+import MediaPlayerUI.FrameGrabber;
+import Metrics.Metrics;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class ThumbnailService {
+    public static final int THUMBNAIL_WIDTH = 96;
+    public static final int THUMBNAIL_HEIGHT = 54;
+    private static final int STALE_GENERATIONS = 2;
+    private static final long FAILURE_RETRY_MILLIS = 60000;
+
+    private final FrameGrabber grabber;
+    private final ThumbnailMemoryCache memoryCache;
+    private final ThumbnailDiskCache diskCache;
+    private final Consumer<File> readyListener;
+    private final long failureRetryMillis;
+    private final ThreadPoolExecutor workers;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> failedAt = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile int generation;
+    private volatile boolean disabled;
+
+    public ThumbnailService(FrameGrabber grabber, ThumbnailMemoryCache memoryCache, ThumbnailDiskCache diskCache,
+            int workerCount, Consumer<File> readyListener) {
+        this(grabber, memoryCache, diskCache, workerCount, readyListener, FAILURE_RETRY_MILLIS);
+    }
+
+    ThumbnailService(FrameGrabber grabber, ThumbnailMemoryCache memoryCache, ThumbnailDiskCache diskCache,
+            int workerCount, Consumer<File> readyListener, long failureRetryMillis) {
+        this.grabber = grabber;
+        this.memoryCache = memoryCache;
+        this.diskCache = diskCache;
+        this.readyListener = readyListener;
+        this.failureRetryMillis = failureRetryMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "thumbnail-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    public BufferedImage thumbnail(File mediaFile) {
+        String key = mediaFile.getAbsolutePath();
+        BufferedImage image = memoryCache.get(key);
+        if (image == null && !disabled && !hasFailed(key) && pending.add(key)) {
+            workers.execute(new ThumbnailTask(mediaFile, key, generation, sequence.incrementAndGet()));
+        }
+        return image;
+    }
+
+    private boolean hasFailed(String key) {
+        Long failedTime = failedAt.get(key);
+        if (failedTime == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - failedTime < failureRetryMillis) {
+            return true;
+        }
+        failedAt.remove(key, failedTime);
+        return false;
+    }
+
+    public void visibleRangeChanged() {
+        generation++;
+    }
+
+    public void invalidate(File mediaFile) {
+        String key = mediaFile.getAbsolutePath();
+        memoryCache.remove(key);
+        failedAt.remove(key);
+    }
+
+    public int getQueuedCount() {
+        return workers.getQueue().size();
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+        grabber.close();
+    }
+
+    private void load(ThumbnailTask task) {
+        if (task.generation < generation - STALE_GENERATIONS) {
+            // The cell scrolled away before its turn; let it repaint so it queues again if it is still visible.
+            pending.remove(task.key);
+            readyListener.accept(task.mediaFile);
+            return;
+        }
+        try {
+            if (disabled) {
+                return;
+            }
+            BasicFileAttributes attrs = Files.readAttributes(task.mediaFile.toPath(), BasicFileAttributes.class);
+            String diskKey = ThumbnailDiskCache.key(task.key, attrs.size(), attrs.lastModifiedTime().toMillis());
+            BufferedImage image = diskCache.read(diskKey);
+            if (image == null) {
+                long start = Metrics.startTimer();
+                image = grabber.grab(task.mediaFile, THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT);
+                Metrics.stopTimer("thumbnail.extract", start);
+                diskCache.write(diskKey, image);
+            } else {
+                Metrics.increment("thumbnail.diskHits");
+            }
+            memoryCache.put(task.key, image);
+            readyListener.accept(task.mediaFile);
+        } catch (IOException e) {
+            failedAt.put(task.key, System.currentTimeMillis());
+        } catch (IllegalStateException e) {
+            disabled = true;
+        } finally {
+            pending.remove(task.key);
+        }
+    }
+
+    private final class ThumbnailTask implements Runnable, Comparable<ThumbnailTask> {
+        private final File mediaFile;
+        private final String key;
+        private final int generation;
+        private final long sequence;
+
+        ThumbnailTask(File mediaFile, String key, int generation, long sequence) {
+            this.mediaFile = mediaFile;
+            this.key = key;
+            this.generation = generation;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            load(this);
+        }
+
+        @Override
+        public int compareTo(ThumbnailTask other) {
+            if (generation != other.generation) {
+                return Integer.compare(other.generation, generation);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
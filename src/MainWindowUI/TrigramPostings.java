@@ -0,0 +1,243 @@
+package MainWindowUI;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Read-only trigram postings over newline-separated documents in a byte blob. Trigrams are three lower-cased ASCII
+ * bytes packed into 21 bits; each list is stored as varint gaps, so a trigram shared by a run of neighbouring
+ * documents costs about one byte per document.
+ */
+final class TrigramPostings {
+    private static final int TRIGRAM_SPACE = 1 << 21;
+
+    private final int[] trigrams;
+    private final int[] ends;
+    private final byte[] postings;
+
+    private TrigramPostings(int[] trigrams, int[] ends, byte[] postings) {
+        this.trigrams = trigrams;
+        this.ends = ends;
+        this.postings = postings;
+    }
+
+    /** Indexes documents {@code [offsets[i], offsets[i + 1] - 1)} of {@code text}, except the {@code skipped} ones. */
+    static TrigramPostings build(byte[] text, int[] offsets, int count, BitSet skipped) {
+        int[] last = new int[TRIGRAM_SPACE];
+        int[] lengths = new int[TRIGRAM_SPACE];
+        for (int document = 0; document < count; document++) {
+            if (skipped.get(document)) {
+                continue;
+            }
+            int end = offsets[document + 1] - 1;
+            for (int i = offsets[document]; i + 3 <= end; i++) {
+                int trigram = trigramAt(text, i);
+                if (trigram >= 0 && last[trigram] != document + 1) {
+                    lengths[trigram] += varintLength(document + 1 - last[trigram]);
+                    last[trigram] = document + 1;
+                }
+            }
+        }
+
+        int distinct = 0;
+        int total = 0;
+        for (int trigram = 0; trigram < TRIGRAM_SPACE; trigram++) {
+            if (lengths[trigram] > 0) {
+                distinct++;
+                int length = lengths[trigram];
+                lengths[trigram] = total;
+                total += length;
+            } else {
+                lengths[trigram] = -1;
+            }
+        }
+        int[] trigrams = new int[distinct];
+        int[] ends = new int[distinct];
+        byte[] postings = new byte[total];
+        Arrays.fill(last, 0);
+        for (int document = 0; document < count; document++) {
+            if (skipped.get(document)) {
+                continue;
+            }
+            int end = offsets[document + 1] - 1;
+            for (int i = offsets[document]; i + 3 <= end; i++) {
+                int trigram = trigramAt(text, i);
+                if (trigram >= 0 && last[trigram] != document + 1) {
+                    lengths[trigram] = writeVarint(postings, lengths[trigram], document + 1 - last[trigram]);
+                    last[trigram] = document + 1;
+                }
+            }
+        }
+        int next = 0;
+        for (int trigram = 0; trigram < TRIGRAM_SPACE; trigram++) {
+            if (lengths[trigram] >= 0) {
+                trigrams[next] = trigram;
+                ends[next++] = lengths[trigram];
+            }
+        }
+        return new TrigramPostings(trigrams, ends, postings);
+    }
+
+    /**
+     * Returns the ascending documents that contain every trigram of a lower-cased ASCII query of at least three
+     * bytes. Only the rarest list is decoded in full; the others are merged against it.
+     */
+    int[] candidates(byte[] lowerQuery) {
+        int queryTrigrams = lowerQuery.length - 2;
+        int[] lists = new int[queryTrigrams];
+        for (int i = 0; i < queryTrigrams; i++) {
+            lists[i] = Arrays.binarySearch(trigrams, trigramAt(lowerQuery, i));
+            if (lists[i] < 0) {
+                return new int[0];
+            }
+        }
+        int rarest = lists[0];
+        for (int list : lists) {
+            if (length(list) < length(rarest)) {
+                rarest = list;
+            }
+        }
+
+        int[] result = decode(rarest);
+        int size = result.length;
+        for (int list : lists) {
+            if (list != rarest && size > 0) {
+                size = retain(result, size, list);
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private int start(int list) {
+        return list == 0 ? 0 : ends[list - 1];
+    }
+
+    private int length(int list) {
+        return ends[list] - start(list);
+    }
+
+    private int[] decode(int list) {
+        int[] documents = new int[length(list)];
+        int size = 0;
+        int document = -1;
+        int end = ends[list];
+        for (int position = start(list); position < end;) {
+            int gap = 0;
+            for (int shift = 0;; shift += 7) {
+                byte b = postings[position++];
+                gap |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            document += gap;
+            documents[size++] = document;
+        }
+        return Arrays.copyOf(documents, size);
+    }
+
+    private int retain(int[] documents, int size, int list) {
+        int kept = 0;
+        int i = 0;
+        int document = -1;
+        int end = ends[list];
+        for (int position = start(list); position < end && i < size;) {
+            int gap = 0;
+            for (int shift = 0;; shift += 7) {
+                byte b = postings[position++];
+                gap |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            document += gap;
+            while (i < size && documents[i] < document) {
+                i++;
+            }
+            if (i < size && documents[i] == document) {
+                documents[kept++] = document;
+                i++;
+            }
+        }
+        return kept;
+    }
+
+    int getTrigramCount() {
+        return trigrams.length;
+    }
+
+    int getPostingsLength() {
+        return postings.length;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(trigrams.length);
+        out.writeInt(postings.length);
+        for (int i = 0; i < trigrams.length; i++) {
+            out.writeInt(trigrams[i]);
+            out.writeInt(ends[i]);
+        }
+        out.write(postings);
+    }
+
+    /** Reads postings written by {@link #write}, or returns null when the tables are inconsistent. */
+    static TrigramPostings read(DataInputStream in, long maxLength) throws IOException {
+        int distinct = in.readInt();
+        int length = in.readInt();
+        if (distinct < 0 || distinct > TRIGRAM_SPACE || length < 0 || length > maxLength) {
+            return null;
+        }
+        int[] trigrams = new int[distinct];
+        int[] ends = new int[distinct];
+        for (int i = 0; i < distinct; i++) {
+            trigrams[i] = in.readInt();
+            ends[i] = in.readInt();
+            if (trigrams[i] < 0 || trigrams[i] >= TRIGRAM_SPACE || ends[i] > length
+                    || ends[i] <= (i > 0 ? ends[i - 1] : 0) || (i > 0 && trigrams[i] <= trigrams[i - 1])) {
+                return null;
+            }
+        }
+        if (distinct > 0 ? ends[distinct - 1] != length : length != 0) {
+            return null;
+        }
+        byte[] postings = new byte[length];
+        in.readFully(postings);
+        for (int i = 0; i < distinct; i++) {
+            if (postings[ends[i] - 1] < 0) {
+                return null;
+            }
+        }
+        return new TrigramPostings(trigrams, ends, postings);
+    }
+
+    private static int trigramAt(byte[] text, int i) {
+        int a = lower(text[i]);
+        int b = lower(text[i + 1]);
+        int c = lower(text[i + 2]);
+        return (a | b | c) < 0 ? -1 : a << 14 | b << 7 | c;
+    }
+
+    private static int lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private static int writeVarint(byte[] target, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+}
@@ -0,0 +1,11 @@
+package MediaPlayerUI;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+public interface FrameGrabber {
+    BufferedImage grab(File mediaFile, int width, int height) throws IOException;
+
+    void close();
+}
@@ -3,8 +3,10 @@ package MediaPlayerUI;
 import javax.swing.*;
 import java.awt.*;
 import java.io.File;
-import java.util.concurrent.TimeUnit;
-import uk.co.caprica.vlcj.factory.discovery.NativeDiscovery;
+import java.util.Collections;
+import java.util.List;
+import Metrics.Metrics;
+import uk.co.caprica.vlcj.media.MediaRef;
 import uk.co.caprica.vlcj.player.component.EmbeddedMediaPlayerComponent;
 import uk.co.caprica.vlcj.player.base.MediaPlayer;
 import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
@@ -15,27 +17,54 @@ public class MediaPlayerUI extends JFrame {
     private final JButton pauseButton;
     private final JButton forwardButton;
     private final JButton backwardButton;
+    private final JButton previousButton;
+    private final JButton nextButton;
+    private final JButton shuffleButton;
+    private final JButton repeatButton;
     private final JPanel controlsPanel;
     private final JProgressBar progressBar;
     private final JLabel currentTimeLabel;
     private final JLabel totalTimeLabel;
+    private final PlayerPool<EmbeddedMediaPlayerComponent> playerPool;
+    private final MediaPlayerEventHandler eventHandler;
+    private final ProgressUpdateScheduler progressUpdateScheduler;
+    private final TimeFormatter currentTimeFormatter = new TimeFormatter();
+    private final TimeFormatter totalTimeFormatter = new TimeFormatter();
+    private final ResumeStore resumeStore;
+    private final PlaybackQueue playbackQueue;
+    private final VlcMediaPreloader mediaPreloader = new VlcMediaPreloader();
+    private volatile long resumeKey;
+    private volatile long playRequestedAt;
+    private volatile boolean playRequestWarm;
+    private long displayedLength = -1;
+    private final SeekCoalescer seekCoalescer;
+    private boolean scrubbing;
+    private boolean released;
 
     public MediaPlayerUI(File mediaFile) {
+        this(Collections.singletonList(mediaFile), 0);
+    }
 
-        boolean discovered = new NativeDiscovery().discover();
-        if (!discovered) {
-            JOptionPane.showMessageDialog(this, "VLC native libraries not found!", "Error", JOptionPane.ERROR_MESSAGE);
-            System.exit(1); 
-        }
+    public MediaPlayerUI(List<File> queue, int startIndex) {
+        this(queue, startIndex, VlcPlayerProvider.sharedPool(), ResumeStore.shared());
+    }
+
+    public MediaPlayerUI(List<File> queue, int startIndex, PlayerPool<EmbeddedMediaPlayerComponent> playerPool,
+            ResumeStore resumeStore) {
+        long start = Metrics.startTimer();
+        this.playerPool = playerPool;
+        this.resumeStore = resumeStore;
+        this.playbackQueue = new PlaybackQueue(new WindowQueuePlayer());
+        mediaPlayerComponent = playerPool.acquire();
+        Metrics.stopTimer("player.acquire", start);
 
         setTitle("Modern Media Player");
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        setSize(900, 600);
+        setSize(1100, 600);
         setLocationRelativeTo(null); 
         setLayout(new BorderLayout());
         getContentPane().setBackground(Color.decode("#2C2C2C")); 
 
-        mediaPlayerComponent = new EmbeddedMediaPlayerComponent();
         mediaPlayerComponent.setBackground(Color.BLACK);
         add(mediaPlayerComponent, BorderLayout.CENTER);
 
@@ -46,11 +75,23 @@ public class MediaPlayerUI extends JFrame {
         pauseButton = createButton("Pause", "icons/pause.png");
         forwardButton = createButton("Forward 10s", "icons/forward.png");
         backwardButton = createButton("Backward 10s", "icons/backward.png");
-
+        previousButton = createButton("Previous", "icons/previous.png");
+        nextButton = createButton("Next", "icons/next.png");
+        shuffleButton = createButton("Shuffle: Off", "icons/shuffle.png");
+        repeatButton = createButton("Repeat: Off", "icons/repeat.png");
+        previousButton.setPreferredSize(new Dimension(90, 40));
+        nextButton.setPreferredSize(new Dimension(90, 40));
+        shuffleButton.setPreferredSize(new Dimension(110, 40));
+        repeatButton.setPreferredSize(new Dimension(110, 40));
+
+        controlsPanel.add(previousButton);
         controlsPanel.add(backwardButton);
         controlsPanel.add(playButton);
         controlsPanel.add(pauseButton);
         controlsPanel.add(forwardButton);
+        controlsPanel.add(nextButton);
+        controlsPanel.add(shuffleButton);
+        controlsPanel.add(repeatButton);
         add(controlsPanel, BorderLayout.SOUTH);
 
         progressBar = new JProgressBar();
@@ -58,6 +99,7 @@ public class MediaPlayerUI extends JFrame {
         progressBar.setBackground(Color.decode("#424242"));
         progressBar.setBorderPainted(false);
         progressBar.setPreferredSize(new Dimension(800, 20));
+        progressBar.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
 
         currentTimeLabel = new JLabel("00:00:00");
         currentTimeLabel.setForeground(Color.WHITE);
@@ -74,12 +116,19 @@ public class MediaPlayerUI extends JFrame {
         add(progressBarPanel, BorderLayout.NORTH);
 
         setupButtonListeners();
-        mediaPlayerComponent.mediaPlayer().events().addMediaPlayerEventListener(new MediaPlayerEventHandler(this));
+        progressUpdateScheduler = new ProgressUpdateScheduler(this::updateProgress, 40);
+        seekCoalescer = new SeekCoalescer(time -> mediaPlayerComponent.mediaPlayer().controls().setTime(time),
+                () -> mediaPlayerComponent.mediaPlayer().status().time(), progressUpdateScheduler::getLength, 100);
+        setupSeeking();
+        eventHandler = new MediaPlayerEventHandler(this);
+        mediaPlayerComponent.mediaPlayer().events().addMediaPlayerEventListener(eventHandler);
 
         setVisible(true);
         addWindowListener(new WindowCloseHandler(this));
 
-        loadMedia(mediaFile);
+        playRequestedAt = start;
+        playbackQueue.playItems(queue, startIndex);
+        Metrics.stopTimer("player.open", start);
     }
 
     private JButton createButton(String text, String iconPath) {
@@ -113,42 +162,204 @@ public class MediaPlayerUI extends JFrame {
     private void setupButtonListeners() {
         playButton.addActionListener(e -> mediaPlayerComponent.mediaPlayer().controls().play());
         pauseButton.addActionListener(e -> mediaPlayerComponent.mediaPlayer().controls().pause());
-        forwardButton.addActionListener(e -> mediaPlayerComponent.mediaPlayer().controls().skipTime(10000));
-        backwardButton.addActionListener(e -> mediaPlayerComponent.mediaPlayer().controls().skipTime(-10000));
+        forwardButton.addActionListener(e -> seekCoalescer.seekBy(10000));
+        backwardButton.addActionListener(e -> seekCoalescer.seekBy(-10000));
+        previousButton.addActionListener(e -> {
+            playRequestedAt = Metrics.startTimer();
+            playbackQueue.previous();
+        });
+        nextButton.addActionListener(e -> {
+            playRequestedAt = Metrics.startTimer();
+            playbackQueue.next();
+        });
+        shuffleButton.addActionListener(e -> {
+            playbackQueue.setShuffle(!playbackQueue.isShuffle());
+            shuffleButton.setText(playbackQueue.isShuffle() ? "Shuffle: On" : "Shuffle: Off");
+        });
+        repeatButton.addActionListener(e -> {
+            PlaybackQueue.RepeatMode[] modes = PlaybackQueue.RepeatMode.values();
+            PlaybackQueue.RepeatMode mode = modes[(playbackQueue.getRepeatMode().ordinal() + 1) % modes.length];
+            playbackQueue.setRepeatMode(mode);
+            repeatButton.setText(mode == PlaybackQueue.RepeatMode.OFF ? "Repeat: Off"
+                    : mode == PlaybackQueue.RepeatMode.ALL ? "Repeat: All" : "Repeat: One");
+        });
+    }
+
+    private void setupSeeking() {
+        java.awt.event.MouseAdapter scrubHandler = new java.awt.event.MouseAdapter() {
+            @Override
+            public void mousePressed(java.awt.event.MouseEvent e) {
+                if (SwingUtilities.isLeftMouseButton(e) && displayedLength > 0) {
+                    scrubbing = true;
+                    scrubTo(e.getX(), false);
+                }
+            }
+
+            @Override
+            public void mouseDragged(java.awt.event.MouseEvent e) {
+                if (scrubbing) {
+                    scrubTo(e.getX(), false);
+                }
+            }
+
+            @Override
+            public void mouseReleased(java.awt.event.MouseEvent e) {
+                if (scrubbing) {
+                    scrubTo(e.getX(), true);
+                    scrubbing = false;
+                }
+            }
+        };
+        progressBar.addMouseListener(scrubHandler);
+        progressBar.addMouseMotionListener(scrubHandler);
+
+        JComponent root = getRootPane();
+        bindKey(root, "seekBack", KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_LEFT, 0),
+                () -> seekCoalescer.seekBy(-5000));
+        bindKey(root, "seekForward", KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_RIGHT, 0),
+                () -> seekCoalescer.seekBy(5000));
+        bindKey(root, "seekBackLong", KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_LEFT,
+                java.awt.event.InputEvent.SHIFT_DOWN_MASK), () -> seekCoalescer.seekBy(-30000));
+        bindKey(root, "seekForwardLong", KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_RIGHT,
+                java.awt.event.InputEvent.SHIFT_DOWN_MASK), () -> seekCoalescer.seekBy(30000));
+        bindKey(root, "togglePause", KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_SPACE, 0),
+                () -> mediaPlayerComponent.mediaPlayer().controls().pause());
+        bindKey(root, "nextItem", KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_N, 0),
+                () -> playbackQueue.next());
+        bindKey(root, "previousItem", KeyStroke.getKeyStroke(java.awt.event.KeyEvent.VK_P, 0),
+                () -> playbackQueue.previous());
+    }
+
+    private static void bindKey(JComponent component, String name, KeyStroke keyStroke, Runnable action) {
+        component.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(keyStroke, name);
+        component.getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                action.run();
+            }
+        });
     }
 
-    private void updateProgressBar() {
-        long currentTime = mediaPlayerComponent.mediaPlayer().status().time();
-        long totalTime = mediaPlayerComponent.mediaPlayer().media().info().duration();
-        progressBar.setMaximum((int) totalTime);
-        progressBar.setValue((int) currentTime);
+    private void scrubTo(int x, boolean release) {
+        int width = Math.max(1, progressBar.getWidth());
+        long time = (long) (Math.max(0, Math.min(x, width)) / (double) width * displayedLength);
+        progressBar.setValue((int) Math.min(Integer.MAX_VALUE, time));
+        currentTimeLabel.setText(currentTimeFormatter.format(time));
+        if (release) {
+            seekCoalescer.commit(time);
+        } else {
+            seekCoalescer.seekTo(time);
+        }
+    }
+
+    private void updateProgress(long currentTime, long totalTime) {
+        if (totalTime >= 0 && totalTime != displayedLength) {
+            displayedLength = totalTime;
+            progressBar.setMaximum((int) Math.min(Integer.MAX_VALUE, totalTime));
+            totalTimeLabel.setText(totalTimeFormatter.format(totalTime));
+        }
+        if (scrubbing) {
+            return;
+        }
+        progressBar.setValue((int) Math.min(Integer.MAX_VALUE, currentTime));
+        currentTimeLabel.setText(currentTimeFormatter.format(currentTime));
     }
 
-    private void updateLabels() {
-        long currentTime = mediaPlayerComponent.mediaPlayer().status().time();
-        long totalTime = mediaPlayerComponent.mediaPlayer().media().info().duration();
-        currentTimeLabel.setText(formatTime(currentTime));
-        totalTimeLabel.setText(formatTime(totalTime));
+    public static boolean canOpenPlayer() {
+        return VlcPlayerProvider.sharedPool().canAcquire();
     }
 
-    private String formatTime(long time) {
-        long hours = TimeUnit.MILLISECONDS.toHours(time);
-        long minutes = TimeUnit.MILLISECONDS.toMinutes(time) % 60;
-        long seconds = TimeUnit.MILLISECONDS.toSeconds(time) % 60;
-        return String.format("%02d:%02d:%02d", hours, minutes, seconds);
+    public static void warmUp() {
+        VlcPlayerProvider.sharedWarmup().start();
+    }
+
+    public static void prepareMedia(File mediaFile) {
+        VlcPlayerProvider.sharedWarmup().hint(mediaFile);
+    }
+
+    public static void shutdownPlayers() {
+        VlcPlayerProvider.shutdown();
+        ResumeStore.closeShared();
     }
 
     public void loadMedia(File mediaFile) {
-        if (mediaFile.exists()) {
-            mediaPlayerComponent.mediaPlayer().media().play(mediaFile.getAbsolutePath());
-        } else {
+        playQueue(Collections.singletonList(mediaFile), 0);
+    }
+
+    public void playQueue(List<File> queue, int startIndex) {
+        playRequestedAt = Metrics.startTimer();
+        playbackQueue.playItems(queue, startIndex);
+    }
+
+    public void enqueue(List<File> mediaFiles) {
+        playbackQueue.enqueue(mediaFiles);
+    }
+
+    private void startMedia(File mediaFile) {
+        if (released) {
+            return;
+        }
+        MediaRef preloaded = mediaPreloader.take(mediaFile);
+        if (preloaded == null) {
+            preloaded = VlcPlayerProvider.sharedWarmup().take(mediaFile);
+        }
+        if (preloaded == null && !mediaFile.exists()) {
+            playRequestedAt = 0;
             JOptionPane.showMessageDialog(this, "File not found!", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        saveResumePosition();
+        setTitle("Modern Media Player - " + mediaFile.getName());
+        resumeKey = ResumeStore.keyOf(mediaFile);
+        long resumeAt = resumeStore.get(resumeKey);
+        String[] options = resumeAt > 0 ? new String[] { ":start-time=" + resumeAt / 1000.0 } : new String[0];
+        playRequestWarm = preloaded != null;
+        if (preloaded != null) {
+            mediaPlayerComponent.mediaPlayer().media().play(preloaded, options);
+            preloaded.release();
+        } else {
+            mediaPlayerComponent.mediaPlayer().media().play(mediaFile.getAbsolutePath(), options);
+        }
+    }
+
+    private void saveResumePosition() {
+        if (resumeKey != 0) {
+            MediaPlayer mediaPlayer = mediaPlayerComponent.mediaPlayer();
+            resumeStore.record(resumeKey, mediaPlayer.status().time(), mediaPlayer.status().length());
+            resumeStore.flush();
         }
     }
 
     private void stopMedia() {
-        mediaPlayerComponent.mediaPlayer().controls().stop();
-        mediaPlayerComponent.release();
+        if (released) {
+            return;
+        }
+        released = true;
+        mediaPlayerComponent.mediaPlayer().events().removeMediaPlayerEventListener(eventHandler);
+        saveResumePosition();
+        resumeKey = 0;
+        mediaPlayerComponent.mediaPlayer().submit(mediaPreloader::release);
+        playerPool.release(mediaPlayerComponent);
+    }
+
+    class WindowQueuePlayer implements QueuePlayer {
+        @Override
+        public void play(File mediaFile) {
+            if (SwingUtilities.isEventDispatchThread()) {
+                startMedia(mediaFile);
+            } else {
+                SwingUtilities.invokeLater(() -> startMedia(mediaFile));
+            }
+        }
+
+        @Override
+        public void preload(File mediaFile) {
+            mediaPlayerComponent.mediaPlayer().submit(() -> {
+                if (!released) {
+                    mediaPreloader.preload(mediaFile);
+                }
+            });
+        }
     }
 
     class WindowCloseHandler extends java.awt.event.WindowAdapter {
@@ -162,6 +373,11 @@ public class MediaPlayerUI extends JFrame {
         public void windowClosing(java.awt.event.WindowEvent event) {
             mediaPlayerUI.stopMedia();
         }
+
+        @Override
+        public void windowClosed(java.awt.event.WindowEvent event) {
+            mediaPlayerUI.stopMedia();
+        }
     }
 
     class MediaPlayerEventHandler extends MediaPlayerEventAdapter {
@@ -173,15 +389,38 @@ public class MediaPlayerUI extends JFrame {
 
         @Override
         public void timeChanged(MediaPlayer mediaPlayer, long newTime) {
-            SwingUtilities.invokeLater(() -> {
-                mediaPlayerUI.updateProgressBar();
-                mediaPlayerUI.updateLabels();
-            });
+            mediaPlayerUI.progressUpdateScheduler.timeChanged(newTime);
+            long key = mediaPlayerUI.resumeKey;
+            long length = mediaPlayerUI.progressUpdateScheduler.getLength();
+            if (key != 0) {
+                mediaPlayerUI.resumeStore.record(key, newTime, length);
+            }
+            mediaPlayerUI.playbackQueue.timeChanged(newTime, length);
+        }
+
+        @Override
+        public void finished(MediaPlayer mediaPlayer) {
+            long key = mediaPlayerUI.resumeKey;
+            if (key != 0) {
+                mediaPlayerUI.resumeStore.remove(key);
+            }
+            mediaPlayerUI.playbackQueue.finished();
+        }
+
+        @Override
+        public void videoOutput(MediaPlayer mediaPlayer, int newCount) {
+            long requestedAt = mediaPlayerUI.playRequestedAt;
+            if (requestedAt != 0 && newCount > 0) {
+                mediaPlayerUI.playRequestedAt = 0;
+                Metrics.stopTimer("player.clickToFirstFrame", requestedAt);
+                Metrics.stopTimer(mediaPlayerUI.playRequestWarm ? "player.clickToFirstFrame.warm"
+                        : "player.clickToFirstFrame.cold", requestedAt);
+            }
         }
 
         @Override
         public void lengthChanged(MediaPlayer mediaPlayer, long newLength) {
-            SwingUtilities.invokeLater(() -> mediaPlayerUI.updateLabels());
+            mediaPlayerUI.progressUpdateScheduler.lengthChanged(newLength);
         }
     }
 }
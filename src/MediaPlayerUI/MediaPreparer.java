@@ -0,0 +1,12 @@
+package MediaPlayerUI;
+
+import java.io.File;
+import java.io.IOException;
+
+public interface MediaPreparer<M> {
+    void initialize();
+
+    M prepare(File mediaFile) throws IOException;
+
+    void release(M media);
+}
@@ -0,0 +1,148 @@
+package MediaPlayerUI;
+
+import Metrics.Metrics;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class MediaWarmup<M> {
+    private final MediaPreparer<M> preparer;
+    private final long delayMillis;
+    private final int capacity;
+    private final ScheduledExecutorService executor;
+    private final LinkedHashMap<File, M> prepared = new LinkedHashMap<>(16, 0.75f, true);
+    private File pendingFile;
+    private ScheduledFuture<?> pendingTask;
+    private boolean initialized;
+    private volatile boolean available;
+    private boolean shutdown;
+
+    public MediaWarmup(MediaPreparer<M> preparer, long delayMillis, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid warm-up capacity: " + capacity);
+        }
+        this.preparer = preparer;
+        this.delayMillis = delayMillis;
+        this.capacity = capacity;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "media-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized void start() {
+        if (!shutdown) {
+            executor.execute(this::initialize);
+        }
+    }
+
+    public synchronized void hint(File mediaFile) {
+        if (shutdown || prepared.containsKey(mediaFile) || mediaFile.equals(pendingFile)) {
+            return;
+        }
+        if (pendingTask != null) {
+            pendingTask.cancel(false);
+        }
+        pendingFile = mediaFile;
+        pendingTask = executor.schedule(() -> prepare(mediaFile), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized M take(File mediaFile) {
+        M media = prepared.remove(mediaFile);
+        Metrics.increment(media != null ? "warmup.hits" : "warmup.misses");
+        return media;
+    }
+
+    public synchronized boolean isPrepared(File mediaFile) {
+        return prepared.containsKey(mediaFile);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void shutdown() {
+        List<M> released;
+        synchronized (this) {
+            shutdown = true;
+            released = new ArrayList<>(prepared.values());
+            prepared.clear();
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (M media : released) {
+            preparer.release(media);
+        }
+    }
+
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+        long start = Metrics.startTimer();
+        try {
+            preparer.initialize();
+            available = true;
+            Metrics.stopTimer("warmup.initialize", start);
+        } catch (RuntimeException e) {
+            Metrics.increment("warmup.initializeFailures");
+        }
+    }
+
+    private void prepare(File mediaFile) {
+        synchronized (this) {
+            if (shutdown || !mediaFile.equals(pendingFile)) {
+                return;
+            }
+        }
+        initialize();
+        M media = null;
+        if (available) {
+            long start = Metrics.startTimer();
+            try {
+                media = preparer.prepare(mediaFile);
+                Metrics.stopTimer("warmup.prepare", start);
+            } catch (IOException | RuntimeException e) {
+                Metrics.increment("warmup.failures");
+            }
+        }
+
+        List<M> released = new ArrayList<>();
+        synchronized (this) {
+            if (mediaFile.equals(pendingFile)) {
+                pendingFile = null;
+                pendingTask = null;
+            }
+            if (media != null && shutdown) {
+                released.add(media);
+            } else if (media != null) {
+                M previous = prepared.put(mediaFile, media);
+                if (previous != null) {
+                    released.add(previous);
+                }
+                Iterator<Map.Entry<File, M>> eldest = prepared.entrySet().iterator();
+                while (prepared.size() > capacity) {
+                    released.add(eldest.next().getValue());
+                    eldest.remove();
+                }
+            }
+        }
+        for (M stale : released) {
+            preparer.release(stale);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package MediaPlayerUI;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class PlaybackQueue {
+    public enum RepeatMode {
+        OFF, ALL, ONE
+    }
+
+    private final QueuePlayer player;
+    private final long preloadLeadMillis;
+    private final Random random;
+    private final List<File> items = new ArrayList<>();
+    private int[] order = new int[0];
+    private int cursor = -1;
+    private boolean shuffle;
+    private RepeatMode repeatMode = RepeatMode.OFF;
+    private File preloaded;
+
+    public PlaybackQueue(QueuePlayer player) {
+        this(player, 15000, new Random());
+    }
+
+    public PlaybackQueue(QueuePlayer player, long preloadLeadMillis, Random random) {
+        this.player = player;
+        this.preloadLeadMillis = preloadLeadMillis;
+        this.random = random;
+    }
+
+    public void playItems(List<File> newItems, int startIndex) {
+        File item;
+        synchronized (this) {
+            items.clear();
+            items.addAll(newItems);
+            if (items.isEmpty()) {
+                order = new int[0];
+                cursor = -1;
+                return;
+            }
+            rebuildOrder(Math.max(0, Math.min(startIndex, items.size() - 1)));
+            item = startCurrent();
+        }
+        player.play(item);
+    }
+
+    public synchronized void enqueue(Collection<File> newItems) {
+        int first = items.size();
+        items.addAll(newItems);
+        int[] extended = new int[items.size()];
+        System.arraycopy(order, 0, extended, 0, order.length);
+        for (int i = first; i < items.size(); i++) {
+            extended[i] = i;
+        }
+        if (shuffle) {
+            shuffleRange(extended, Math.max(first, cursor + 1), extended.length);
+        }
+        order = extended;
+        if (cursor < 0 && !items.isEmpty()) {
+            cursor = 0;
+        }
+    }
+
+    public boolean next() {
+        File item;
+        synchronized (this) {
+            int nextCursor = nextCursor(false);
+            if (nextCursor < 0) {
+                return false;
+            }
+            cursor = nextCursor;
+            item = startCurrent();
+        }
+        player.play(item);
+        return true;
+    }
+
+    public boolean previous() {
+        File item;
+        synchronized (this) {
+            if (cursor < 0) {
+                return false;
+            }
+            if (cursor > 0) {
+                cursor--;
+            } else if (repeatMode == RepeatMode.ALL) {
+                cursor = order.length - 1;
+            }
+            item = startCurrent();
+        }
+        player.play(item);
+        return true;
+    }
+
+    public void finished() {
+        File item;
+        synchronized (this) {
+            int nextCursor = nextCursor(true);
+            if (nextCursor < 0) {
+                preloaded = null;
+                return;
+            }
+            cursor = nextCursor;
+            item = startCurrent();
+        }
+        player.play(item);
+    }
+
+    public void timeChanged(long time, long length) {
+        File item;
+        synchronized (this) {
+            if (length <= 0 || length - time > preloadLeadMillis) {
+                return;
+            }
+            int nextCursor = nextCursor(true);
+            if (nextCursor < 0 || items.get(order[nextCursor]).equals(preloaded)) {
+                return;
+            }
+            item = items.get(order[nextCursor]);
+            preloaded = item;
+        }
+        player.preload(item);
+    }
+
+    public synchronized void setShuffle(boolean enabled) {
+        if (shuffle == enabled) {
+            return;
+        }
+        shuffle = enabled;
+        preloaded = null;
+        if (cursor >= 0) {
+            rebuildOrder(order[cursor]);
+        }
+    }
+
+    public synchronized boolean isShuffle() {
+        return shuffle;
+    }
+
+    public synchronized void setRepeatMode(RepeatMode mode) {
+        repeatMode = mode;
+        preloaded = null;
+    }
+
+    public synchronized RepeatMode getRepeatMode() {
+        return repeatMode;
+    }
+
+    public synchronized File getCurrentItem() {
+        return cursor < 0 ? null : items.get(order[cursor]);
+    }
+
+    public synchronized int getCurrentIndex() {
+        return cursor < 0 ? -1 : order[cursor];
+    }
+
+    public synchronized File peekNext() {
+        int nextCursor = nextCursor(true);
+        return nextCursor < 0 ? null : items.get(order[nextCursor]);
+    }
+
+    public synchronized List<File> getItems() {
+        return Collections.unmodifiableList(new ArrayList<>(items));
+    }
+
+    public synchronized int size() {
+        return items.size();
+    }
+
+    private File startCurrent() {
+        preloaded = null;
+        return items.get(order[cursor]);
+    }
+
+    private int nextCursor(boolean automatic) {
+        if (cursor < 0) {
+            return -1;
+        }
+        if (automatic && repeatMode == RepeatMode.ONE) {
+            return cursor;
+        }
+        if (cursor + 1 < order.length) {
+            return cursor + 1;
+        }
+        return repeatMode == RepeatMode.OFF ? -1 : 0;
+    }
+
+    private void rebuildOrder(int currentIndex) {
+        order = new int[items.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        if (shuffle) {
+            order[currentIndex] = 0;
+            order[0] = currentIndex;
+            shuffleRange(order, 1, order.length);
+            cursor = 0;
+        } else {
+            cursor = currentIndex;
+        }
+    }
+
+    private void shuffleRange(int[] values, int from, int to) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package MediaPlayerUI;
+
+import Metrics.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class PlayerPool<P> {
+    private static final Logger LOGGER = Logger.getLogger(PlayerPool.class.getName());
+
+    private final PlayerProvider<P> provider;
+    private final int maxLive;
+    private final int maxIdle;
+    private final Deque<P> idle = new ArrayDeque<>();
+    private int live;
+    private int created;
+    private boolean shutdown;
+
+    public PlayerPool(PlayerProvider<P> provider, int maxLive, int maxIdle) {
+        if (maxLive < 1 || maxIdle < 0 || maxIdle > maxLive) {
+            throw new IllegalArgumentException("Invalid pool limits: maxLive=" + maxLive + ", maxIdle=" + maxIdle);
+        }
+        this.provider = provider;
+        this.maxLive = maxLive;
+        this.maxIdle = maxIdle;
+    }
+
+    public synchronized P acquire() {
+        if (shutdown) {
+            throw new IllegalStateException("Player pool has been shut down");
+        }
+        P player = idle.pollFirst();
+        if (player != null) {
+            return player;
+        }
+        if (live >= maxLive) {
+            throw new IllegalStateException("Too many players open (limit " + maxLive + ")");
+        }
+        player = provider.create();
+        live++;
+        created++;
+        return player;
+    }
+
+    public synchronized void release(P player) {
+        if (!shutdown && idle.size() < maxIdle) {
+            try {
+                provider.reset(player);
+                idle.addFirst(player);
+                return;
+            } catch (RuntimeException e) {
+                Metrics.increment("player.resetFailures");
+                LOGGER.log(Level.WARNING, "Could not reset player; releasing it instead", e);
+                discard(player);
+                return;
+            }
+        }
+        discard(player);
+    }
+
+    public synchronized void shutdown() {
+        shutdown = true;
+        while (!idle.isEmpty()) {
+            discard(idle.pollFirst());
+        }
+    }
+
+    private void discard(P player) {
+        live--;
+        provider.release(player);
+    }
+
+    public synchronized boolean canAcquire() {
+        return !shutdown && (!idle.isEmpty() || live < maxLive);
+    }
+
+    public synchronized int getLiveCount() {
+        return live;
+    }
+
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    public synchronized int getInUseCount() {
+        return live - idle.size();
+    }
+
+    public synchronized int getCreatedCount() {
+        return created;
+    }
+}
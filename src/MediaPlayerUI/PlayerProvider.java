@@ -0,0 +1,9 @@
+package MediaPlayerUI;
+
+public interface PlayerProvider<P> {
+    P create();
+
+    void reset(P player);
+
+    void release(P player);
+}
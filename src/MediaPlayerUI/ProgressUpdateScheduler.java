@@ -0,0 +1,86 @@
+package MediaPlayerUI;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.swing.SwingUtilities;
+
+public class ProgressUpdateScheduler {
+    public interface Target {
+        void updateProgress(long time, long length);
+    }
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "progress-update-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Target target;
+    private final Executor uiExecutor;
+    private final ScheduledExecutorService timer;
+    private final long minIntervalNanos;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private volatile long latestTime;
+    private volatile long length = -1;
+    private volatile long lastDispatchNanos;
+    private volatile long postedCount;
+    private volatile long dispatchedCount;
+
+    public ProgressUpdateScheduler(Target target, long minIntervalMillis) {
+        this(target, SwingUtilities::invokeLater, TIMER, minIntervalMillis);
+    }
+
+    public ProgressUpdateScheduler(Target target, Executor uiExecutor, ScheduledExecutorService timer,
+            long minIntervalMillis) {
+        this.target = target;
+        this.uiExecutor = uiExecutor;
+        this.timer = timer;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+        this.lastDispatchNanos = System.nanoTime() - this.minIntervalNanos;
+    }
+
+    public void timeChanged(long newTime) {
+        latestTime = newTime;
+        schedule();
+    }
+
+    public void lengthChanged(long newLength) {
+        length = newLength;
+        schedule();
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public long getPostedCount() {
+        return postedCount;
+    }
+
+    public long getDispatchedCount() {
+        return dispatchedCount;
+    }
+
+    private void schedule() {
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+        postedCount++;
+        long wait = lastDispatchNanos + minIntervalNanos - System.nanoTime();
+        if (wait <= 0) {
+            uiExecutor.execute(this::dispatch);
+        } else {
+            timer.schedule(() -> uiExecutor.execute(this::dispatch), wait, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void dispatch() {
+        lastDispatchNanos = System.nanoTime();
+        pending.set(false);
+        dispatchedCount++;
+        target.updateProgress(latestTime, length);
+    }
+}
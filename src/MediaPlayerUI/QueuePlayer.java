@@ -0,0 +1,9 @@
+package MediaPlayerUI;
+
+import java.io.File;
+
+public interface QueuePlayer {
+    void play(File mediaFile);
+
+    void preload(File mediaFile);
+}
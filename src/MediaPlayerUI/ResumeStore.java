@@ -0,0 +1,301 @@
+package MediaPlayerUI;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+public class ResumeStore {
+    private static final int MAGIC = 0x43505250;
+    private static final int VERSION = 1;
+    private static final long EMPTY = 0;
+    private static final long MIN_RESUME_MILLIS = 5000;
+    private static final long END_MARGIN_MILLIS = 30000;
+    private static final Logger LOGGER = Logger.getLogger(ResumeStore.class.getName());
+
+    private static ResumeStore shared;
+    private static Consumer<IOException> sharedErrorHandler = e -> LOGGER.log(Level.WARNING,
+            "Could not save resume positions", e);
+
+    private final Path path;
+    private final ScheduledExecutorService writer;
+    private final Consumer<IOException> errorHandler;
+    private long[] keys = new long[1024];
+    private long[] positions = new long[1024];
+    private int count;
+    private boolean dirty;
+    private boolean flushQueued;
+    private long writes;
+    private boolean failing;
+
+    public ResumeStore(Path path, long flushIntervalMillis, Consumer<IOException> errorHandler) {
+        this.path = path;
+        this.errorHandler = errorHandler;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "resume-store-writer");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        load();
+        writer.scheduleWithFixedDelay(this::flushIfDirty, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized ResumeStore shared() {
+        if (shared == null) {
+            shared = new ResumeStore(Paths.get("resumePositions.db"), 10000,
+                    e -> currentSharedErrorHandler().accept(e));
+        }
+        return shared;
+    }
+
+    public static synchronized void setSharedErrorHandler(Consumer<IOException> errorHandler) {
+        sharedErrorHandler = errorHandler;
+    }
+
+    private static synchronized Consumer<IOException> currentSharedErrorHandler() {
+        return sharedErrorHandler;
+    }
+
+    static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+        }
+    }
+
+    public static long keyOf(File mediaFile) {
+        String path;
+        try {
+            path = mediaFile.getCanonicalPath();
+        } catch (IOException e) {
+            path = mediaFile.getAbsolutePath();
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < path.length(); i++) {
+            hash ^= path.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    public synchronized long get(long key) {
+        int slot = find(key);
+        return keys[slot] == key ? positions[slot] : 0;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized long getWriteCount() {
+        return writes;
+    }
+
+    public void record(long key, long time, long length) {
+        if (time < MIN_RESUME_MILLIS || (length > 0 && time >= length - END_MARGIN_MILLIS)) {
+            remove(key);
+        } else {
+            put(key, time);
+        }
+    }
+
+    public synchronized void put(long key, long position) {
+        int slot = find(key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            count++;
+        } else if (positions[slot] == position) {
+            return;
+        }
+        positions[slot] = position;
+        dirty = true;
+        if (count * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    public synchronized void remove(long key) {
+        int slot = find(key);
+        if (keys[slot] != key) {
+            return;
+        }
+        keys[slot] = EMPTY;
+        positions[slot] = 0;
+        count--;
+        dirty = true;
+        int mask = keys.length - 1;
+        for (int next = (slot + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            long movedKey = keys[next];
+            long movedPosition = positions[next];
+            keys[next] = EMPTY;
+            positions[next] = 0;
+            int target = find(movedKey);
+            keys[target] = movedKey;
+            positions[target] = movedPosition;
+        }
+    }
+
+    public synchronized void flush() {
+        if (dirty && !flushQueued && !writer.isShutdown()) {
+            flushQueued = true;
+            writer.execute(this::flushIfDirty);
+        }
+    }
+
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushIfDirty();
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (mixed ^ (mixed >>> 32)) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldPositions = positions;
+        keys = new long[capacity];
+        positions = new long[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                positions[slot] = oldPositions[i];
+            }
+        }
+    }
+
+    private void flushIfDirty() {
+        long[] snapshotKeys;
+        long[] snapshotPositions;
+        int snapshotCount;
+        synchronized (this) {
+            flushQueued = false;
+            if (!dirty) {
+                return;
+            }
+            snapshotKeys = Arrays.copyOf(keys, keys.length);
+            snapshotPositions = Arrays.copyOf(positions, positions.length);
+            snapshotCount = count;
+            dirty = false;
+        }
+        try {
+            write(snapshotKeys, snapshotPositions, snapshotCount);
+            synchronized (this) {
+                writes++;
+                failing = false;
+            }
+        } catch (IOException e) {
+            boolean report;
+            synchronized (this) {
+                dirty = true;
+                report = !failing;
+                failing = true;
+            }
+            if (report) {
+                errorHandler.accept(e);
+            }
+        }
+    }
+
+    private void write(long[] snapshotKeys, long[] snapshotPositions, int snapshotCount) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream fileOutput = Files.newOutputStream(temp);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOutput, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(snapshotCount);
+            for (int i = 0; i < snapshotKeys.length; i++) {
+                if (snapshotKeys[i] != EMPTY) {
+                    out.writeLong(snapshotKeys[i]);
+                    out.writeLong(snapshotPositions[i]);
+                    updateCrc(crc, snapshotKeys[i]);
+                    updateCrc(crc, snapshotPositions[i]);
+                }
+            }
+            out.writeLong(crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private synchronized void load() {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (InputStream fileInput = Files.newInputStream(path);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(fileInput, 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return;
+            }
+            int stored = in.readInt();
+            if (stored < 0 || stored > Files.size(path) / 16) {
+                return;
+            }
+            long[] storedKeys = new long[stored];
+            long[] storedPositions = new long[stored];
+            CRC32 crc = new CRC32();
+            for (int i = 0; i < stored; i++) {
+                storedKeys[i] = in.readLong();
+                storedPositions[i] = in.readLong();
+                updateCrc(crc, storedKeys[i]);
+                updateCrc(crc, storedPositions[i]);
+            }
+            if (in.readLong() != crc.getValue()) {
+                return;
+            }
+            for (int i = 0; i < stored; i++) {
+                put(storedKeys[i], storedPositions[i]);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            keys = new long[1024];
+            positions = new long[1024];
+            count = 0;
+        }
+    }
+
+    private static void updateCrc(CRC32 crc, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (value >>> shift));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package MediaPlayerUI;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+public class SeekCoalescer {
+    public interface Target {
+        void seek(long timeMillis);
+    }
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "seek-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final long RELATIVE_BASE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Target target;
+    private final LongSupplier currentTime;
+    private final LongSupplier length;
+    private final ScheduledExecutorService timer;
+    private final long minIntervalNanos;
+    private ScheduledFuture<?> scheduled;
+    private long pendingTarget = -1;
+    private long lastTarget = -1;
+    private long lastSeekNanos;
+    private long requestedCount;
+    private long issuedCount;
+
+    public SeekCoalescer(Target target, LongSupplier currentTime, LongSupplier length, long minIntervalMillis) {
+        this(target, currentTime, length, TIMER, minIntervalMillis);
+    }
+
+    public SeekCoalescer(Target target, LongSupplier currentTime, LongSupplier length, ScheduledExecutorService timer,
+            long minIntervalMillis) {
+        this.target = target;
+        this.currentTime = currentTime;
+        this.length = length;
+        this.timer = timer;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalMillis);
+        this.lastSeekNanos = System.nanoTime() - this.minIntervalNanos;
+    }
+
+    public synchronized void seekTo(long timeMillis) {
+        requestedCount++;
+        pendingTarget = clamp(timeMillis);
+        if (scheduled != null) {
+            return;
+        }
+        long wait = lastSeekNanos + minIntervalNanos - System.nanoTime();
+        scheduled = timer.schedule(this::fire, Math.max(0, wait), TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void seekBy(long deltaMillis) {
+        long base;
+        if (pendingTarget >= 0) {
+            base = pendingTarget;
+        } else if (lastTarget >= 0 && System.nanoTime() - lastSeekNanos < RELATIVE_BASE_NANOS) {
+            base = lastTarget;
+        } else {
+            base = currentTime.getAsLong();
+        }
+        seekTo(base + deltaMillis);
+    }
+
+    public synchronized void commit(long timeMillis) {
+        requestedCount++;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        pendingTarget = clamp(timeMillis);
+        timer.execute(this::fire);
+    }
+
+    public synchronized long getPendingTarget() {
+        return pendingTarget;
+    }
+
+    public synchronized long getRequestedCount() {
+        return requestedCount;
+    }
+
+    public synchronized long getIssuedCount() {
+        return issuedCount;
+    }
+
+    private long clamp(long timeMillis) {
+        long max = length.getAsLong();
+        return Math.max(0, max > 0 ? Math.min(timeMillis, max - 1) : timeMillis);
+    }
+
+    private void fire() {
+        long seekTarget;
+        synchronized (this) {
+            scheduled = null;
+            seekTarget = pendingTarget;
+            if (seekTarget < 0) {
+                return;
+            }
+            pendingTarget = -1;
+            long now = System.nanoTime();
+            if (seekTarget == lastTarget && now - lastSeekNanos < RELATIVE_BASE_NANOS) {
+                return;
+            }
+            lastTarget = seekTarget;
+            lastSeekNanos = now;
+            issuedCount++;
+        }
+        target.seek(seekTarget);
+    }
+}
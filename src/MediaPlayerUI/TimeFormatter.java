@@ -0,0 +1,41 @@
+package MediaPlayerUI;
+
+public class TimeFormatter {
+    private final char[] buffer = new char[12];
+    private long lastSeconds = Long.MIN_VALUE;
+    private String lastText;
+
+    public String format(long millis) {
+        long totalSeconds = Math.max(0, millis) / 1000;
+        if (totalSeconds == lastSeconds) {
+            return lastText;
+        }
+        long hours = totalSeconds / 3600;
+        int minutes = (int) (totalSeconds / 60 % 60);
+        int seconds = (int) (totalSeconds % 60);
+
+        int position = buffer.length;
+        position = writeTwoDigits(seconds, position);
+        buffer[--position] = ':';
+        position = writeTwoDigits(minutes, position);
+        buffer[--position] = ':';
+        if (hours < 100) {
+            position = writeTwoDigits((int) hours, position);
+        } else {
+            do {
+                buffer[--position] = (char) ('0' + hours % 10);
+                hours /= 10;
+            } while (hours > 0 && position > 0);
+        }
+
+        lastSeconds = totalSeconds;
+        lastText = new String(buffer, position, buffer.length - position);
+        return lastText;
+    }
+
+    private int writeTwoDigits(int value, int position) {
+        buffer[--position] = (char) ('0' + value % 10);
+        buffer[--position] = (char) ('0' + value / 10);
+        return position;
+    }
+}
@@ -0,0 +1,91 @@
+package MediaPlayerUI;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.player.base.MediaPlayer;
+import uk.co.caprica.vlcj.player.base.MediaPlayerEventAdapter;
+
+public class VlcFrameGrabber implements FrameGrabber {
+    private static final String[] FACTORY_ARGS = { "--intf=dummy", "--vout=dummy", "--no-audio", "--no-osd",
+            "--no-spu", "--no-stats", "--no-video-title-show", "--quiet" };
+    private static final float SNAPSHOT_POSITION = 0.1f;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final List<MediaPlayer> players = new ArrayList<>();
+    private final ThreadLocal<MediaPlayer> threadPlayer = new ThreadLocal<>();
+    private MediaPlayerFactory factory;
+    private boolean closed;
+
+    @Override
+    public BufferedImage grab(File mediaFile, int width, int height) throws IOException {
+        MediaPlayer player = playerForCurrentThread();
+        CountDownLatch positioned = new CountDownLatch(1);
+        MediaPlayerEventAdapter listener = new MediaPlayerEventAdapter() {
+            @Override
+            public void positionChanged(MediaPlayer mediaPlayer, float newPosition) {
+                if (newPosition >= SNAPSHOT_POSITION * 0.9f) {
+                    positioned.countDown();
+                }
+            }
+        };
+        player.events().addMediaPlayerEventListener(listener);
+        try {
+            if (!player.media().start(mediaFile.getAbsolutePath())) {
+                throw new IOException("Unable to open " + mediaFile);
+            }
+            player.controls().setPosition(SNAPSHOT_POSITION);
+            if (!positioned.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Timed out seeking " + mediaFile);
+            }
+            BufferedImage image = player.snapshots().get(width, height);
+            if (image == null) {
+                throw new IOException("No frame available for " + mediaFile);
+            }
+            return image;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted grabbing " + mediaFile, e);
+        } finally {
+            player.events().removeMediaPlayerEventListener(listener);
+            player.controls().stop();
+        }
+    }
+
+    private MediaPlayer playerForCurrentThread() {
+        MediaPlayer player = threadPlayer.get();
+        if (player == null) {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Frame grabber is closed");
+                }
+                if (factory == null) {
+                    VlcPlayerProvider.factory();
+                    factory = new MediaPlayerFactory(FACTORY_ARGS);
+                }
+                player = factory.mediaPlayers().newMediaPlayer();
+                players.add(player);
+            }
+            threadPlayer.set(player);
+        }
+        return player;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (MediaPlayer player : players) {
+            player.release();
+        }
+        players.clear();
+        if (factory != null) {
+            factory.release();
+            factory = null;
+        }
+    }
+}
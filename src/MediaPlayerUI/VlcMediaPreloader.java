@@ -0,0 +1,45 @@
+package MediaPlayerUI;
+
+import java.io.File;
+import uk.co.caprica.vlcj.media.Media;
+import uk.co.caprica.vlcj.media.MediaRef;
+import uk.co.caprica.vlcj.media.ParseFlag;
+
+class VlcMediaPreloader {
+    private File preloadedFile;
+    private MediaRef preloadedRef;
+    private Media parsingMedia;
+
+    synchronized void preload(File mediaFile) {
+        if (mediaFile.equals(preloadedFile)) {
+            return;
+        }
+        release();
+        preloadedFile = mediaFile;
+        preloadedRef = VlcPlayerProvider.factory().media().newMediaRef(mediaFile.getAbsolutePath());
+        parsingMedia = preloadedRef.newMedia();
+        parsingMedia.parsing().parse(ParseFlag.PARSE_LOCAL);
+    }
+
+    synchronized MediaRef take(File mediaFile) {
+        if (!mediaFile.equals(preloadedFile)) {
+            return null;
+        }
+        MediaRef ref = preloadedRef;
+        preloadedRef = null;
+        release();
+        return ref;
+    }
+
+    synchronized void release() {
+        if (parsingMedia != null) {
+            parsingMedia.release();
+            parsingMedia = null;
+        }
+        if (preloadedRef != null) {
+            preloadedRef.release();
+            preloadedRef = null;
+        }
+        preloadedFile = null;
+    }
+}
@@ -0,0 +1,57 @@
+package MediaPlayerUI;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import uk.co.caprica.vlcj.media.Media;
+import uk.co.caprica.vlcj.media.MediaEventAdapter;
+import uk.co.caprica.vlcj.media.MediaParsedStatus;
+import uk.co.caprica.vlcj.media.MediaRef;
+import uk.co.caprica.vlcj.media.ParseFlag;
+
+public class VlcMediaPreparer implements MediaPreparer<MediaRef> {
+    private static final int HEADER_BYTES = 64 * 1024;
+    private static final int PARSE_TIMEOUT_MILLIS = 2000;
+
+    @Override
+    public void initialize() {
+        VlcPlayerProvider.factory();
+    }
+
+    @Override
+    public MediaRef prepare(File mediaFile) throws IOException {
+        try (InputStream in = Files.newInputStream(mediaFile.toPath())) {
+            in.read(new byte[HEADER_BYTES]);
+        }
+        MediaRef ref = VlcPlayerProvider.factory().media().newMediaRef(mediaFile.getAbsolutePath());
+        Media media = ref.newMedia();
+        try {
+            CountDownLatch parsed = new CountDownLatch(1);
+            media.events().addMediaEventListener(new MediaEventAdapter() {
+                @Override
+                public void mediaParsedChanged(Media media, MediaParsedStatus newStatus) {
+                    parsed.countDown();
+                }
+            });
+            if (media.parsing().parse(PARSE_TIMEOUT_MILLIS, ParseFlag.PARSE_LOCAL)) {
+                parsed.await(PARSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            return ref;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ref.release();
+            throw new InterruptedIOException("Interrupted while parsing " + mediaFile);
+        } finally {
+            media.release();
+        }
+    }
+
+    @Override
+    public void release(MediaRef media) {
+        media.release();
+    }
+}
@@ -0,0 +1,73 @@
+package MediaPlayerUI;
+
+import Metrics.Metrics;
+import uk.co.caprica.vlcj.factory.MediaPlayerFactory;
+import uk.co.caprica.vlcj.factory.discovery.NativeDiscovery;
+import uk.co.caprica.vlcj.media.MediaRef;
+import uk.co.caprica.vlcj.player.component.EmbeddedMediaPlayerComponent;
+
+public class VlcPlayerProvider implements PlayerProvider<EmbeddedMediaPlayerComponent> {
+    private static final int MAX_LIVE_PLAYERS = 4;
+    private static final int MAX_IDLE_PLAYERS = 2;
+    private static final long WARMUP_DELAY_MILLIS = 150;
+    private static final int MAX_WARM_MEDIA = 4;
+
+    private static final PlayerPool<EmbeddedMediaPlayerComponent> SHARED_POOL = new PlayerPool<>(
+            new VlcPlayerProvider(), MAX_LIVE_PLAYERS, MAX_IDLE_PLAYERS);
+    private static final MediaWarmup<MediaRef> SHARED_WARMUP = new MediaWarmup<>(new VlcMediaPreparer(),
+            WARMUP_DELAY_MILLIS, MAX_WARM_MEDIA);
+
+    private static MediaPlayerFactory factory;
+    private static boolean discoveryFailed;
+
+    public static PlayerPool<EmbeddedMediaPlayerComponent> sharedPool() {
+        return SHARED_POOL;
+    }
+
+    public static MediaWarmup<MediaRef> sharedWarmup() {
+        return SHARED_WARMUP;
+    }
+
+    public static synchronized MediaPlayerFactory factory() {
+        if (factory == null) {
+            long start = Metrics.startTimer();
+            if (discoveryFailed || !new NativeDiscovery().discover()) {
+                discoveryFailed = true;
+                throw new IllegalStateException("VLC native libraries not found!");
+            }
+            factory = new MediaPlayerFactory();
+            Metrics.stopTimer("vlc.factoryInit", start);
+        }
+        return factory;
+    }
+
+    public static void shutdown() {
+        SHARED_WARMUP.shutdown();
+        SHARED_POOL.shutdown();
+        synchronized (VlcPlayerProvider.class) {
+            if (factory != null && SHARED_POOL.getLiveCount() == 0) {
+                factory.release();
+                factory = null;
+            }
+        }
+    }
+
+    @Override
+    public EmbeddedMediaPlayerComponent create() {
+        return new EmbeddedMediaPlayerComponent(factory(), null, null, null, null);
+    }
+
+    @Override
+    public void reset(EmbeddedMediaPlayerComponent player) {
+        player.mediaPlayer().controls().stop();
+        if (player.getParent() != null) {
+            player.getParent().remove(player);
+        }
+    }
+
+    @Override
+    public void release(EmbeddedMediaPlayerComponent player) {
+        player.mediaPlayer().controls().stop();
+        player.release();
+    }
+}
@@ -0,0 +1,48 @@
+package Metrics;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+class EdtStallDetector extends EventQueue {
+    private static final Logger LOGGER = Logger.getLogger(EdtStallDetector.class.getName());
+
+    private final long stallNanos;
+
+    private EdtStallDetector(long stallMillis) {
+        this.stallNanos = TimeUnit.MILLISECONDS.toNanos(stallMillis);
+    }
+
+    static EdtStallDetector install(long stallMillis) {
+        EdtStallDetector detector = new EdtStallDetector(stallMillis);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(detector);
+        return detector;
+    }
+
+    void uninstall() {
+        pop();
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long start = System.nanoTime();
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Metrics.record("edt.dispatch", elapsed);
+            if (elapsed >= stallNanos) {
+                Metrics.increment("edt.stalls");
+                LOGGER.warning("EDT stalled for " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms dispatching "
+                        + describe(event));
+            }
+        }
+    }
+
+    private static String describe(AWTEvent event) {
+        String source = event.getSource() == null ? "null" : event.getSource().getClass().getName();
+        return event.getClass().getSimpleName() + " (id " + event.getID() + ") from " + source;
+    }
+}
@@ -0,0 +1,115 @@
+package Metrics;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("cinema.metrics");
+
+    private static final Logger LOGGER = Logger.getLogger(Metrics.class.getName());
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> TIMERS = new ConcurrentHashMap<>();
+
+    private static MetricsReporter reporter;
+    private static EdtStallDetector stallDetector;
+    private static ObjectName objectName;
+
+    private Metrics() {
+    }
+
+    public static synchronized void install() {
+        if (!ENABLED || reporter != null) {
+            return;
+        }
+        Path csvPath = Paths.get(System.getProperty("cinema.metrics.csv", "metrics.csv"));
+        long intervalMillis = Long.getLong("cinema.metrics.intervalMillis", 60000L);
+        long stallMillis = Long.getLong("cinema.metrics.edtStallMillis", 100L);
+        reporter = new MetricsReporter(csvPath, intervalMillis);
+        stallDetector = EdtStallDetector.install(stallMillis);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName("CinemaPlayer:type=Metrics");
+            server.registerMBean(new MetricsBean(), objectName);
+        } catch (JMException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not register metrics MBean", e);
+            objectName = null;
+        }
+    }
+
+    public static synchronized void shutdown() {
+        if (reporter == null) {
+            return;
+        }
+        reporter.close();
+        reporter = null;
+        if (stallDetector != null) {
+            stallDetector.uninstall();
+            stallDetector = null;
+        }
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOGGER.log(Level.FINE, "Could not unregister metrics MBean", e);
+            }
+            objectName = null;
+        }
+    }
+
+    public static void increment(String name) {
+        if (ENABLED) {
+            add(name, 1);
+        }
+    }
+
+    public static void add(String name, long delta) {
+        if (ENABLED) {
+            COUNTERS.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    public static long startTimer() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    public static void stopTimer(String name, long startNanos) {
+        if (ENABLED) {
+            record(name, System.nanoTime() - startNanos);
+        }
+    }
+
+    public static void record(String name, long nanos) {
+        if (ENABLED) {
+            TIMERS.computeIfAbsent(name, k -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> counters = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> counter : COUNTERS.entrySet()) {
+            counters.put(counter.getKey(), counter.getValue().sum());
+        }
+        return counters;
+    }
+
+    public static Map<String, LatencyHistogram> getTimers() {
+        return new TreeMap<>(TIMERS);
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+        for (LatencyHistogram histogram : TIMERS.values()) {
+            histogram.reset();
+        }
+    }
+}
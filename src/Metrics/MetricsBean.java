@@ -0,0 +1,30 @@
+package Metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+class MetricsBean implements MetricsMXBean {
+    @Override
+    public Map<String, Long> getCounters() {
+        return Metrics.getCounters();
+    }
+
+    @Override
+    public Map<String, TimerSnapshot> getTimers() {
+        Map<String, TimerSnapshot> timers = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> timer : Metrics.getTimers().entrySet()) {
+            timers.put(timer.getKey(), TimerSnapshot.of(timer.getValue()));
+        }
+        return timers;
+    }
+
+    @Override
+    public String getCsv() {
+        return MetricsReporter.toCsv(System.currentTimeMillis(), true);
+    }
+
+    @Override
+    public void reset() {
+        Metrics.reset();
+    }
+}
@@ -0,0 +1,13 @@
+package Metrics;
+
+import java.util.Map;
+
+public interface MetricsMXBean {
+    Map<String, Long> getCounters();
+
+    Map<String, TimerSnapshot> getTimers();
+
+    String getCsv();
+
+    void reset();
+}
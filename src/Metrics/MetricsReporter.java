@@ -0,0 +1,74 @@
+package Metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+class MetricsReporter {
+    private static final Logger LOGGER = Logger.getLogger(MetricsReporter.class.getName());
+    private static final String HEADER = "timestamp,name,type,count,mean_ms,p50_ms,p90_ms,p99_ms,max_ms\n";
+
+    private final Path csvPath;
+    private final ScheduledExecutorService executor;
+
+    MetricsReporter(Path csvPath, long intervalMillis) {
+        this.csvPath = csvPath;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-reporter");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::report, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void close() {
+        executor.shutdownNow();
+        report();
+    }
+
+    private synchronized void report() {
+        String rows = toCsv(System.currentTimeMillis(), false);
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            if (!Files.exists(csvPath)) {
+                Files.write(csvPath, HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            Files.write(csvPath, rows.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write metrics to " + csvPath, e);
+        }
+        LOGGER.fine(rows);
+    }
+
+    static String toCsv(long timestamp, boolean includeHeader) {
+        StringBuilder csv = new StringBuilder(includeHeader ? HEADER : "");
+        for (Map.Entry<String, Long> counter : Metrics.getCounters().entrySet()) {
+            csv.append(timestamp).append(',').append(counter.getKey()).append(",counter,")
+                    .append(counter.getValue()).append(",,,,,\n");
+        }
+        for (Map.Entry<String, LatencyHistogram> timer : Metrics.getTimers().entrySet()) {
+            TimerSnapshot snapshot = TimerSnapshot.of(timer.getValue());
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            csv.append(timestamp).append(',').append(timer.getKey()).append(",timer,").append(snapshot.getCount())
+                    .append(String.format(Locale.ROOT, ",%.3f,%.3f,%.3f,%.3f,%.3f\n", snapshot.getMeanMillis(),
+                            snapshot.getP50Millis(), snapshot.getP90Millis(), snapshot.getP99Millis(),
+                            snapshot.getMaxMillis()));
+        }
+        return csv.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package Metrics;
+
+import java.beans.ConstructorProperties;
+
+public final class TimerSnapshot {
+    private final long count;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    @ConstructorProperties({ "count", "meanMillis", "p50Millis", "p90Millis", "p99Millis", "maxMillis" })
+    public TimerSnapshot(long count, double meanMillis, double p50Millis, double p90Millis, double p99Millis,
+            double maxMillis) {
+        this.count = count;
+        this.meanMillis = meanMillis;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public static TimerSnapshot of(LatencyHistogram histogram) {
+        return new TimerSnapshot(histogram.getCount(), histogram.getMeanNanos() / 1e6,
+                histogram.getPercentileNanos(50) / 1e6, histogram.getPercentileNanos(90) / 1e6,
+                histogram.getPercentileNanos(99) / 1e6, histogram.getMaxNanos() / 1e6);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+}
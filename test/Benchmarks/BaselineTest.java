@@ -0,0 +1,57 @@
+package Benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaselineTest {
+    private static final PrintStream QUIET = new PrintStream(new ByteArrayOutputStream());
+
+    @Test
+    void roundTripsThroughCsv(@TempDir Path directory) throws IOException {
+        Baseline results = new Baseline();
+        results.add("LibraryBenchmark.searchQuery", "entries=1000", 0.125, "ms/op");
+        results.add("EntryMemoryBenchmark.library", "entries=100000", 58.5, "B/entry");
+        Path csv = directory.resolve("baseline.csv");
+        results.write(csv);
+
+        Baseline read = Baseline.read(csv);
+        assertEquals(2, read.rows().size());
+        assertEquals(0.125, read.get("LibraryBenchmark.searchQuery", "entries=1000").getScore(), 1e-9);
+        assertEquals("B/entry", read.get("EntryMemoryBenchmark.library", "entries=100000").getUnit());
+    }
+
+    @Test
+    void failsOnlyPastTheTolerance() {
+        Baseline expected = new Baseline();
+        expected.add("LibraryBenchmark.folderScan", "entries=1000", 10, "ms/op");
+        expected.add("LibraryBenchmark.libraryLoad", "entries=1000", 10, "ms/op");
+        expected.add("LibraryBenchmark.libraryAdd", "entries=1000", 10, "ms/op");
+
+        Baseline current = new Baseline();
+        current.add("LibraryBenchmark.folderScan", "entries=1000", 12.9, "ms/op");
+        current.add("LibraryBenchmark.libraryLoad", "entries=1000", 13.1, "ms/op");
+        current.add("LibraryBenchmark.searchQuery", "entries=1000", 99, "ms/op");
+
+        List<Baseline.Row> regressions = current.regressionsAgainst(expected, 0.30, QUIET);
+        assertEquals(1, regressions.size());
+        assertEquals("LibraryBenchmark.libraryLoad", regressions.get(0).getBenchmark());
+    }
+
+    @Test
+    void fasterResultsNeverRegress() {
+        Baseline expected = new Baseline();
+        expected.add("LibraryBenchmark.searchQuery", "entries=100000", 5, "ms/op");
+        Baseline current = new Baseline();
+        current.add("LibraryBenchmark.searchQuery", "entries=100000", 0.5, "ms/op");
+        assertTrue(current.regressionsAgainst(expected, 0, QUIET).isEmpty());
+    }
+}
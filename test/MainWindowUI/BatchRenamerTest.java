@@ -0,0 +1,144 @@
+package MainWindowUI;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchRenamerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void computesNewNamesForEachMode() {
+        assertEquals("new-a.mkv", BatchRenamer.prefix("new-").newName("a.mkv", 0));
+        assertEquals("a (1080p).mkv", BatchRenamer.suffix(" (1080p)").newName("a.mkv", 0));
+        assertEquals("Movie 2019.mp4", BatchRenamer.regex("[._]", " ").newName("Movie.2019.mp4", 0));
+        assertEquals("Episode 007.avi", BatchRenamer.sequence("Episode ###", 5).newName("x.avi", 2));
+        assertThrows(IllegalArgumentException.class, () -> BatchRenamer.sequence("Episode", 1));
+        assertThrows(IllegalArgumentException.class, () -> BatchRenamer.regex("(", ""));
+    }
+
+    @Test
+    void renamesABatchOnDisk() throws IOException {
+        List<File> files = create("b.mkv", "a.mp4", "c.avi");
+
+        List<BatchRenamer.Outcome> outcomes = BatchRenamer.sequence("Show ##", 1).rename(files);
+
+        for (BatchRenamer.Outcome outcome : outcomes) {
+            assertNull(outcome.getError());
+            assertTrue(outcome.isRenamed());
+        }
+        assertEquals(Arrays.asList("Show 01.mkv", "Show 02.mp4", "Show 03.avi"), names(outcomes));
+        assertEquals(Arrays.asList("Show 01.mkv", "Show 02.mp4", "Show 03.avi"), listDirectory());
+    }
+
+    @Test
+    void reportsFailuresPerFileAndRenamesTheRest() throws IOException {
+        List<File> files = create("one.mkv", "two.mkv", "three.mkv");
+        Files.createFile(directory.resolve("x-two.mkv"));
+        Files.delete(directory.resolve("three.mkv"));
+
+        List<BatchRenamer.Outcome> outcomes = BatchRenamer.prefix("x-").rename(files);
+
+        assertTrue(outcomes.get(0).isRenamed());
+        assertEquals("x-two.mkv already exists", outcomes.get(1).getError());
+        assertFalse(outcomes.get(1).isRenamed());
+        assertEquals(files.get(2), outcomes.get(2).getTarget());
+        assertNotNull(outcomes.get(2).getError());
+        assertEquals(Arrays.asList("two.mkv", "x-one.mkv", "x-two.mkv"), listDirectory());
+    }
+
+    @Test
+    void rejectsCollisionsAndUnsupportedNamesBeforeTouchingDisk() throws IOException {
+        List<File> files = create("a.mkv", "b.mkv", "c.mkv");
+
+        List<BatchRenamer.Outcome> outcomes = new ArrayList<>(BatchRenamer.regex("[ab]", "z").rename(files));
+        outcomes.addAll(BatchRenamer.named("c.txt").rename(files.subList(2, 3)));
+
+        assertTrue(outcomes.get(0).isRenamed());
+        assertEquals("another file in this batch is also renamed to z.mkv", outcomes.get(1).getError());
+        assertFalse(outcomes.get(2).isRenamed());
+        assertNull(outcomes.get(2).getError());
+        assertEquals("\"c.txt\" is not a supported media file name", outcomes.get(3).getError());
+        assertEquals(Arrays.asList("b.mkv", "c.mkv", "z.mkv"), listDirectory());
+    }
+
+    @Test
+    void appliesARenameBatchToTheLibraryInOnePass() throws IOException {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            files.addAll(create(String.format("clip-%03d.mp4", i)));
+        }
+        MediaLibrary library = new MediaLibrary();
+        library.addFiles(files);
+        MediaLibraryView view = new MediaLibraryView(library);
+        List<String> events = new ArrayList<>();
+        view.addListener((start, removedCount, addedCount) -> events.add(start + "/" + removedCount + "/"
+                + addedCount));
+
+        List<File> selected = files.subList(100, 300);
+        List<BatchRenamer.Outcome> outcomes = BatchRenamer.regex("^clip", "take").rename(selected);
+        int[] indices = new int[outcomes.size()];
+        List<MediaEntry> renamed = new ArrayList<>();
+        for (int i = 0; i < outcomes.size(); i++) {
+            assertTrue(outcomes.get(i).isRenamed());
+            indices[i] = library.indexOf(outcomes.get(i).getSource());
+            renamed.add(MediaLibrary.describe(outcomes.get(i).getTarget()));
+        }
+        library.replaceAll(indices, renamed);
+
+        assertEquals(1, events.size());
+        assertEquals(300, library.size());
+        assertEquals(names(new MediaLibraryView(library)), names(view));
+        assertEquals(200, listDirectory().stream().filter(name -> name.startsWith("take-")).count());
+
+        events.clear();
+        library.removeIndices(new int[] { 0, 5, 150, 299 });
+        assertEquals(1, events.size());
+        assertEquals(names(new MediaLibraryView(library)), names(view));
+    }
+
+    private List<File> create(String... names) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (String name : names) {
+            files.add(Files.createFile(directory.resolve(name)).toFile());
+        }
+        return files;
+    }
+
+    private List<String> listDirectory() {
+        String[] names = directory.toFile().list();
+        Arrays.sort(names);
+        return Arrays.asList(names);
+    }
+
+    private static List<String> names(List<BatchRenamer.Outcome> outcomes) {
+        List<String> names = new ArrayList<>();
+        for (BatchRenamer.Outcome outcome : outcomes) {
+            names.add(outcome.getTarget().getName());
+        }
+        return names;
+    }
+
+    private static List<String> names(MediaLibraryView view) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < view.size(); i++) {
+            names.add(view.get(i).getPath());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,115 @@
+package MainWindowUI;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class FolderScannerTest {
+    @Test
+    void importsNestedMediaIntoTheLibrary(@TempDir Path root) throws IOException {
+        for (int i = 0; i < 5; i++) {
+            Path directory = Files.createDirectories(root.resolve("season-" + i).resolve("disc"));
+            Files.createFile(directory.resolve("episode-" + i + ".mkv"));
+            Files.createFile(directory.resolve("episode-" + i + ".MP4"));
+            Files.createFile(directory.resolve("notes.txt"));
+        }
+
+        MediaLibrary library = new MediaLibrary();
+        List<Integer> batchSizes = new ArrayList<>();
+        FolderScanner.Result result = new FolderScanner(3, 60000).scan(root, new Recorder() {
+            @Override
+            public void batchFound(List<File> batch) {
+                batchSizes.add(batch.size());
+                List<MediaEntry> entries = new ArrayList<>();
+                for (File file : batch) {
+                    entries.add(MediaLibrary.describe(file));
+                }
+                library.addAll(entries);
+            }
+        });
+
+        assertEquals(10, result.getFilesFound());
+        assertEquals(11, result.getDirectoriesVisited());
+        assertFalse(result.isCancelled());
+        assertEquals(10, library.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 3));
+        assertTrue(library.contains(root.resolve("season-2").resolve("disc").resolve("episode-2.MP4").toFile()));
+    }
+
+    @Test
+    void reportsProgressWhileNoMediaIsFound(@TempDir Path root) throws IOException {
+        for (int i = 0; i < 200; i++) {
+            Files.createDirectories(root.resolve("empty-" + i));
+        }
+
+        Recorder recorder = new Recorder();
+        new FolderScanner(500, 60000).scan(root, recorder);
+
+        assertTrue(recorder.progressReports >= 3, "progress reported " + recorder.progressReports + " times");
+        assertEquals(201, recorder.lastDirectories);
+    }
+
+    @Test
+    void followsSymlinkedMediaFiles(@TempDir Path root) throws IOException {
+        Path target = Files.createFile(Files.createDirectories(root.resolve("store")).resolve("movie.avi"));
+        Path scanned = Files.createDirectories(root.resolve("library"));
+        try {
+            Files.createSymbolicLink(scanned.resolve("linked.avi"), target);
+        } catch (UnsupportedOperationException | IOException e) {
+            assumeTrue(false, "symbolic links are not supported here");
+        }
+
+        Recorder recorder = new Recorder();
+        FolderScanner.Result result = new FolderScanner().scan(scanned, recorder);
+
+        assertEquals(1, result.getFilesFound());
+        assertEquals(scanned.resolve("linked.avi").toFile(), recorder.files.get(0));
+    }
+
+    @Test
+    void stopsWhenCancelled(@TempDir Path root) throws IOException {
+        for (int i = 0; i < 20; i++) {
+            Files.createFile(Files.createDirectories(root.resolve("folder-" + i)).resolve("clip.mp4"));
+        }
+
+        FolderScanner scanner = new FolderScanner(1, 60000);
+        FolderScanner.Result result = scanner.scan(root, new Recorder() {
+            @Override
+            public void batchFound(List<File> batch) {
+                super.batchFound(batch);
+                scanner.cancel();
+            }
+        });
+
+        assertTrue(result.isCancelled());
+        assertEquals(1, result.getFilesFound());
+    }
+
+    private static class Recorder implements FolderScanner.Listener {
+        final List<File> files = new ArrayList<>();
+        int progressReports;
+        int lastDirectories;
+
+        @Override
+        public void batchFound(List<File> batch) {
+            files.addAll(batch);
+        }
+
+        @Override
+        public void progress(int directoriesVisited, int filesFound) {
+            progressReports++;
+            lastDirectories = directoriesVisited;
+        }
+    }
+}
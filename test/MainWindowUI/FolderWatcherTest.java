@@ -0,0 +1,120 @@
+package MainWindowUI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FolderWatcherTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final BlockingQueue<Changes> changes = new LinkedBlockingQueue<>();
+    private FolderWatcher watcher;
+
+    @AfterEach
+    void shutdown() {
+        if (watcher != null) {
+            watcher.shutdown();
+        }
+    }
+
+    @Test
+    void reportsUnknownFilesOnTheFirstScan(@TempDir Path root) throws IOException, InterruptedException {
+        Path folder = root.toRealPath();
+        Path known = Files.createFile(folder.resolve("known.mkv"));
+        Path unknown = Files.createFile(Files.createDirectories(folder.resolve("nested")).resolve("unknown.mp4"));
+        Files.createFile(folder.resolve("notes.txt"));
+
+        watcher = new FolderWatcher((created, deleted) -> changes.add(new Changes(created, deleted)), 50,
+                TimeUnit.HOURS.toMillis(1));
+        watcher.watch(folder.toFile(), Collections.singletonList(MediaLibrary.describe(known.toFile())));
+
+        Changes first = next();
+        assertEquals(Collections.singleton(unknown.toString()), first.createdPaths());
+        assertTrue(first.deleted.isEmpty());
+    }
+
+    @Test
+    void reportsCreatedAndDeletedFiles(@TempDir Path root) throws IOException, InterruptedException {
+        Path folder = root.toRealPath();
+        Path known = Files.createFile(folder.resolve("known.avi"));
+
+        watcher = new FolderWatcher((created, deleted) -> changes.add(new Changes(created, deleted)), 50,
+                TimeUnit.HOURS.toMillis(1));
+        watcher.watch(folder.toFile(), Collections.singletonList(MediaLibrary.describe(known.toFile())));
+        watcher.rescan();
+        Thread.sleep(200);
+
+        Path added = Files.createFile(folder.resolve("added.mkv"));
+        Files.delete(known);
+
+        Set<String> created = new HashSet<>();
+        Set<File> deleted = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while ((created.isEmpty() || deleted.isEmpty()) && System.nanoTime() < deadline) {
+            Changes next = changes.poll(100, TimeUnit.MILLISECONDS);
+            if (next != null) {
+                created.addAll(next.createdPaths());
+                deleted.addAll(next.deleted);
+            }
+        }
+        assertEquals(Collections.singleton(added.toString()), created);
+        assertEquals(Collections.singleton(known.toFile()), deleted);
+    }
+
+    @Test
+    void stopsReportingAfterUnwatch(@TempDir Path root) throws IOException, InterruptedException {
+        Path folder = root.toRealPath();
+        watcher = new FolderWatcher((created, deleted) -> changes.add(new Changes(created, deleted)), 50,
+                TimeUnit.HOURS.toMillis(1));
+        watcher.watch(folder.toFile(), Collections.<MediaEntry>emptyList());
+        watcher.unwatch(folder.toFile());
+        Thread.sleep(200);
+
+        Files.createFile(folder.resolve("ignored.mp4"));
+        watcher.rescan();
+
+        assertNull(changes.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    private Changes next() throws InterruptedException {
+        Changes next = changes.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(next, "no changes reported");
+        return next;
+    }
+
+    private static final class Changes {
+        final List<MediaEntry> created;
+        final List<File> deleted;
+
+        Changes(List<MediaEntry> created, List<File> deleted) {
+            this.created = new ArrayList<>(created);
+            this.deleted = new ArrayList<>(deleted);
+        }
+
+        Set<String> createdPaths() {
+            Set<String> paths = new HashSet<>();
+            for (MediaEntry entry : created) {
+                paths.add(entry.getFile().getPath());
+            }
+            return paths;
+        }
+    }
+}
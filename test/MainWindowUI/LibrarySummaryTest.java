@@ -0,0 +1,126 @@
+package MainWindowUI;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LibrarySummaryTest {
+    private static final String[] WORDS = { "alien", "Matrix", "heat", "akira", "fargo", "Amélie", "dune" };
+    private static final String[] QUERIES = { "matrix", "alien 19", "dir3" + File.separator + "fa", "amelie", "ame",
+            "s02e1", "xyzzy", "ak", "é", "heat 2" };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void indexedSearchFindsEveryPathThatContainsTheQuery() {
+        List<MediaEntry> entries = entries(3000);
+        LibrarySummary summary = new LibrarySummary(entries);
+
+        for (String query : QUERIES) {
+            assertEquals(expected(entries, query), found(summary, query), query);
+        }
+    }
+
+    @Test
+    void ranksNamePrefixesFirst() {
+        List<MediaEntry> entries = Arrays.asList(entry("/media/alien/heat.mkv"), entry("/media/a/the alien.mkv"),
+                entry("/media/a/alien.mkv"));
+
+        List<MediaSearchIndex.Hit> hits = new LibrarySummary(entries).search("ALIEN", 10);
+
+        assertEquals(Arrays.asList("alien.mkv", "the alien.mkv", "heat.mkv"), names(hits));
+        assertEquals(2, new LibrarySummary(entries).search("alien", 2).size());
+    }
+
+    @Test
+    void readsBackWhatItWroteWhileTheJournalIsUnchanged() throws IOException {
+        List<MediaEntry> entries = entries(2000);
+        Path path = directory.resolve("summary.bin");
+        new LibrarySummary(entries).write(path, 100, 200);
+
+        LibrarySummary read = LibrarySummary.read(path, 100, 200);
+
+        assertNotNull(read);
+        assertEquals(entries.size(), read.getCount());
+        for (String query : QUERIES) {
+            assertEquals(expected(entries, query), found(read, query), query);
+        }
+        assertNull(LibrarySummary.read(path, 100, 201));
+        assertNull(LibrarySummary.read(directory.resolve("missing.bin"), 100, 200));
+    }
+
+    @Test
+    void rejectsATruncatedOrCorruptIndex() throws IOException {
+        Path path = directory.resolve("summary.bin");
+        new LibrarySummary(entries(500)).write(path, 1, 1);
+        byte[] bytes = Files.readAllBytes(path);
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 10));
+        assertThrows(IOException.class, () -> LibrarySummary.read(path, 1, 1));
+
+        int pathsLength = ((bytes[36] & 0xFF) << 24) | ((bytes[37] & 0xFF) << 16) | ((bytes[38] & 0xFF) << 8)
+                | (bytes[39] & 0xFF);
+        byte[] corrupt = bytes.clone();
+        corrupt[40 + pathsLength + 8] = 0x7F;
+        Files.write(path, corrupt);
+        assertNull(LibrarySummary.read(path, 1, 1));
+    }
+
+    private static List<MediaEntry> entries(int count) {
+        Random random = new Random(count);
+        List<MediaEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(entry(File.separator + "media" + File.separator + "dir" + (i / 100) + File.separator
+                    + WORDS[random.nextInt(WORDS.length)] + " " + (1950 + random.nextInt(75)) + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " S0" + random.nextInt(4) + "E" + i + ".mkv"));
+        }
+        return entries;
+    }
+
+    private static MediaEntry entry(String path) {
+        String separated = path.replace('/', File.separatorChar);
+        return new MediaEntry(new File(separated), separated, 1, 1, null, MediaEntry.UNKNOWN);
+    }
+
+    private static TreeSet<String> expected(List<MediaEntry> entries, String query) {
+        String normalizedQuery = MediaSearchIndex.normalize(query);
+        TreeSet<String> paths = new TreeSet<>();
+        for (MediaEntry entry : entries) {
+            if (MediaSearchIndex.normalize(entry.getFile().getAbsolutePath()).contains(normalizedQuery)) {
+                paths.add(entry.getFile().getAbsolutePath());
+            }
+        }
+        return paths;
+    }
+
+    private static TreeSet<String> found(LibrarySummary summary, String query) {
+        TreeSet<String> paths = new TreeSet<>();
+        for (MediaSearchIndex.Hit hit : summary.search(query, Integer.MAX_VALUE)) {
+            paths.add(hit.getFile().getPath());
+        }
+        return paths;
+    }
+
+    private static List<String> names(List<MediaSearchIndex.Hit> hits) {
+        List<String> names = new ArrayList<>();
+        for (MediaSearchIndex.Hit hit : hits) {
+            names.add(hit.getFile().getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,134 @@
+package MainWindowUI;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MediaLibraryViewTest {
+    @Test
+    void dateAddedListsTheLatestAdditionsFirst() {
+        MediaLibraryView view = view();
+        view.setSortKey(MediaLibraryView.SortKey.DATE_ADDED);
+
+        assertEquals(Arrays.asList("c.mkv", "b.mkv", "a.mkv"), names(view));
+    }
+
+    @Test
+    void newestFirstSortsByModificationTime() {
+        MediaLibraryView view = view();
+        view.setSortKey(MediaLibraryView.SortKey.NEWEST);
+
+        assertEquals(Arrays.asList("b.mkv", "a.mkv", "c.mkv"), names(view));
+    }
+
+    @Test
+    void filtersByLibraryRow() {
+        MediaLibraryView view = view();
+        view.setFilter(row -> row != 1);
+
+        assertEquals(Arrays.asList("a.mkv", "c.mkv"), names(view));
+    }
+
+    @Test
+    void highlightFilterFollowsRemovedRows() {
+        MediaLibrary library = new MediaLibrary();
+        List<MediaEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            entries.add(entry("f" + i + ".mkv", 1000 + i));
+        }
+        library.addAll(entries);
+        BitSet highlighted = new BitSet();
+        highlighted.set(5);
+        highlighted.set(9);
+        library.addListener(new MediaLibrary.Listener() {
+            @Override
+            public void mediaAdded(int firstIndex, List<MediaEntry> added) {
+            }
+
+            @Override
+            public void mediaRemoved(int[] removedIndices, List<MediaEntry> removed) {
+                MediaLibrary.removeRows(highlighted, removedIndices);
+            }
+
+            @Override
+            public void mediaReplaced(int index, MediaEntry oldEntry, MediaEntry newEntry) {
+            }
+        });
+        MediaLibraryView view = new MediaLibraryView(library);
+        view.setFilter(highlighted::get);
+
+        library.remove(0);
+        assertEquals(Arrays.asList("f5.mkv", "f9.mkv"), names(view));
+        library.removeIndices(new int[] { 1, 4, 6 });
+        assertEquals(Arrays.asList("f9.mkv"), names(view));
+        assertEquals(5, highlighted.nextSetBit(0));
+    }
+
+    @Test
+    void batchReplacesKeepEverySortOrderSorted() {
+        Random random = new Random(7);
+        MediaLibrary library = new MediaLibrary();
+        List<MediaEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            entries.add(randomEntry(random, i));
+        }
+        library.addAll(entries);
+        List<MediaLibraryView> views = new ArrayList<>();
+        for (MediaLibraryView.SortKey key : MediaLibraryView.SortKey.values()) {
+            MediaLibraryView view = new MediaLibraryView(library);
+            view.setSortKey(key);
+            views.add(view);
+        }
+
+        for (int batch = 0; batch < 200; batch++) {
+            int count = 1 + random.nextInt(batch % 2 == 0 ? 8 : 100);
+            int[] indices = new int[count];
+            List<MediaEntry> replacements = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                indices[i] = random.nextInt(library.size());
+                replacements.add(random.nextBoolean() ? library.getEntry(indices[i]).withDuration(
+                        random.nextInt(10000)) : randomEntry(random, 1000 + batch * 100 + i));
+            }
+            library.replaceAll(indices, replacements);
+        }
+
+        for (MediaLibraryView view : views) {
+            MediaLibraryView fresh = new MediaLibraryView(library);
+            fresh.setSortKey(view.getSortKey());
+            assertEquals(names(fresh), names(view), view.getSortKey().toString());
+        }
+    }
+
+    private static MediaEntry randomEntry(Random random, int i) {
+        String path = File.separator + "media" + File.separator + "dir" + random.nextInt(5) + File.separator
+                + (char) ('a' + random.nextInt(26)) + "movie" + i + (random.nextBoolean() ? ".mkv" : ".mp4");
+        return new MediaEntry(new File(path), path, random.nextInt(1000), random.nextInt(1000), null,
+                random.nextInt(10000));
+    }
+
+    private static MediaLibraryView view() {
+        MediaLibrary library = new MediaLibrary();
+        library.addAll(Arrays.asList(entry("a.mkv", 2000), entry("b.mkv", 3000), entry("c.mkv", 1000)));
+        return new MediaLibraryView(library);
+    }
+
+    private static List<String> names(MediaLibraryView view) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < view.size(); i++) {
+            names.add(view.get(i).getName());
+        }
+        return names;
+    }
+
+    private static MediaEntry entry(String name, long lastModified) {
+        String path = File.separator + "media" + File.separator + name;
+        return new MediaEntry(new File(path), path, 100, lastModified, null, MediaEntry.UNKNOWN);
+    }
+}
@@ -0,0 +1,93 @@
+package MainWindowUI;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MediaListModelTest {
+    private final List<String> events = new ArrayList<>();
+    private MediaLibrary library;
+    private MediaLibraryView view;
+    private MediaListModel model;
+
+    @BeforeEach
+    void createModel() {
+        library = new MediaLibrary();
+        for (int i = 0; i < 10; i++) {
+            library.addAll(Collections.singletonList(entry("movie-" + i + ".mkv", 100 + i)));
+        }
+        view = new MediaLibraryView(library);
+        model = new MediaListModel(view);
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("changed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+        });
+    }
+
+    @Test
+    void appendingFiresOnlyTheAddedRange() {
+        library.addAll(Collections.singletonList(entry("movie-10.mkv", 110)));
+
+        assertEquals(Collections.singletonList("added 10-10"), events);
+        assertEquals(11, model.getSize());
+    }
+
+    @Test
+    void removingFiresOnlyTheRemovedRange() {
+        library.remove(4);
+
+        assertEquals(Collections.singletonList("removed 4-4"), events);
+        assertEquals("movie-5.mkv", model.getElementAt(4).getName());
+    }
+
+    @Test
+    void replacingFiresAChangeForThatRow() {
+        library.replace(6, entry("renamed.mkv", 106));
+
+        assertEquals(Collections.singletonList("changed 6-6"), events);
+        assertEquals("renamed.mkv", model.getElementAt(6).getName());
+    }
+
+    @Test
+    void unchangedRefreshFiresNothing() {
+        view.refresh();
+
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void filteringFiresOneRangeAroundTheDifference() {
+        view.setFilter(row -> row != 2 && row != 7);
+
+        assertEquals(2, events.size());
+        assertEquals("changed 2-5", events.get(0));
+        assertEquals("removed 6-7", events.get(1));
+        assertEquals(8, model.getSize());
+    }
+
+    private static MediaEntry entry(String name, long size) {
+        String path = File.separator + "media" + File.separator + name;
+        return new MediaEntry(new File(path), path, size, 1500000000000L + size, null, MediaEntry.UNKNOWN);
+    }
+}
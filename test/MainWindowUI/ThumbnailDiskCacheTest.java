@@ -0,0 +1,83 @@
+package MainWindowUI;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThumbnailDiskCacheTest {
+    private static final long MB = 1L << 20;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsAThumbnailUnderItsKey() throws IOException {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory);
+        String key = ThumbnailDiskCache.key("/media/a.mkv", 100, 200);
+
+        assertNull(cache.read(key));
+        cache.write(key, new BufferedImage(96, 54, BufferedImage.TYPE_INT_ARGB));
+
+        BufferedImage read = cache.read(key);
+        assertNotNull(read);
+        assertEquals(96, read.getWidth());
+        assertEquals(Files.size(directory.resolve(key.substring(0, 2)).resolve(key + ".jpg")),
+                cache.getTotalBytes());
+        assertFalse(key.equals(ThumbnailDiskCache.key("/media/a.mkv", 100, 201)));
+    }
+
+    /** Sparse files stand in for 300 MB of thumbnails, so the default 256 MB cap is hit without writing it. */
+    @Test
+    void evictsTheLeastRecentlyReadFilesToFourFifthsOfTheDefaultCap() throws IOException {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory);
+        String recent = ThumbnailDiskCache.key("/media/recent.mkv", 1, 1);
+        cache.write(recent, new BufferedImage(96, 54, BufferedImage.TYPE_INT_RGB));
+        Path[] filler = new Path[5];
+        for (int i = 0; i < filler.length; i++) {
+            filler[i] = directory.resolve("f" + i).resolve("filler" + i + ".jpg");
+            Files.createDirectories(filler[i].getParent());
+            try (RandomAccessFile file = new RandomAccessFile(filler[i].toFile(), "rw")) {
+                file.setLength(60 * MB);
+            }
+            Files.setLastModifiedTime(filler[i], FileTime.fromMillis(1000000L * (i + 2)));
+        }
+        Path recentPath = directory.resolve(recent.substring(0, 2)).resolve(recent + ".jpg");
+        Files.setLastModifiedTime(recentPath, FileTime.fromMillis(1000000L));
+        assertNotNull(cache.read(recent));
+
+        ThumbnailDiskCache reopened = new ThumbnailDiskCache(directory);
+        reopened.write(ThumbnailDiskCache.key("/media/new.mkv", 1, 1),
+                new BufferedImage(96, 54, BufferedImage.TYPE_INT_RGB));
+
+        assertFalse(Files.exists(filler[0]));
+        assertFalse(Files.exists(filler[1]));
+        assertTrue(Files.exists(filler[2]));
+        assertTrue(Files.exists(recentPath));
+        long total = reopened.getTotalBytes();
+        assertTrue(total > 180 * MB && total <= 256 * MB * 4 / 5, "total " + total);
+    }
+
+    @Test
+    void staysUnderASmallCap() throws IOException {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 20000);
+        for (int i = 0; i < 40; i++) {
+            BufferedImage image = new BufferedImage(96, 54, BufferedImage.TYPE_INT_RGB);
+            image.setRGB(i, i % 54, 0xFFFFFF);
+            cache.write(ThumbnailDiskCache.key("/media/" + i + ".mkv", 1, 1), image);
+            assertTrue(cache.getTotalBytes() <= 20000);
+        }
+        assertNotNull(cache.read(ThumbnailDiskCache.key("/media/39.mkv", 1, 1)));
+    }
+}
@@ -0,0 +1,61 @@
+package MainWindowUI;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ThumbnailMemoryCacheTest {
+    @Test
+    void evictsTheLeastRecentlyUsedImagesPastTheByteCap() {
+        ThumbnailMemoryCache cache = new ThumbnailMemoryCache(1000);
+        cache.put("a", image(10, 10));
+        cache.put("b", image(10, 10));
+        cache.put("c", image(10, 10));
+        assertEquals(900, cache.getBytes());
+
+        assertNotNull(cache.get("a"));
+        cache.put("d", image(10, 10));
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(3, cache.size());
+        assertEquals(900, cache.getBytes());
+    }
+
+    @Test
+    void tracksBytesAcrossReplacesAndRemoves() {
+        ThumbnailMemoryCache cache = new ThumbnailMemoryCache(10000);
+        cache.put("a", image(10, 10));
+        cache.put("a", image(20, 10));
+        assertEquals(600, cache.getBytes());
+
+        cache.remove("a");
+        cache.remove("missing");
+        assertEquals(0, cache.getBytes());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void keepsAnImageLargerThanTheCapUntilTheNextPut() {
+        ThumbnailMemoryCache cache = new ThumbnailMemoryCache(500);
+        cache.put("a", image(10, 10));
+        BufferedImage large = image(30, 10);
+        cache.put("large", large);
+
+        assertSame(large, cache.get("large"));
+        assertNull(cache.get("a"));
+        cache.put("b", image(10, 10));
+        assertNull(cache.get("large"));
+        assertEquals(300, cache.getBytes());
+    }
+
+    private static BufferedImage image(int width, int height) {
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+}
@@ -0,0 +1,192 @@
+package MainWindowUI;
+
+import MediaPlayerUI.FrameGrabber;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThumbnailServiceTest {
+    @TempDir
+    Path directory;
+
+    private final StubGrabber grabber = new StubGrabber();
+    private final List<String> ready = Collections.synchronizedList(new ArrayList<>());
+    private ThumbnailService service;
+
+    @AfterEach
+    void shutdown() {
+        grabber.release();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void grabsOnceAndServesFromMemoryThenDisk() throws IOException, InterruptedException {
+        grabber.release();
+        service = service(60000);
+        File a = media("a.mkv");
+
+        assertNull(service.thumbnail(a));
+        await(() -> ready.contains("a.mkv"));
+        assertNotNull(service.thumbnail(a));
+
+        ThumbnailService reopened = new ThumbnailService(grabber, new ThumbnailMemoryCache(1 << 20),
+                new ThumbnailDiskCache(directory.resolve("cache")), 1, file -> ready.add("reopened"));
+        try {
+            reopened.thumbnail(a);
+            await(() -> ready.contains("reopened"));
+        } finally {
+            reopened.shutdown();
+        }
+        assertEquals(Collections.singletonList("a.mkv"), grabber.grabbed());
+    }
+
+    @Test
+    void loadsTheNewestVisibleRangeFirst() throws IOException, InterruptedException {
+        service = service(60000);
+        service.thumbnail(media("a.mkv"));
+        await(() -> grabber.grabbed().size() == 1);
+        service.thumbnail(media("b.mkv"));
+        service.thumbnail(media("c.mkv"));
+        service.visibleRangeChanged();
+        service.thumbnail(media("d.mkv"));
+        service.thumbnail(media("e.mkv"));
+        assertEquals(4, service.getQueuedCount());
+
+        grabber.release();
+        await(() -> ready.size() == 5);
+
+        assertEquals(Arrays.asList("a.mkv", "d.mkv", "e.mkv", "b.mkv", "c.mkv"), grabber.grabbed());
+    }
+
+    @Test
+    void requeuesTasksThatFellStaleBeforeTheirTurn() throws IOException, InterruptedException {
+        service = service(60000);
+        File b = media("b.mkv");
+        service.thumbnail(media("a.mkv"));
+        await(() -> grabber.grabbed().size() == 1);
+        service.thumbnail(b);
+        for (int i = 0; i < 3; i++) {
+            service.visibleRangeChanged();
+        }
+
+        grabber.release();
+        await(() -> ready.contains("b.mkv"));
+        assertEquals(Collections.singletonList("a.mkv"), grabber.grabbed());
+
+        assertNull(service.thumbnail(b));
+        await(() -> grabber.grabbed().contains("b.mkv"));
+        await(() -> service.thumbnail(b) != null);
+    }
+
+    @Test
+    void retriesAFailedFileOnlyAfterTheFailureExpires() throws IOException, InterruptedException {
+        grabber.release();
+        service = service(500);
+        File broken = media("broken.mkv");
+
+        service.thumbnail(broken);
+        await(() -> grabber.grabbed().size() == 1);
+        assertNull(service.thumbnail(broken));
+        assertEquals(0, service.getQueuedCount());
+
+        Thread.sleep(600);
+        service.thumbnail(broken);
+        await(() -> grabber.grabbed().size() == 2);
+        assertEquals(Arrays.asList("broken.mkv", "broken.mkv"), grabber.grabbed());
+    }
+
+    @Test
+    void stopsQueueingOnceTheBackendIsMissing() throws IOException, InterruptedException {
+        grabber.release();
+        service = service(60000);
+
+        service.thumbnail(media("missing-backend.mkv"));
+        await(() -> grabber.grabbed().size() == 1);
+        Thread.sleep(50);
+        service.thumbnail(media("a.mkv"));
+        Thread.sleep(50);
+
+        assertEquals(Collections.singletonList("missing-backend.mkv"), grabber.grabbed());
+    }
+
+    private ThumbnailService service(long failureRetryMillis) {
+        return new ThumbnailService(grabber, new ThumbnailMemoryCache(1 << 20),
+                new ThumbnailDiskCache(directory.resolve("cache")), 1, file -> ready.add(file.getName()),
+                failureRetryMillis);
+    }
+
+    private File media(String name) throws IOException {
+        Path path = directory.resolve(name);
+        if (!Files.exists(path)) {
+            Files.write(path, name.getBytes());
+        }
+        return path.toFile();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    /** Holds every grab until released; names starting with "broken" fail and "missing-backend" disables. */
+    private static final class StubGrabber implements FrameGrabber {
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final List<String> grabbed = new ArrayList<>();
+
+        @Override
+        public BufferedImage grab(File mediaFile, int width, int height) throws IOException {
+            synchronized (this) {
+                grabbed.add(mediaFile.getName());
+            }
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted", e);
+            }
+            if (mediaFile.getName().startsWith("broken")) {
+                throw new IOException("cannot decode " + mediaFile);
+            }
+            if (mediaFile.getName().startsWith("missing-backend")) {
+                throw new IllegalStateException("no native libraries");
+            }
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        synchronized List<String> grabbed() {
+            return new ArrayList<>(grabbed);
+        }
+    }
+}
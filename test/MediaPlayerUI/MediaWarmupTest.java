@@ -0,0 +1,160 @@
+package MediaPlayerUI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MediaWarmupTest {
+    private final StubPreparer preparer = new StubPreparer();
+    private MediaWarmup<String> warmup;
+
+    @AfterEach
+    void shutdown() {
+        if (warmup != null) {
+            warmup.shutdown();
+        }
+    }
+
+    @Test
+    void initializesOnceAndHandsPreparedMediaToThePlayer() throws InterruptedException {
+        warmup = new MediaWarmup<>(preparer, 0, 4);
+        warmup.start();
+        await(warmup::isAvailable);
+        warmup.hint(new File("a.mkv"));
+        await(() -> warmup.isPrepared(new File("a.mkv")));
+
+        assertEquals("media:a.mkv", warmup.take(new File("a.mkv")));
+        assertNull(warmup.take(new File("a.mkv")));
+        assertEquals(1, preparer.initializations());
+    }
+
+    @Test
+    void preparesOnlyTheLastOfAQuickRunOfHints() throws InterruptedException {
+        warmup = new MediaWarmup<>(preparer, 200, 4);
+        warmup.hint(new File("a.mkv"));
+        warmup.hint(new File("b.mkv"));
+        warmup.hint(new File("c.mkv"));
+        await(() -> warmup.isPrepared(new File("c.mkv")));
+
+        assertEquals(Collections.singletonList("c.mkv"), preparer.prepared());
+        assertFalse(warmup.isPrepared(new File("a.mkv")));
+    }
+
+    @Test
+    void releasesTheLeastRecentlyUsedMediaPastCapacity() throws InterruptedException {
+        warmup = new MediaWarmup<>(preparer, 0, 2);
+        for (String name : new String[] { "a.mkv", "b.mkv", "c.mkv" }) {
+            warmup.hint(new File(name));
+            await(() -> warmup.isPrepared(new File(name)));
+        }
+
+        assertFalse(warmup.isPrepared(new File("a.mkv")));
+        assertEquals(Collections.singletonList("media:a.mkv"), preparer.released());
+        warmup.shutdown();
+        assertEquals(Arrays.asList("media:a.mkv", "media:b.mkv", "media:c.mkv"), sorted(preparer.released()));
+    }
+
+    @Test
+    void skipsPreparationWhenTheBackendIsMissing() throws InterruptedException {
+        preparer.failInitialize = true;
+        warmup = new MediaWarmup<>(preparer, 0, 2);
+        warmup.start();
+        await(() -> preparer.initializations() == 1);
+        warmup.hint(new File("a.mkv"));
+        Thread.sleep(50);
+
+        assertFalse(warmup.isAvailable());
+        assertFalse(warmup.isPrepared(new File("a.mkv")));
+        assertTrue(preparer.prepared().isEmpty());
+    }
+
+    @Test
+    void aFailedPreparationLeavesNothingBehind() throws InterruptedException {
+        warmup = new MediaWarmup<>(preparer, 0, 2);
+        warmup.hint(new File("missing.mkv"));
+        await(() -> preparer.prepared().contains("missing.mkv"));
+        warmup.hint(new File("b.mkv"));
+        await(() -> warmup.isPrepared(new File("b.mkv")));
+
+        assertFalse(warmup.isPrepared(new File("missing.mkv")));
+        assertNull(warmup.take(new File("missing.mkv")));
+    }
+
+    @Test
+    void ignoresHintsAfterShutdown() throws InterruptedException {
+        warmup = new MediaWarmup<>(preparer, 0, 2);
+        warmup.shutdown();
+        warmup.hint(new File("a.mkv"));
+        Thread.sleep(50);
+
+        assertTrue(preparer.prepared().isEmpty());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private static final class StubPreparer implements MediaPreparer<String> {
+        private final List<String> prepared = new ArrayList<>();
+        private final List<String> released = new ArrayList<>();
+        private int initializations;
+        volatile boolean failInitialize;
+
+        @Override
+        public synchronized void initialize() {
+            initializations++;
+            if (failInitialize) {
+                throw new IllegalStateException("no native libraries");
+            }
+        }
+
+        @Override
+        public synchronized String prepare(File mediaFile) throws IOException {
+            prepared.add(mediaFile.getName());
+            if (mediaFile.getName().startsWith("missing")) {
+                throw new IOException(mediaFile + " not found");
+            }
+            return "media:" + mediaFile.getName();
+        }
+
+        @Override
+        public synchronized void release(String media) {
+            released.add(media);
+        }
+
+        synchronized int initializations() {
+            return initializations;
+        }
+
+        synchronized List<String> prepared() {
+            return new ArrayList<>(prepared);
+        }
+
+        synchronized List<String> released() {
+            return new ArrayList<>(released);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package MediaPlayerUI;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaybackQueueTest {
+    private final FakePlayer player = new FakePlayer();
+    private final PlaybackQueue queue = new PlaybackQueue(player, 15000, new Random(42));
+
+    @Test
+    void playsInOrderAndStopsAtTheEnd() {
+        queue.playItems(files("a", "b", "c"), 1);
+        queue.finished();
+        queue.finished();
+
+        assertEquals(files("b", "c"), player.played);
+        assertNull(queue.peekNext());
+        assertFalse(queue.next());
+    }
+
+    @Test
+    void repeatAllWrapsAndRepeatOneReplays() {
+        queue.playItems(files("a", "b"), 1);
+        queue.setRepeatMode(PlaybackQueue.RepeatMode.ALL);
+        queue.finished();
+        queue.setRepeatMode(PlaybackQueue.RepeatMode.ONE);
+        queue.finished();
+        assertTrue(queue.next());
+
+        assertEquals(files("b", "a", "a", "b"), player.played);
+    }
+
+    @Test
+    void preloadsTheNextItemOnceNearTheEnd() {
+        queue.playItems(files("a", "b"), 0);
+        queue.timeChanged(10000, 60000);
+        queue.timeChanged(46000, 60000);
+        queue.timeChanged(50000, 60000);
+
+        assertEquals(files("b"), player.preloaded);
+        queue.finished();
+        queue.timeChanged(50000, 60000);
+        assertEquals(files("b"), player.preloaded);
+    }
+
+    @Test
+    void shuffleKeepsTheCurrentItemAndVisitsEveryItemOnce() {
+        List<File> items = files("a", "b", "c", "d", "e", "f");
+        queue.playItems(items, 3);
+        queue.setShuffle(true);
+
+        assertEquals(new File("d"), queue.getCurrentItem());
+        List<File> visited = new ArrayList<>();
+        visited.add(queue.getCurrentItem());
+        while (queue.next()) {
+            visited.add(queue.getCurrentItem());
+        }
+        assertEquals(items.size(), visited.size());
+        assertEquals(new HashSet<>(items), new HashSet<>(visited));
+    }
+
+    @Test
+    void enqueuedItemsPlayAfterTheCurrentOne() {
+        queue.playItems(files("a"), 0);
+        queue.enqueue(files("b", "c"));
+        queue.finished();
+        queue.finished();
+
+        assertEquals(files("a", "b", "c"), player.played);
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    void previousStepsBackAndWrapsOnlyWithRepeatAll() {
+        queue.playItems(files("a", "b"), 0);
+        assertTrue(queue.previous());
+        queue.setRepeatMode(PlaybackQueue.RepeatMode.ALL);
+        assertTrue(queue.previous());
+
+        assertEquals(files("a", "a", "b"), player.played);
+    }
+
+    private static List<File> files(String... names) {
+        List<File> files = new ArrayList<>();
+        for (String name : names) {
+            files.add(new File(name));
+        }
+        return files;
+    }
+
+    private static final class FakePlayer implements QueuePlayer {
+        final List<File> played = new ArrayList<>();
+        final List<File> preloaded = new ArrayList<>();
+
+        @Override
+        public void play(File item) {
+            played.add(item);
+        }
+
+        @Override
+        public void preload(File item) {
+            preloaded.add(item);
+        }
+    }
+}
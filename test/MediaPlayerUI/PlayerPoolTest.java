@@ -0,0 +1,123 @@
+package MediaPlayerUI;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerPoolTest {
+    @Test
+    void reusesIdlePlayers() {
+        FakeProvider provider = new FakeProvider();
+        PlayerPool<FakePlayer> pool = new PlayerPool<>(provider, 2, 1);
+
+        FakePlayer first = pool.acquire();
+        pool.release(first);
+
+        assertSame(first, pool.acquire());
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, first.resets);
+    }
+
+    @Test
+    void refusesPlayersPastTheLiveLimit() {
+        PlayerPool<FakePlayer> pool = new PlayerPool<>(new FakeProvider(), 2, 1);
+        pool.acquire();
+        pool.acquire();
+
+        assertFalse(pool.canAcquire());
+        assertThrows(IllegalStateException.class, pool::acquire);
+    }
+
+    @Test
+    void releasesPlayersBeyondTheIdleLimit() {
+        FakeProvider provider = new FakeProvider();
+        PlayerPool<FakePlayer> pool = new PlayerPool<>(provider, 3, 1);
+        FakePlayer first = pool.acquire();
+        FakePlayer second = pool.acquire();
+
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(1, pool.getLiveCount());
+        assertEquals(1, provider.released.size());
+        assertSame(second, provider.released.get(0));
+    }
+
+    @Test
+    void releasesPlayersThatFailToReset() {
+        Logger logger = Logger.getLogger(PlayerPool.class.getName());
+        Level level = logger.getLevel();
+        logger.setLevel(Level.OFF);
+        try {
+            FakeProvider provider = new FakeProvider();
+            PlayerPool<FakePlayer> pool = new PlayerPool<>(provider, 1, 1);
+            FakePlayer broken = pool.acquire();
+            broken.failReset = true;
+
+            pool.release(broken);
+
+            assertEquals(0, pool.getLiveCount());
+            assertEquals(0, pool.getIdleCount());
+            assertTrue(provider.released.contains(broken));
+            assertTrue(pool.canAcquire());
+            assertNotSame(broken, pool.acquire());
+        } finally {
+            logger.setLevel(level);
+        }
+    }
+
+    @Test
+    void shutdownReleasesIdlePlayersAndRefusesNewOnes() {
+        FakeProvider provider = new FakeProvider();
+        PlayerPool<FakePlayer> pool = new PlayerPool<>(provider, 2, 2);
+        FakePlayer idle = pool.acquire();
+        FakePlayer inUse = pool.acquire();
+        pool.release(idle);
+
+        pool.shutdown();
+        assertEquals(1, pool.getLiveCount());
+        assertThrows(IllegalStateException.class, pool::acquire);
+
+        pool.release(inUse);
+        assertEquals(0, pool.getLiveCount());
+        assertEquals(2, provider.released.size());
+    }
+
+    private static final class FakePlayer {
+        int resets;
+        boolean failReset;
+    }
+
+    private static final class FakeProvider implements PlayerProvider<FakePlayer> {
+        final List<FakePlayer> released = new ArrayList<>();
+
+        @Override
+        public FakePlayer create() {
+            return new FakePlayer();
+        }
+
+        @Override
+        public void reset(FakePlayer player) {
+            if (player.failReset) {
+                throw new IllegalStateException("reset failed");
+            }
+            player.resets++;
+        }
+
+        @Override
+        public void release(FakePlayer player) {
+            released.add(player);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package MediaPlayerUI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProgressUpdateSchedulerTest {
+    private static final long INTERVAL_MILLIS = 20;
+
+    private final ExecutorService ui = Executors.newSingleThreadExecutor();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void shutdown() {
+        ui.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    @Test
+    void coalescesAHighEventRateAndDeliversTheLatestTime() throws InterruptedException {
+        AtomicLong updates = new AtomicLong();
+        AtomicLong lastTime = new AtomicLong(-1);
+        ProgressUpdateScheduler scheduler = new ProgressUpdateScheduler((time, length) -> {
+            updates.incrementAndGet();
+            lastTime.set(time);
+        }, ui, timer, INTERVAL_MILLIS);
+
+        int threads = 4;
+        int eventsPerThread = 50000;
+        AtomicLong clock = new AtomicLong();
+        long start = System.nanoTime();
+        List<Thread> players = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread player = new Thread(() -> {
+                for (int i = 0; i < eventsPerThread; i++) {
+                    scheduler.timeChanged(clock.incrementAndGet());
+                }
+            });
+            players.add(player);
+            player.start();
+        }
+        for (Thread player : players) {
+            player.join();
+        }
+        long finalTime = clock.incrementAndGet();
+        scheduler.timeChanged(finalTime);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lastTime.get() != finalTime && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(finalTime, lastTime.get());
+        assertTrue(updates.get() <= elapsedMillis / INTERVAL_MILLIS + 2,
+                updates.get() + " updates in " + elapsedMillis + " ms");
+        assertTrue(updates.get() < (long) threads * eventsPerThread / 100);
+    }
+
+    @Test
+    void deliversTheLengthWithTheNextUpdate() throws InterruptedException {
+        AtomicLong lastLength = new AtomicLong();
+        ProgressUpdateScheduler scheduler = new ProgressUpdateScheduler((time, length) -> lastLength.set(length),
+                ui, timer, INTERVAL_MILLIS);
+
+        scheduler.lengthChanged(90000);
+        scheduler.timeChanged(1000);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lastLength.get() != 90000 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(90000, lastLength.get());
+        assertEquals(90000, scheduler.getLength());
+    }
+}
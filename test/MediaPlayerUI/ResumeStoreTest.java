@@ -0,0 +1,197 @@
+package MediaPlayerUI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResumeStoreTest {
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @TempDir
+    Path directory;
+
+    private final List<IOException> errors = Collections.synchronizedList(new ArrayList<>());
+    private final List<ResumeStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        for (ResumeStore store : stores) {
+            store.close();
+        }
+    }
+
+    @Test
+    void removeKeepsCollidingKeysReachable() {
+        ResumeStore store = open(directory.resolve("resume.db"));
+        long[] colliding = collidingKeys(5);
+        for (int i = 0; i < colliding.length; i++) {
+            store.put(colliding[i], 1000 * (i + 1));
+        }
+
+        store.remove(colliding[1]);
+        store.remove(colliding[0]);
+
+        assertEquals(0, store.get(colliding[0]));
+        assertEquals(0, store.get(colliding[1]));
+        for (int i = 2; i < colliding.length; i++) {
+            assertEquals(1000 * (i + 1), store.get(colliding[i]));
+        }
+        assertEquals(3, store.size());
+        store.put(colliding[0], 7000);
+        assertEquals(7000, store.get(colliding[0]));
+        assertEquals(4, store.size());
+    }
+
+    @Test
+    void holdsAHundredThousandKeysThroughGrowthAndRemoval() {
+        ResumeStore store = open(directory.resolve("resume.db"));
+        long[] keys = randomKeys(100000);
+        for (int i = 0; i < keys.length; i++) {
+            store.put(keys[i], i + 1);
+        }
+        for (int i = 0; i < keys.length; i += 3) {
+            store.remove(keys[i]);
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 3 == 0 ? 0 : i + 1, store.get(keys[i]), "key " + i);
+        }
+        assertEquals(keys.length - (keys.length + 2) / 3, store.size());
+    }
+
+    @Test
+    void recordForgetsPositionsNearTheStartAndEnd() {
+        ResumeStore store = open(directory.resolve("resume.db"));
+        store.record(1, 60000, 3600000);
+        assertEquals(60000, store.get(1));
+
+        store.record(1, 3000, 3600000);
+        assertEquals(0, store.get(1));
+        store.record(2, 3590000, 3600000);
+        assertEquals(0, store.get(2));
+        store.record(3, 3590000, 0);
+        assertEquals(3590000, store.get(3));
+    }
+
+    @Test
+    void coalescesChangesIntoOneWriteBehindTheCaller() throws InterruptedException {
+        Path path = directory.resolve("resume.db");
+        ResumeStore store = open(path);
+        for (int i = 1; i <= 1000; i++) {
+            store.put(i, 10000 + i);
+        }
+        Thread.sleep(50);
+        assertEquals(0, store.getWriteCount());
+
+        store.flush();
+        store.flush();
+        store.flush();
+        await(() -> store.getWriteCount() == 1);
+        store.put(1, 10001);
+        store.flush();
+        Thread.sleep(50);
+        assertEquals(1, store.getWriteCount());
+
+        store.close();
+        assertEquals(1000, open(path).size());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    void replacesTheFileAtomicallyAndKeepsItWhenAWriteFails() throws IOException, InterruptedException {
+        Path path = directory.resolve("resume.db");
+        ResumeStore store = open(path);
+        store.put(42, 90000);
+        store.flush();
+        await(() -> store.getWriteCount() == 1);
+        byte[] saved = Files.readAllBytes(path);
+        assertFalse(Files.exists(directory.resolve("resume.db.tmp")));
+
+        Files.createDirectory(directory.resolve("resume.db.tmp"));
+        store.put(42, 120000);
+        store.flush();
+        await(() -> !errors.isEmpty());
+
+        assertArrayEquals(saved, Files.readAllBytes(path));
+        assertEquals(90000, open(path).get(42));
+        Files.delete(directory.resolve("resume.db.tmp"));
+        store.close();
+        assertEquals(120000, open(path).get(42));
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    void ignoresACorruptOrTruncatedFile() throws IOException {
+        Path path = directory.resolve("resume.db");
+        ResumeStore store = open(path);
+        for (int i = 1; i <= 100; i++) {
+            store.put(i, 10000 + i);
+        }
+        store.close();
+        byte[] saved = Files.readAllBytes(path);
+        assertEquals(100, open(path).size());
+
+        byte[] corrupt = saved.clone();
+        corrupt[12 + 16 * 50 + 15] ^= 1;
+        Files.write(path, corrupt);
+        assertEquals(0, open(path).size());
+
+        Files.write(path, Arrays.copyOf(saved, saved.length - 20));
+        ResumeStore truncated = open(path);
+        assertEquals(0, truncated.size());
+        truncated.put(7, 8000);
+        assertEquals(8000, truncated.get(7));
+    }
+
+    private ResumeStore open(Path path) {
+        ResumeStore store = new ResumeStore(path, HOUR_MILLIS, errors::add);
+        stores.add(store);
+        return store;
+    }
+
+    /** Keys that all hash to the same slot of the initial 1024-slot table. */
+    private static long[] collidingKeys(int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = 1; found < count; key++) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            if (((int) (mixed ^ (mixed >>> 32)) & 1023) == 17) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+
+    private static long[] randomKeys(int count) {
+        Random random = new Random(count);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextLong() | 1;
+        }
+        return keys;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,119 @@
+package MediaPlayerUI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeekCoalescerTest {
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final List<Long> seeks = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> seekNanos = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void issuesOnlyTheLatestTargetWithinTheInterval() throws InterruptedException {
+        SeekCoalescer coalescer = coalescer(0, 0, 200);
+        coalescer.seekTo(1000);
+        await(() -> seeks.size() == 1);
+
+        coalescer.seekTo(2000);
+        coalescer.seekTo(3000);
+        coalescer.seekTo(4000);
+        await(() -> seeks.size() == 2);
+        Thread.sleep(250);
+
+        assertEquals(Arrays.asList(1000L, 4000L), seeks);
+        assertTrue(seekNanos.get(1) - seekNanos.get(0) >= TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals(4, coalescer.getRequestedCount());
+        assertEquals(2, coalescer.getIssuedCount());
+    }
+
+    @Test
+    void commitSeeksImmediatelyAndDropsThePendingTarget() throws InterruptedException {
+        SeekCoalescer coalescer = coalescer(0, 0, 10000);
+        coalescer.seekTo(1000);
+        await(() -> seeks.size() == 1);
+        coalescer.seekTo(2000);
+        assertEquals(2000, coalescer.getPendingTarget());
+
+        coalescer.commit(5000);
+        await(() -> seeks.size() == 2);
+
+        assertEquals(Arrays.asList(1000L, 5000L), seeks);
+        assertEquals(-1, coalescer.getPendingTarget());
+    }
+
+    @Test
+    void seekByAccumulatesFromThePendingTarget() throws InterruptedException {
+        SeekCoalescer coalescer = coalescer(0, 0, 10000);
+        coalescer.seekTo(1000);
+        await(() -> seeks.size() == 1);
+
+        coalescer.seekBy(500);
+        coalescer.seekBy(500);
+        coalescer.seekBy(-250);
+
+        assertEquals(1750, coalescer.getPendingTarget());
+        coalescer.commit(coalescer.getPendingTarget());
+        await(() -> seeks.size() == 2);
+        assertEquals(Arrays.asList(1000L, 1750L), seeks);
+    }
+
+    @Test
+    void seekByStartsFromThePlayerTimeWhenNothingIsPending() throws InterruptedException {
+        SeekCoalescer coalescer = coalescer(30000, 0, 10);
+        coalescer.seekBy(-5000);
+        await(() -> seeks.size() == 1);
+
+        assertEquals(Collections.singletonList(25000L), seeks);
+    }
+
+    @Test
+    void clampsTargetsToTheMediaLength() throws InterruptedException {
+        SeekCoalescer coalescer = coalescer(0, 10000, 10000);
+        coalescer.seekTo(0);
+        await(() -> seeks.size() == 1);
+        coalescer.seekTo(20000);
+        assertEquals(9999, coalescer.getPendingTarget());
+        coalescer.seekBy(-50000);
+        assertEquals(0, coalescer.getPendingTarget());
+
+        SeekCoalescer unknownLength = coalescer(0, 0, 10000);
+        unknownLength.seekTo(0);
+        await(() -> seeks.size() == 2);
+        unknownLength.seekTo(20000);
+        assertEquals(20000, unknownLength.getPendingTarget());
+        unknownLength.seekTo(-1);
+        assertEquals(0, unknownLength.getPendingTarget());
+    }
+
+    private SeekCoalescer coalescer(long currentTime, long length, long minIntervalMillis) {
+        return new SeekCoalescer(time -> {
+            seekNanos.add(System.nanoTime());
+            seeks.add(time);
+        }, () -> currentTime, () -> length, timer, minIntervalMillis);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,75 @@
+package Metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    @Test
+    void percentilesStayWithinTheBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(100000, histogram.getCount());
+        assertEquals(100000000L, histogram.getMaxNanos());
+        assertEquals(50000500.0, histogram.getMeanNanos(), 1.0);
+        for (double percentile : new double[] { 50, 90, 99, 99.9 }) {
+            double expected = percentile * 1000000.0;
+            double actual = histogram.getPercentileNanos(percentile);
+            assertTrue(Math.abs(actual - expected) / expected < 0.032, "p" + percentile + " = " + actual);
+        }
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 0; value < 32; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getPercentileNanos(1));
+        assertEquals(15, histogram.getPercentileNanos(50));
+        assertEquals(31, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void bucketBoundsCoverEveryValue() {
+        for (long value : new long[] { 0, 31, 32, 33, 63, 64, 1000, 123456789, Long.MAX_VALUE }) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(LatencyHistogram.upperBoundOf(bucket) >= value, "bucket of " + value);
+            assertTrue(bucket == 0 || LatencyHistogram.upperBoundOf(bucket - 1) < value, "bucket of " + value);
+        }
+    }
+
+    @Test
+    void countsConcurrentRecordsAndResets() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long offset = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 25000; i++) {
+                    histogram.record(1000 + offset);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100000, histogram.getCount());
+        assertEquals(1003, histogram.getMaxNanos());
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+}
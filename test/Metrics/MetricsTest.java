@@ -0,0 +1,109 @@
+package Metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs with {@code cinema.metrics=true} (set by the Surefire configuration). Everything stays in process: the MBean
+ * is read from the platform server and the reporter writes to a temp file.
+ */
+class MetricsTest {
+    @BeforeEach
+    void requireMetrics() {
+        assumeTrue(Metrics.ENABLED, "run with -Dcinema.metrics=true");
+        Metrics.reset();
+    }
+
+    @AfterEach
+    void shutdown() {
+        Metrics.shutdown();
+        Metrics.reset();
+    }
+
+    @Test
+    void recordsCountersAndTimers() {
+        Metrics.increment("test.events");
+        Metrics.add("test.events", 4);
+        Metrics.record("test.latency", 2000000);
+        Metrics.record("test.latency", 4000000);
+
+        assertEquals(5L, Metrics.getCounters().get("test.events"));
+        LatencyHistogram latency = Metrics.getTimers().get("test.latency");
+        assertEquals(2, latency.getCount());
+        assertEquals(4000000, latency.getMaxNanos());
+    }
+
+    @Test
+    void publishesThroughTheMBeanAndWritesCsvOnShutdown(@TempDir Path directory) throws Exception {
+        Path csv = directory.resolve("metrics.csv");
+        System.setProperty("cinema.metrics.csv", csv.toString());
+        System.setProperty("cinema.metrics.intervalMillis", "3600000");
+        try {
+            Metrics.install();
+        } finally {
+            System.clearProperty("cinema.metrics.csv");
+            System.clearProperty("cinema.metrics.intervalMillis");
+        }
+        Metrics.increment("test.opened");
+        Metrics.record("test.load", 1500000);
+
+        MetricsMXBean bean = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+                new ObjectName("CinemaPlayer:type=Metrics"), MetricsMXBean.class);
+        assertEquals(1L, bean.getCounters().get("test.opened"));
+        assertEquals(1, bean.getTimers().get("test.load").getCount());
+        assertTrue(bean.getCsv().contains("test.load,timer,1"));
+
+        Metrics.shutdown();
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertTrue(lines.get(0).startsWith("timestamp,name,type"));
+        assertTrue(lines.stream().anyMatch(line -> line.contains(",test.opened,counter,1,")));
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(
+                new ObjectName("CinemaPlayer:type=Metrics")));
+    }
+
+    @Test
+    void countsEdtStalls(@TempDir Path directory) throws InterruptedException, InvocationTargetException,
+            IOException {
+        System.setProperty("cinema.metrics.csv", directory.resolve("metrics.csv").toString());
+        System.setProperty("cinema.metrics.edtStallMillis", "50");
+        try {
+            Metrics.install();
+        } finally {
+            System.clearProperty("cinema.metrics.csv");
+            System.clearProperty("cinema.metrics.edtStallMillis");
+        }
+        SwingUtilities.invokeAndWait(() -> {
+        });
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                Thread.sleep(120);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // invokeAndWait returns before the detector finishes timing the event, so wait for the next dispatch.
+        SwingUtilities.invokeAndWait(() -> {
+        });
+
+        assertEquals(1L, Metrics.getCounters().get("edt.stalls"));
+        assertTrue(Metrics.getTimers().get("edt.dispatch").getCount() >= 2);
+    }
+}